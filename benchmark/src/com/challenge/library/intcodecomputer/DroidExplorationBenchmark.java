@@ -0,0 +1,22 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.day15.Day15;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end benchmark of the day 15 droid exploration: hundreds of thousands of short executions, each one moving the
+ * droid a single step.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class DroidExplorationBenchmark {
+    @Benchmark
+    public int droidExploration() throws Exception {
+        return Day15.runDay15Part1().getNumMovements();
+    }
+}
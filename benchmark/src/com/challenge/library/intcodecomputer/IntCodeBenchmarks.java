@@ -0,0 +1,24 @@
+package com.challenge.library.intcodecomputer;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, from the project directory. Any JMH option can be given, e.g.:
+ * <pre>
+ *     IntCodeBenchmarks IntCodeProgramsBenchmark.boost -p engine=COMPILED
+ * </pre>
+ */
+public class IntCodeBenchmarks {
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.challenge.library.intcodecomputer;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import static com.challenge.library.intcodecomputer.IntCodeMemory.Builder.createIntCodeMemory;
+
+/**
+ * Microbenchmarks of the memory operations, {@link #OPERATIONS} per invocation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IntCodeMemoryBenchmark {
+    private static final int OPERATIONS = 1024;
+    private static final int MEMORY_SIZE = 4096;
+
+    private IntCodeMemory instructionsMemory;
+    private IntCodeMemory dataMemory;
+    private BigInteger[] positions;
+    private BigInteger[] values;
+    private long[] longPositions;
+
+    @Setup
+    public void setUp() {
+        // OPERATIONS add instructions, each one with a different combination of parameter modes
+        long[] code = new long[OPERATIONS * 4 + 1];
+        for (int i = 0; i < OPERATIONS; i++) {
+            code[i * 4] = (i % 3) * 100 + (i % 2) * 1000 + 1;
+            code[i * 4 + 1] = i;
+            code[i * 4 + 2] = i + 1;
+            code[i * 4 + 3] = i + 2;
+        }
+        code[OPERATIONS * 4] = 99;
+        instructionsMemory = createIntCodeMemory(code).build();
+
+        dataMemory = createIntCodeMemory(new long[MEMORY_SIZE]).build();
+        positions = new BigInteger[OPERATIONS];
+        values = new BigInteger[OPERATIONS];
+        longPositions = new long[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            longPositions[i] = (i * 2_654_435_761L) % MEMORY_SIZE;
+            positions[i] = BigInteger.valueOf(longPositions[i]);
+            values[i] = BigInteger.valueOf(i * 31L);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void readInstruction(Blackhole blackhole) throws Exception {
+        instructionsMemory.setCurrentPos(0);
+        for (int i = 0; i < OPERATIONS; i++) {
+            blackhole.consume(instructionsMemory.readInstruction());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void getValue(Blackhole blackhole) throws Exception {
+        for (BigInteger position : positions) {
+            blackhole.consume(dataMemory.getValue(position));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void setValue() throws Exception {
+        for (int i = 0; i < OPERATIONS; i++) {
+            dataMemory.setValue(values[i], positions[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void getLongValue(Blackhole blackhole) throws Exception {
+        for (long position : longPositions) {
+            blackhole.consume(dataMemory.getLongValue(position));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public void setLongValue() throws Exception {
+        for (int i = 0; i < OPERATIONS; i++) {
+            dataMemory.setLongValue(i, longPositions[i]);
+        }
+    }
+
+    // Half of the writes expand the dense memory and the other half go to far pages
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public IntCodeMemory autoExpandMemory() throws Exception {
+        IntCodeMemory memory = createIntCodeMemory(new long[] {99}).withAutoExpand().build();
+        for (int i = 1; i <= OPERATIONS / 2; i++) {
+            memory.setLongValue(i, i * 2L);
+        }
+        for (int i = 1; i <= OPERATIONS / 2; i++) {
+            memory.setLongValue(i, 100_000L + i * 512L);
+        }
+        return memory;
+    }
+}
@@ -0,0 +1,149 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.day11.HullPaintingRobot;
+import com.challenge.day13.ArcadeCabinet;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.challenge.day13.ArcadeCabinet.Builder.createArcadeCabinetFullGame;
+import static com.challenge.library.intcodecomputer.InstructionExecutor.Builder.createInstructionExecutor;
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+
+/**
+ * End to end benchmarks running the programs of the challenges with every engine. The BOOST benchmarks also report the
+ * int code instructions per second as a secondary result.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntCodeProgramsBenchmark {
+    private static final Path RESOURCES_PATH = Paths.get("resources", "com", "challenge");
+
+    @Param({"INTERPRETER", "TABLE_DRIVEN", "COMPILED"})
+    private ExecutionEngine engine;
+
+    private BigInteger[] boostCode;
+    private long boostTestInstructions;
+    private long boostSensorInstructions;
+    private BigInteger[] paintingCode;
+    private BigInteger[] gameCode;
+    private InputReplay gameReplay;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class InstructionCounter {
+        public long instructions;
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        boostCode = loadCode("day9", "input.txt");
+        boostTestInstructions = countInstructions(boostCode, 1);
+        boostSensorInstructions = countInstructions(boostCode, 2);
+        paintingCode = loadCode("day11", "input.txt");
+        gameCode = loadCode("day13", "input.txt");
+        gameCode[0] = BigInteger.valueOf(2); // Play for free
+        gameReplay = recordArcadeGame();
+    }
+
+    @Benchmark
+    public BigInteger boostTestMode(InstructionCounter counter) throws Exception {
+        counter.instructions += boostTestInstructions;
+        return runBoost(1);
+    }
+
+    @Benchmark
+    public BigInteger boostSensorBoostMode(InstructionCounter counter) throws Exception {
+        counter.instructions += boostSensorInstructions;
+        return runBoost(2);
+    }
+
+    @Benchmark
+    public int hullPainting() throws Exception {
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(paintingCode)
+                .withFeedbackLoopMode()
+                .withMemoryAutoExpand()
+                .withEngine(engine)
+                .build();
+
+        return HullPaintingRobot.createFromIntCodeComputer(intCodeComputer).paintSpaceShipHull();
+    }
+
+    @Benchmark
+    public long arcadeGame() throws Exception {
+        IntCodeComputer intCodeComputer = createArcadeGameComputer().build();
+
+        ArcadeCabinet arcadeCabinet = createArcadeCabinetFullGame()
+                .withIntCodeComputer(intCodeComputer)
+                .withScreenSize(45, 26)
+                .build();
+
+        return arcadeCabinet.runGame();
+    }
+
+    @Benchmark
+    public long arcadeGameReplay() throws Exception {
+        return gameReplay.replay(createArcadeGameComputer().build()).getLastOutputValue();
+    }
+
+    private IntCodeComputer.Builder createArcadeGameComputer() {
+        return createNewIntCodeComputer(gameCode)
+                .withMemoryAutoExpand()
+                .withFeedbackLoopMode()
+                .withAskForInputMode()
+                .withEngine(engine);
+    }
+
+    private InputReplay recordArcadeGame() throws Exception {
+        Path logFile = Files.createTempFile("arcade", ".inputlog");
+        try {
+            try (InputRecorder recorder = InputRecorder.create(logFile)) {
+                createArcadeCabinetFullGame()
+                        .withIntCodeComputer(createArcadeGameComputer().withInputRecorder(recorder).build())
+                        .withScreenSize(45, 26)
+                        .build()
+                        .runGame();
+            }
+            return InputReplay.load(logFile);
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+
+    private BigInteger runBoost(long input) throws Exception {
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(boostCode)
+                .withInputValue(input)
+                .withMemoryAutoExpand()
+                .withEngine(engine)
+                .build();
+
+        return intCodeComputer.executeCode().getOutput().get(0);
+    }
+
+    private static BigInteger[] loadCode(String day, String file) throws IOException {
+        return IntCodeLoader.getInstance().loadBigIntCodeFromFile(RESOURCES_PATH.resolve(day), file);
+    }
+
+    private static long countInstructions(BigInteger[] code, long input) throws Exception {
+        InstructionExecutor instructionExecutor = createInstructionExecutor(code)
+                .withInput(List.of(input))
+                .withMemoryAutoExpand()
+                .build();
+
+        long instructions = 1;
+        while (!instructionExecutor.executeNextInstruction().isExecutionFinished()) {
+            instructions++;
+        }
+        return instructions;
+    }
+}
@@ -0,0 +1,70 @@
+package com.challenge.library.intcodecomputer;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Parsing a program against loading it from the {@link ProgramCache}, for several sizes of random add and multiply
+ * programs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProgramLoadingBenchmark {
+    private static final String PROGRAM_FILE = "program.txt";
+
+    @Param({"1000", "3000", "10000", "100000"})
+    private int numCells;
+
+    private Path programDirectory;
+    private Path cacheDirectory;
+    private IntCodeLoader parsingLoader;
+    private IntCodeLoader cachedLoader;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < numCells - 1; i++) {
+            final long value = i % 4 == 0 ? 1 + (i / 4) % 2 : (i * 2_654_435_761L) % 1000;
+            text.append(value).append(',');
+        }
+        text.append("99\n");
+
+        programDirectory = Files.createTempDirectory("intcode-programs");
+        cacheDirectory = Files.createTempDirectory("intcode-cache");
+        Files.writeString(programDirectory.resolve(PROGRAM_FILE), text);
+
+        parsingLoader = IntCodeLoader.getInstance();
+        cachedLoader = IntCodeLoader.getCachedInstance(cacheDirectory, 0);
+        cachedLoader.loadIntCodeFromFile(programDirectory, PROGRAM_FILE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (Path directory : new Path[] {programDirectory, cacheDirectory}) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+                    Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long[] parse() throws IOException {
+        return parsingLoader.loadIntCodeFromFile(programDirectory, PROGRAM_FILE);
+    }
+
+    @Benchmark
+    public long[] cacheHit() throws IOException {
+        return cachedLoader.loadIntCodeFromFile(programDirectory, PROGRAM_FILE);
+    }
+}
@@ -1,6 +1,11 @@
 package com.challenge;
 
+import com.challenge.library.intcodecomputer.IntCodeSolver;
+
 import java.util.Arrays;
+import java.util.Optional;
+
+import static com.challenge.library.intcodecomputer.IntCodeSolver.Builder.createSolver;
 
 public class Day2 {
     public static void main(String[] args) {
@@ -20,30 +25,21 @@ public class Day2 {
     }
 
     private static void runDay2Part2Challenge() {
-        Day2 day2 = new Day2();
         final long output = 19690720;
         final int max = 99;
 
-        for(int noun = 0; noun <= max; noun++) {
-            for (int verb = 0; verb <= max; verb++) {
-                long[] intCode = getInput();
-                intCode[1] = noun;
-                intCode[2] = verb;
-
-                try {
-                    day2.runIntCode(intCode);
-                    if (intCode[0] == output) {
-                        System.out.println("Answer: " + (100 * noun + verb));
-                        return;
-                    }
-                } catch (Exception e) {
-                    System.out.printf("Error found for noun %d and verb %d: %s%n", noun, verb, e.getMessage());
-                }
-            }
-        }
-
-        System.out.println("Sorry, no answer found");
+        // The program only adds and multiplies, so the output is a linear expression of the noun and the verb
+        Optional<IntCodeSolver.Solution> solution = createSolver(getInput())
+                .withUnknown(1, 0, max)
+                .withUnknown(2, 0, max)
+                .build()
+                .solve(0, output);
 
+        if (solution.isPresent()) {
+            System.out.println("Answer: " + (100 * solution.get().getValue(0) + solution.get().getValue(1)));
+        } else {
+            System.out.println("Sorry, no answer found");
+        }
     }
 
 
@@ -1,5 +1,6 @@
 package com.challenge.day13;
 
+import com.challenge.library.intcodecomputer.ExecutionEngine;
 import com.challenge.library.intcodecomputer.IntCodeComputer;
 import static com.challenge.day13.GameController.Builder.createGameController;
 import static com.challenge.day13.ArcadeCabinet.ConfigurationInfo.Builder.createConfigurationInfo;
@@ -43,6 +44,7 @@ public interface ArcadeCabinet {
         public ArcadeCabinet.Builder withGameCode(BigInteger[] gameCode) {
             intCodeComputer = createNewIntCodeComputer(gameCode)
                     .withMemoryAutoExpand()
+                    .withEngine(ExecutionEngine.COMPILED)
                     .withFeedbackLoopMode(!isDemo)
                     .withAskForInputMode(!isDemo)
                     .build();
@@ -3,26 +3,28 @@ package com.challenge.day13;
 import static com.challenge.day13.GameLogicExecutionOutput.*;
 import static com.challenge.day13.GameMovementResult.Builder.createNewGameMovementResult;
 import static com.challenge.day13.Screen.Builder.createScreen;
+import static com.challenge.library.intcodecomputer.OutputFrame.Builder.createOutputFrame;
 
 import com.challenge.day13.GameLogicExecutionOutput.ExecutionOutputType;
 import com.challenge.day13.GameMovementResult.MovementType;
 
 import com.challenge.day13.exception.*;
 import com.challenge.library.intcodecomputer.IntCodeComputer;
-import com.challenge.library.intcodecomputer.IntCodeComputer.ExecutionResult;
+import com.challenge.library.intcodecomputer.OutputFrame;
 import com.challenge.library.intcodecomputer.exception.IntComputerException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.math.BigInteger;
-import java.util.List;
 import java.util.Optional;
 
 public class GameController {
     private static final Logger logger = LogManager.getLogger();
 
+    private static final int FRAME_SIZE = 3;
+
     private final IntCodeComputer intCodeComputer;
     private final Screen screen;
+    private final OutputFrame outputFrame = createOutputFrame().withCapacity(FRAME_SIZE).build();
 
     private GameController(IntCodeComputer intCodeComputer, Screen screen) {
         this.intCodeComputer = intCodeComputer;
@@ -55,44 +57,28 @@ public class GameController {
     }
 
     private GameLogicExecutionOutput runNextExecutionLogic() throws IntComputerException, UnexpectedFinishExecutionException, WrongTileException {
-        ExecutionResult executionResult = getNextExecutionResult();
-        if (executionResult.isExecutionFinished()) {
+        // Every screen update comes as a frame of 3 output values: x, y and tile id (or -1, 0 and score)
+        OutputFrame frame = intCodeComputer.executeUntilOutputs(outputFrame, FRAME_SIZE);
+        if (frame.isEmpty() && frame.isExecutionFinished()) {
             return createGameOverOutput();
         }
 
-        if (executionResult.isInputNeeded()) {
+        if (frame.isEmpty() && frame.isInputNeeded()) {
             return createInputNeededOutput();
         }
 
-        int xPos = (int) getOutputFromExecutionResultOrThrowException(executionResult);
-
-
-        int yPos = (int) getOutputFromExecutionResultOrThrowException(getNextExecutionResult());
-
-        if (xPos == -1 && yPos == 0) {
-            long score = getOutputFromExecutionResultOrThrowException(getNextExecutionResult());
-            return createScoreUpdatedOutput(score);
+        if (frame.size() < FRAME_SIZE) {
+            throw new UnexpectedFinishExecutionException("Expecting more output from Int Code Computer.");
         }
 
-        int tileId = (int) getOutputFromExecutionResultOrThrowException(getNextExecutionResult());
-        return createTileChangedOutput(Tile.of(xPos, yPos, tileId));
-    }
+        int xPos = (int) frame.get(0);
+        int yPos = (int) frame.get(1);
 
-    private ExecutionResult getNextExecutionResult() throws IntComputerException {
-        return intCodeComputer.executeCode();
-    }
-
-    private long getOutputFromExecutionResultOrThrowException(ExecutionResult executionResult) throws UnexpectedFinishExecutionException {
-        if (executionResult.hasAnyOutput()) {
-            List<BigInteger> output = executionResult.getOutput();
-            if (output.size() > 1) {
-                logger.warn("Got {} output values while only expecting 1: {}", output.size(), output);
-            }
-            return output.get(0).longValue();
-        } else {
-            throw new UnexpectedFinishExecutionException("Expecting more output from Int Code Computer.");
+        if (xPos == -1 && yPos == 0) {
+            return createScoreUpdatedOutput(frame.get(2));
         }
 
+        return createTileChangedOutput(Tile.of(xPos, yPos, (int) frame.get(2)));
     }
 
     private GameMovementResult buildGameMovementResult(GameLogicExecutionOutput executionOutput, TileChangeDetail tileChangeDetail) {
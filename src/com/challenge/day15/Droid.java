@@ -1,6 +1,7 @@
 package com.challenge.day15;
 
 import com.challenge.day15.exception.DroidEngineException;
+import com.challenge.library.intcodecomputer.ExecutionEngine;
 import com.challenge.library.intcodecomputer.IntCodeComputer;
 import com.challenge.library.intcodecomputer.IntCodeComputer.ExecutionResult;
 import com.challenge.library.intcodecomputer.IntCodeLoader;
@@ -39,6 +40,10 @@ public class Droid {
         return logger.traceExit(processExecutionResult(executionResult));
     }
 
+    public Droid fork() {
+        return new Droid(engine.fork());
+    }
+
     private MovementResult processExecutionResult(ExecutionResult executionResult) throws DroidEngineException {
         if (!executionResult.hasAnyOutput()) {
             throw new DroidEngineException("Expecting output from the droid engine");
@@ -62,6 +67,7 @@ public class Droid {
         public Builder withEngineCode(BigInteger[] engineCode) {
             engine = createNewIntCodeComputer(engineCode)
                     .withMemoryAutoExpand()
+                    .withEngine(ExecutionEngine.COMPILED)
                     .withFeedbackLoopMode(true)
                     .build();
 
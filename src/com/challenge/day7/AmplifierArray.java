@@ -2,11 +2,14 @@ package com.challenge.day7;
 
 import com.challenge.day7.exception.AmplificationSignalCalculationException;
 import com.challenge.library.intcodecomputer.IntCodeComputer;
+import com.challenge.library.intcodecomputer.IntCodePipeline;
 import com.challenge.library.intcodecomputer.exception.IntComputerException;
 
 import java.math.BigInteger;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static com.challenge.library.intcodecomputer.IntCodePipeline.Builder.createPipeline;
 import static org.apache.commons.lang3.ArrayUtils.isEmpty;
 
 public class AmplifierArray {
@@ -44,36 +47,31 @@ public class AmplifierArray {
         return output;
     }
 
+    /**
+     * Runs the amplifiers in a ring, each one in its own thread, until all of them halt.
+     *
+     * @return the last signal sent by the last amplifier
+     */
     public long calculateAmplificationSignalWithFeedbackLoop() throws AmplificationSignalCalculationException {
-        long output = 0;
-        long lastLoopOutput = 0;
-        int loopCount = 0;
-        boolean halt = false;
-
-        while (!halt) {
-            loopCount++;
-            System.out.println("Loop " + loopCount);
-            for (int i = 0; i < amplifiers.length; i++) {
-
-                IntCodeComputer amplifier = getAndPrepareAmplifier(i, output);
-                try {
-                    List<BigInteger> executionOutput = amplifier.executeCode().getOutput();
-                    if (executionOutput.isEmpty()) {
-                        halt = true;
-                        System.out.println(String.format("Halt reached in amplifier %d, loop %d", i, loopCount));
-                        break;
-                    } else
-                        output = executionOutput.get(0).longValue();
-                } catch (IntComputerException e) {
-                    throw new AmplificationSignalCalculationException(String.format("Error executing code in amplifier %d, loop %d", i, loopCount), e);
-                }
-            }
-
-            if (!halt)
-                lastLoopOutput = output;
+        final AtomicLong lastLoopOutput = new AtomicLong();
+        IntCodePipeline.Builder pipelineBuilder = createPipeline();
+        for (int i = 0; i < amplifiers.length; i++) {
+            pipelineBuilder.withStage(amplifiers[i])
+                    .withConnection(i, (i + 1) % amplifiers.length);
+        }
+        pipelineBuilder.withOutputSink(amplifiers.length - 1, lastLoopOutput::set);
+
+        amplifiers[0].addInputValue(0);
+        try (IntCodePipeline pipeline = pipelineBuilder.build()) {
+            pipeline.run();
+        } catch (IntComputerException e) {
+            throw new AmplificationSignalCalculationException("Error executing code in the amplifiers", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmplificationSignalCalculationException("Interrupted while executing code in the amplifiers", e);
         }
 
-        return lastLoopOutput;
+        return lastLoopOutput.get();
     }
 
     private IntCodeComputer getAndPrepareAmplifier(int amplifierNumber, long input) {
@@ -1,5 +1,6 @@
 package com.challenge.day9;
 
+import com.challenge.library.intcodecomputer.ExecutionEngine;
 import com.challenge.library.intcodecomputer.IntCodeComputer;
 import com.challenge.library.intcodecomputer.IntCodeLoader;
 import com.challenge.library.intcodecomputer.exception.IntComputerException;
@@ -36,6 +37,7 @@ public class Day9 {
         IntCodeComputer intCodeComputer = createNewIntCodeComputer(code)
                 .withInputValue(inputValue)
                 .withMemoryAutoExpand()
+                .withEngine(ExecutionEngine.COMPILED)
                 .build();
 
         List<BigInteger> output = intCodeComputer.executeCode().getOutput();
@@ -0,0 +1,269 @@
+package com.challenge.library.intcodecomputer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * File with a chain of checkpoints of an int code computer, to resume a session later or after a crash. The first
+ * checkpoint holds the whole state, and the following ones only the pages of memory changed since the previous one.
+ * Every checkpoint is a record with its length and CRC, so one left half written by a crash is ignored.
+ */
+public class CheckpointFile {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int MAGIC = 0x49434350;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final byte FULL_CHECKPOINT = 0;
+    private static final byte INCREMENTAL_CHECKPOINT = 1;
+
+    private final Path file;
+    private TreeMap<Integer, long[]> lastPages;
+    private int numCheckpoints;
+    private long lastCheckpointSize;
+
+    private CheckpointFile(Path file, TreeMap<Integer, long[]> lastPages, int numCheckpoints) {
+        this.file = file;
+        this.lastPages = lastPages;
+        this.numCheckpoints = numCheckpoints;
+    }
+
+    /**
+     * Creates a new checkpoint file, replacing the file if it exists.
+     */
+    public static CheckpointFile create(Path file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(file))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+        }
+        return new CheckpointFile(file, null, 0);
+    }
+
+    /**
+     * Opens an existing checkpoint file to append more checkpoints to it. A record left half written at the end of the
+     * file is discarded.
+     */
+    public static CheckpointFile open(Path file) throws IOException {
+        ChainReader reader = new ChainReader(file);
+        reader.readAll();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(reader.validLength);
+        }
+        return new CheckpointFile(file, reader.numCheckpoints > 0 ? reader.pages : null, reader.numCheckpoints);
+    }
+
+    static MachineState read(Path file) throws IOException {
+        ChainReader reader = new ChainReader(file);
+        reader.readAll();
+        if (reader.lastState == null)
+            throw new IOException(String.format("No valid checkpoint found in %s", file));
+
+        return reader.lastState;
+    }
+
+    /**
+     * Appends a checkpoint of the computer, which must not be running. The computer must be the one of the previous
+     * checkpoints written (or one restored from them).
+     */
+    public void write(IntCodeComputer computer) throws IOException {
+        final MachineState state = computer.captureState();
+        final boolean full = lastPages == null;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream payload = new DataOutputStream(bytes)) {
+            payload.writeByte(full ? FULL_CHECKPOINT : INCREMENTAL_CHECKPOINT);
+            writeScalars(payload, state);
+
+            Map<Integer, long[]> pages = full ? nonZeroPages(state.getPages()) : dirtyPages(state.getPages());
+            payload.writeInt(pages.size());
+            for (Map.Entry<Integer, long[]> page : pages.entrySet()) {
+                payload.writeInt(page.getKey());
+                for (long cell : page.getValue())
+                    payload.writeLong(cell);
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.APPEND)))) {
+            output.writeInt(bytes.size());
+            output.writeInt((int) crc.getValue());
+            bytes.writeTo(output);
+        }
+
+        if (full) {
+            lastPages = new TreeMap<>();
+        }
+        state.getPages().forEach(lastPages::put);
+        numCheckpoints++;
+        lastCheckpointSize = bytes.size() + 2L * Integer.BYTES;
+        logger.debug("Checkpoint {} written to {}: {} bytes", numCheckpoints, file, lastCheckpointSize);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getNumCheckpoints() {
+        return numCheckpoints;
+    }
+
+    public long getLastCheckpointSize() {
+        return lastCheckpointSize;
+    }
+
+    private static Map<Integer, long[]> nonZeroPages(TreeMap<Integer, long[]> pages) {
+        Map<Integer, long[]> nonZeroPages = new TreeMap<>();
+        pages.forEach((index, cells) -> {
+            if (Arrays.stream(cells).anyMatch(cell -> cell != 0))
+                nonZeroPages.put(index, cells);
+        });
+        return nonZeroPages;
+    }
+
+    private Map<Integer, long[]> dirtyPages(TreeMap<Integer, long[]> pages) {
+        Map<Integer, long[]> dirtyPages = new TreeMap<>();
+        final long[] zeroPage = new long[MachineState.PAGE_SIZE];
+        pages.forEach((index, cells) -> {
+            if (!Arrays.equals(cells, lastPages.getOrDefault(index, zeroPage)))
+                dirtyPages.put(index, cells);
+        });
+        return dirtyPages;
+    }
+
+    private static void writeScalars(DataOutputStream payload, MachineState state) throws IOException {
+        payload.writeUTF(state.getEngine().name());
+        payload.writeBoolean(state.isFeedbackLoopMode());
+        payload.writeBoolean(state.isAskForInputMode());
+        payload.writeBoolean(state.isMemoryAutoExpand());
+        payload.writeInt(state.getMemoryPageSize());
+        payload.writeInt(state.getMemoryMaxSize());
+        payload.writeInt(state.getMemorySize());
+        payload.writeInt(state.getDenseLength());
+        payload.writeInt(state.getCurrentPos());
+        payload.writeInt(state.getPreviousPos());
+        payload.writeLong(state.getRelativeBase());
+
+        payload.writeInt(state.getInputCapacity());
+        final long[] pendingInput = state.getPendingInput();
+        payload.writeInt(pendingInput.length);
+        for (long value : pendingInput)
+            payload.writeLong(value);
+
+        payload.writeInt(state.getPromotedCells().size());
+        for (Map.Entry<Integer, BigInteger> cell : state.getPromotedCells().entrySet()) {
+            final byte[] value = cell.getValue().toByteArray();
+            payload.writeInt(cell.getKey());
+            payload.writeInt(value.length);
+            payload.write(value);
+        }
+    }
+
+    private static class ChainReader {
+        private final Path file;
+        private TreeMap<Integer, long[]> pages = new TreeMap<>();
+        private MachineState lastState;
+        private int numCheckpoints;
+        private long validLength;
+
+        ChainReader(Path file) {
+            this.file = file;
+        }
+
+        void readAll() throws IOException {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (input.readInt() != MAGIC || input.readInt() != VERSION)
+                    throw new IOException(String.format("%s is not a checkpoint file, or was written by another version", file));
+
+                validLength = HEADER_SIZE;
+                while (readRecord(input)) {
+                    numCheckpoints++;
+                }
+            } catch (EOFException e) {
+                throw new IOException(String.format("%s is not a checkpoint file", file), e);
+            }
+        }
+
+        private boolean readRecord(DataInputStream input) throws IOException {
+            final byte[] payload;
+            try {
+                final int length = input.readInt();
+                final int crc = input.readInt();
+                if (length <= 0 || length > Files.size(file))
+                    return invalidRecord();
+
+                payload = input.readNBytes(length);
+                CRC32 actualCrc = new CRC32();
+                actualCrc.update(payload);
+                if (payload.length != length || (int) actualCrc.getValue() != crc)
+                    return invalidRecord();
+            } catch (EOFException e) {
+                return false;
+            }
+
+            try (DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload))) {
+                applyRecord(record);
+            }
+            validLength += 2L * Integer.BYTES + payload.length;
+            return true;
+        }
+
+        private boolean invalidRecord() {
+            logger.warn("Discarding the invalid checkpoint found in {} after {} valid ones", file, numCheckpoints);
+            return false;
+        }
+
+        private void applyRecord(DataInputStream record) throws IOException {
+            final boolean full = record.readByte() == FULL_CHECKPOINT;
+            MachineState.Builder state = new MachineState.Builder()
+                    .withEngine(ExecutionEngine.valueOf(record.readUTF()))
+                    .withFeedbackLoopMode(record.readBoolean())
+                    .withAskForInputMode(record.readBoolean())
+                    .withMemorySettings(record.readBoolean(), record.readInt(), record.readInt())
+                    .withMemorySize(record.readInt(), record.readInt())
+                    .withPositions(record.readInt(), record.readInt())
+                    .withRelativeBase(record.readLong());
+
+            final int inputCapacity = record.readInt();
+            final long[] pendingInput = new long[record.readInt()];
+            for (int i = 0; i < pendingInput.length; i++)
+                pendingInput[i] = record.readLong();
+            state.withInput(inputCapacity, pendingInput);
+
+            final int numPromotedCells = record.readInt();
+            Map<Integer, BigInteger> promotedCells = new HashMap<>();
+            for (int i = 0; i < numPromotedCells; i++) {
+                final int position = record.readInt();
+                promotedCells.put(position, new BigInteger(record.readNBytes(record.readInt())));
+            }
+            state.withPromotedCells(promotedCells);
+
+            if (full)
+                pages = new TreeMap<>();
+            final int numPages = record.readInt();
+            for (int i = 0; i < numPages; i++) {
+                final int index = record.readInt();
+                final long[] cells = new long[MachineState.PAGE_SIZE];
+                for (int j = 0; j < cells.length; j++)
+                    cells[j] = record.readLong();
+                pages.put(index, cells);
+            }
+            pages.forEach(state::withPage);
+
+            lastState = state.build();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.challenge.library.intcodecomputer;
+
+import static com.challenge.library.intcodecomputer.IntCodeMemory.PROMOTED_CELL;
+import static com.challenge.library.intcodecomputer.TableDrivenInstructionExecutor.overflows;
+
+/**
+ * Base class of the classes generated by the {@link IntCodeCompiler}. They're defined out of this package, so
+ * everything they use is public or protected: the {@link Context} and the operations below.
+ */
+public abstract class CompiledCode {
+    /**
+     * Memory and relative base of the computer. The methods return PROMOTED_CELL (or false) when the operation must be
+     * done by the interpreter.
+     */
+    public interface Context {
+        long read(long position);
+
+        long readRelative(long offset);
+
+        boolean write(long position, long value);
+
+        boolean writeRelative(long offset, long value);
+
+        boolean adjustRelativeBase(long increment);
+    }
+
+    /**
+     * @return the position of the next instruction, or its complement (~pc) if the instruction there must be executed
+     * by the interpreter (without any change done by it)
+     */
+    public abstract int execute(Context context, int block, int pc);
+
+    protected static long add(long value1, long value2) {
+        final long result = value1 + value2;
+        return value1 == PROMOTED_CELL || value2 == PROMOTED_CELL || overflows(value1, value2, result) ? PROMOTED_CELL : result;
+    }
+
+    protected static long multiply(long value1, long value2) {
+        if (value1 == PROMOTED_CELL || value2 == PROMOTED_CELL)
+            return PROMOTED_CELL;
+
+        final long high = Math.multiplyHigh(value1, value2);
+        final long low = value1 * value2;
+        return (high == 0 && low >= 0) || (high == -1 && low < 0) ? low : PROMOTED_CELL;
+    }
+
+    protected static long lessThan(long value1, long value2) {
+        if (value1 == PROMOTED_CELL || value2 == PROMOTED_CELL)
+            return PROMOTED_CELL;
+
+        return value1 < value2 ? 1L : 0L;
+    }
+
+    protected static long equalTo(long value1, long value2) {
+        if (value1 == PROMOTED_CELL || value2 == PROMOTED_CELL)
+            return PROMOTED_CELL;
+
+        return value1 == value2 ? 1L : 0L;
+    }
+
+    /**
+     * @return the position to jump to, or -1 if it's not a valid position
+     */
+    protected static int jumpTarget(long target) {
+        return target >= 0 && target <= Integer.MAX_VALUE ? (int) target : -1;
+    }
+}
@@ -0,0 +1,155 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.ExecutionException;
+
+import java.util.Arrays;
+
+import static com.challenge.library.intcodecomputer.IntCodeMemory.PROMOTED_CELL;
+
+/**
+ * Instruction executor that runs the blocks compiled by the {@link IntCodeCompiler}, and the table driven engine for
+ * the rest: input, output and halt, code the compiler didn't find, and blocks overwritten by the program.
+ */
+class CompiledInstructionExecutor extends TableDrivenInstructionExecutor implements CompiledCode.Context, IntCodeMemory.CodeWriteListener {
+    private final CompiledProgram program;
+    private boolean[] validBlocks;
+    private boolean[] watchedCells;
+    // Set when the flags above are shared with a fork: they're copied before the first change
+    private boolean sharedFlags;
+
+    CompiledInstructionExecutor(IntCodeMemory code, InputQueue input, CompiledProgram program) {
+        this(code, input, program, createValidBlocks(program), program.getCodeCells());
+    }
+
+    private CompiledInstructionExecutor(IntCodeMemory code, InputQueue input, CompiledProgram program, boolean[] validBlocks, boolean[] watchedCells) {
+        super(code, input);
+        this.program = program;
+        this.validBlocks = validBlocks;
+        this.watchedCells = watchedCells;
+        code.watchCodeWrites(watchedCells, this);
+    }
+
+    private static boolean[] createValidBlocks(CompiledProgram program) {
+        boolean[] validBlocks = new boolean[program.getNumBlocks()];
+        Arrays.fill(validBlocks, true);
+        return validBlocks;
+    }
+
+    // The flags of the blocks discarded are shared until any of them overwrites its code
+    @Override
+    CompiledInstructionExecutor fork() {
+        CompiledInstructionExecutor fork = new CompiledInstructionExecutor(code.fork(), input.copy(), program, validBlocks, watchedCells);
+        fork.sharedFlags = true;
+        sharedFlags = true;
+        return fork;
+    }
+
+    @Override
+    ExecutionEngine getEngine() {
+        return ExecutionEngine.COMPILED;
+    }
+
+    @Override
+    public Instruction.InstructionResult executeUntilEvent() throws ExecutionException {
+        loadState();
+
+        while (true) {
+            runCompiledCode(Long.MAX_VALUE);
+
+            Instruction.InstructionResult result = executeInstructions(false);
+            if (result != null)
+                return result;
+        }
+    }
+
+    // Every compiled block run is a step, like every instruction run by the table driven engine
+    @Override
+    Instruction.InstructionResult executeSteps() throws ExecutionException {
+        loadState();
+
+        while (true) {
+            stepsLeft -= runCompiledCode(stepsLeft);
+            if (stepsLeft <= 0)
+                break;
+
+            stepsLeft--;
+            Instruction.InstructionResult result = executeInstructions(false);
+            if (result != null)
+                return result;
+        }
+        saveState();
+        return null;
+    }
+
+    @Override
+    public void codeWritten(int position) {
+        if (sharedFlags) {
+            validBlocks = validBlocks.clone();
+            watchedCells = watchedCells.clone();
+            code.watchCodeWrites(watchedCells, this);
+            sharedFlags = false;
+        }
+        for (int i = Math.max(0, position - 3); i <= position; i++) {
+            final int block = program.getBlock(i);
+            if (block >= 0 && i + program.getInstructionSize(i) > position)
+                validBlocks[block] = false;
+        }
+        watchedCells[position] = false;
+    }
+
+    /**
+     * @return the number of blocks run, maxBlocks at most
+     */
+    private long runCompiledCode(long maxBlocks) {
+        long numBlocks = 0;
+        while (numBlocks < maxBlocks) {
+            final int block = program.getBlock(pc);
+            if (block < 0 || !validBlocks[block])
+                return numBlocks;
+
+            numBlocks++;
+            final int next = program.execute(this, block, pc);
+            if (next < 0) {
+                numInstructions += program.countInstructions(pc, ~next);
+                pc = ~next;
+                return numBlocks;
+            }
+            numInstructions += program.countInstructions(pc, -1);
+            publishInstructions();
+            pc = next;
+        }
+        return numBlocks;
+    }
+
+    @Override
+    public long read(long position) {
+        return code.readCell(position);
+    }
+
+    @Override
+    public long readRelative(long offset) {
+        final long position = relativeBase + offset;
+        return overflows(relativeBase, offset, position) ? PROMOTED_CELL : code.readCell(position);
+    }
+
+    @Override
+    public boolean write(long position, long value) {
+        return !code.isWatchedCell(position) && code.writeCell(position, value);
+    }
+
+    @Override
+    public boolean writeRelative(long offset, long value) {
+        final long position = relativeBase + offset;
+        return !overflows(relativeBase, offset, position) && write(position, value);
+    }
+
+    @Override
+    public boolean adjustRelativeBase(long increment) {
+        final long newRelativeBase = relativeBase + increment;
+        if (increment == PROMOTED_CELL || overflows(relativeBase, increment, newRelativeBase))
+            return false;
+
+        relativeBase = newRelativeBase;
+        return true;
+    }
+}
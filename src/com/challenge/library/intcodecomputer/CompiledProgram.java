@@ -0,0 +1,60 @@
+package com.challenge.library.intcodecomputer;
+
+/**
+ * Int code program compiled by the {@link IntCodeCompiler}. It holds no execution state, so it's shared by all the
+ * computers running the same code.
+ */
+class CompiledProgram {
+    private final CompiledCode compiledCode;
+    private final int[] instructionBlocks;
+    private final byte[] instructionSizes;
+    // Number of instructions from every compiled instruction to the end of its block, both included
+    private final byte[] instructionsToBlockEnd;
+    private final boolean[] codeCells;
+    private final int numBlocks;
+
+    CompiledProgram(CompiledCode compiledCode, int[] instructionBlocks, byte[] instructionSizes, byte[] instructionsToBlockEnd,
+                    boolean[] codeCells, int numBlocks) {
+        this.compiledCode = compiledCode;
+        this.instructionBlocks = instructionBlocks;
+        this.instructionSizes = instructionSizes;
+        this.instructionsToBlockEnd = instructionsToBlockEnd;
+        this.codeCells = codeCells;
+        this.numBlocks = numBlocks;
+    }
+
+    int execute(CompiledCode.Context context, int block, int pc) {
+        return compiledCode.execute(context, block, pc);
+    }
+
+    /**
+     * @return the block containing the compiled instruction starting at the given position, or -1 if there's none
+     */
+    int getBlock(int position) {
+        return position >= 0 && position < instructionBlocks.length ? instructionBlocks[position] : -1;
+    }
+
+    int getInstructionSize(int position) {
+        return instructionSizes[position];
+    }
+
+    /**
+     * @return the number of instructions run by a block entered at the position from, and left at the position to (or
+     * at its end, if to is -1)
+     */
+    int countInstructions(int from, int to) {
+        return instructionsToBlockEnd[from] - (to >= 0 ? instructionsToBlockEnd[to] : 0);
+    }
+
+    boolean[] getCodeCells() {
+        return codeCells.clone();
+    }
+
+    Class<? extends CompiledCode> getCompiledClass() {
+        return compiledCode.getClass();
+    }
+
+    int getNumBlocks() {
+        return numBlocks;
+    }
+}
@@ -0,0 +1,11 @@
+package com.challenge.library.intcodecomputer;
+
+public enum ExecutionEngine {
+    INTERPRETER,
+
+    // Runs the code straight from the memory cells, without allocating any object per instruction
+    TABLE_DRIVEN,
+
+    // Translates the program to JVM bytecode. Input, output and self-modified code are still run by the interpreter
+    COMPILED
+}
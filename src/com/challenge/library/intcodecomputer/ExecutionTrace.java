@@ -0,0 +1,147 @@
+package com.challenge.library.intcodecomputer;
+
+import static com.challenge.library.intcodecomputer.InstructionDecodeTable.*;
+
+/**
+ * Ring buffer with the last instructions executed by a computer: position, instruction code, raw parameters and result,
+ * kept in preallocated primitive arrays. It's dumped in the exception thrown when the computer fails. A failed
+ * instruction is recorded last, with {@link IntCodeMemory#PROMOTED_CELL} as its result.
+ */
+public class ExecutionTrace {
+    private static final int MAX_PARAMETERS = 3;
+
+    private final int capacity;
+    private final int[] positions;
+    private final long[] instructionCodes;
+    private final long[] parameters;
+    private final long[] results;
+    private final boolean[] failures;
+    private long numRecorded;
+
+    ExecutionTrace(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("The execution trace capacity must be greater than 0: " + capacity);
+
+        this.capacity = capacity;
+        this.positions = new int[capacity];
+        this.instructionCodes = new long[capacity];
+        this.parameters = new long[capacity * MAX_PARAMETERS];
+        this.results = new long[capacity];
+        this.failures = new boolean[capacity];
+    }
+
+    private ExecutionTrace(ExecutionTrace other) {
+        this.capacity = other.capacity;
+        this.positions = other.positions.clone();
+        this.instructionCodes = other.instructionCodes.clone();
+        this.parameters = other.parameters.clone();
+        this.results = other.results.clone();
+        this.failures = other.failures.clone();
+        this.numRecorded = other.numRecorded;
+    }
+
+    void record(int position, long instructionCode, long parameter1, long parameter2, long parameter3, long result) {
+        record(position, instructionCode, parameter1, parameter2, parameter3, result, false);
+    }
+
+    void recordFailure(int position, long instructionCode, long parameter1, long parameter2, long parameter3) {
+        record(position, instructionCode, parameter1, parameter2, parameter3, IntCodeMemory.PROMOTED_CELL, true);
+    }
+
+    private void record(int position, long instructionCode, long parameter1, long parameter2, long parameter3, long result, boolean failed) {
+        final int slot = (int) (numRecorded % capacity);
+        positions[slot] = position;
+        instructionCodes[slot] = instructionCode;
+        parameters[slot * MAX_PARAMETERS] = parameter1;
+        parameters[slot * MAX_PARAMETERS + 1] = parameter2;
+        parameters[slot * MAX_PARAMETERS + 2] = parameter3;
+        results[slot] = result;
+        failures[slot] = failed;
+        numRecorded++;
+    }
+
+    ExecutionTrace copy() {
+        return new ExecutionTrace(this);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return (int) Math.min(numRecorded, capacity);
+    }
+
+    /**
+     * @return the number of instructions recorded since the trace was created, including the ones already discarded
+     */
+    public long getNumRecorded() {
+        return numRecorded;
+    }
+
+    /**
+     * @param index index of the entry, from 0 (the oldest one kept) to size() - 1 (the last instruction executed)
+     */
+    public int getPosition(int index) {
+        return positions[slotOf(index)];
+    }
+
+    public long getInstructionCode(int index) {
+        return instructionCodes[slotOf(index)];
+    }
+
+    public long getParameter(int index, int paramIndex) {
+        return parameters[slotOf(index) * MAX_PARAMETERS + paramIndex];
+    }
+
+    public long getResult(int index) {
+        return results[slotOf(index)];
+    }
+
+    public boolean isFailed(int index) {
+        return failures[slotOf(index)];
+    }
+
+    public String dump() {
+        final StringBuilder dump = new StringBuilder();
+        final long firstNumber = numRecorded - size();
+        for (int i = 0; i < size(); i++) {
+            final long instructionCode = getInstructionCode(i);
+            final int entry = decode(instructionCode);
+            final Instruction.Operation operation = Instruction.Operation.fromOpCode(getOpCode(entry));
+
+            dump.append(String.format("#%d pos=%d code=%s", firstNumber + i, getPosition(i), formatValue(instructionCode)));
+            if (operation != null) {
+                dump.append(' ').append(operation.name());
+                for (int param = 0; param < operation.getNumParams(); param++) {
+                    dump.append(' ').append(formatValue(getParameter(i, param)));
+                }
+                if (operation != Instruction.Operation.HALT && !isFailed(i)) {
+                    dump.append(" -> ").append(formatValue(getResult(i)));
+                }
+            }
+            if (isFailed(i)) {
+                dump.append(" -> (failed)");
+            }
+            dump.append(System.lineSeparator());
+        }
+        return dump.toString();
+    }
+
+    @Override
+    public String toString() {
+        return dump();
+    }
+
+    private int slotOf(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException(String.format("Index %d out of the execution trace size %d", index, size()));
+
+        return (int) ((numRecorded - size() + index) % capacity);
+    }
+
+    private static String formatValue(long value) {
+        // Values not fitting in a long (or out of the memory) are recorded as the promoted cell marker
+        return value == IntCodeMemory.PROMOTED_CELL ? "(big)" : Long.toString(value);
+    }
+}
@@ -0,0 +1,134 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.InputQueueFullException;
+
+import java.util.Arrays;
+
+/**
+ * FIFO queue of the input values added to an executor, kept in a ring buffer of primitive longs. Optionally bounded:
+ * adding values to a full queue fails instead of growing it.
+ */
+class InputQueue {
+    static final int UNBOUNDED_CAPACITY = Integer.MAX_VALUE;
+    private static final int INITIAL_LENGTH = 16;
+
+    private final int capacity;
+    private long[] values;
+    private int head;
+    private int size;
+
+    InputQueue() {
+        this(UNBOUNDED_CAPACITY);
+    }
+
+    InputQueue(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("The input queue capacity must be greater than 0: " + capacity);
+
+        this.capacity = capacity;
+        // The length is always a power of 2, so the positions wrap around with a mask
+        this.values = new long[capacity >= INITIAL_LENGTH ? INITIAL_LENGTH : Integer.highestOneBit(capacity * 2 - 1)];
+    }
+
+    private InputQueue(InputQueue other) {
+        this.capacity = other.capacity;
+        this.values = other.values.clone();
+        this.head = other.head;
+        this.size = other.size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    int getRemainingCapacity() {
+        return capacity - size;
+    }
+
+    long peek() {
+        return values[head];
+    }
+
+    long poll() {
+        final long value = values[head];
+        head = (head + 1) & (values.length - 1);
+        size--;
+        return value;
+    }
+
+    /**
+     * @return false if the queue is full
+     */
+    boolean offer(long value) {
+        if (size == capacity)
+            return false;
+
+        if (size == values.length)
+            grow(size + 1);
+
+        values[(head + size) & (values.length - 1)] = value;
+        size++;
+        return true;
+    }
+
+    void add(long value) {
+        if (!offer(value))
+            throw new InputQueueFullException(capacity, 1);
+    }
+
+    /**
+     * Adds all the values, or none of them if there isn't room enough for all.
+     */
+    void addAll(long... newValues) {
+        if (newValues.length > getRemainingCapacity())
+            throw new InputQueueFullException(capacity, newValues.length);
+
+        if (size + newValues.length > values.length)
+            grow(size + newValues.length);
+
+        final int mask = values.length - 1;
+        for (long value : newValues) {
+            values[(head + size) & mask] = value;
+            size++;
+        }
+    }
+
+    InputQueue copy() {
+        return new InputQueue(this);
+    }
+
+    private void grow(int minLength) {
+        int newLength = values.length;
+        while (newLength < minLength) {
+            newLength *= 2;
+        }
+
+        final long[] newValues = new long[newLength];
+        final int firstChunk = Math.min(size, values.length - head);
+        System.arraycopy(values, head, newValues, 0, firstChunk);
+        System.arraycopy(values, 0, newValues, firstChunk, size - firstChunk);
+        values = newValues;
+        head = 0;
+    }
+
+    long[] toArray() {
+        final long[] pending = new long[size];
+        for (int i = 0; i < size; i++) {
+            pending[i] = values[(head + i) & (values.length - 1)];
+        }
+        return pending;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,75 @@
+package com.challenge.library.intcodecomputer;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Log of the input values fed to an int code computer, to replay the session later with {@link InputReplay}. Every
+ * value is a zig-zag varint, after an int magic and version, so the small values take a single byte. The log is
+ * complete once flushed or closed (the computer flushes it when the execution fails).
+ */
+public class InputRecorder implements Closeable, Flushable {
+    static final int MAGIC = 0x4943494C;
+    static final int VERSION = 1;
+
+    private final Path file;
+    private final OutputStream output;
+    private long numValues;
+
+    private InputRecorder(Path file, OutputStream output) {
+        this.file = file;
+        this.output = output;
+    }
+
+    /**
+     * Creates a new input log, replacing the file if it exists.
+     */
+    public static InputRecorder create(Path file) throws IOException {
+        OutputStream output = new BufferedOutputStream(Files.newOutputStream(file));
+        DataOutputStream header = new DataOutputStream(output);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        return new InputRecorder(file, output);
+    }
+
+    /**
+     * @throws UncheckedIOException if the value can't be written
+     */
+    public void record(long value) {
+        long zigZag = (value << 1) ^ (value >> 63);
+        try {
+            while ((zigZag & ~0x7FL) != 0) {
+                output.write((int) ((zigZag & 0x7F) | 0x80));
+                zigZag >>>= 7;
+            }
+            output.write((int) zigZag);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Unable to write to the input log %s", file), e);
+        }
+        numValues++;
+    }
+
+    public void record(long... values) {
+        for (long value : values)
+            record(value);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getNumValues() {
+        return numValues;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
@@ -0,0 +1,141 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.IntCodeComputer.ExecutionResult.ResultType;
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Input values of a session recorded by an {@link InputRecorder}, to run the same program from them at full speed,
+ * without the controller that produced them (e.g. to benchmark the execution engines).
+ */
+public class InputReplay {
+    private final Path file;
+    private final long[] values;
+
+    private InputReplay(Path file, long[] values) {
+        this.file = file;
+        this.values = values;
+    }
+
+    /**
+     * Reads the input log. A value left half written at the end of the log is ignored.
+     */
+    public static InputReplay load(Path file) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (bytes.remaining() < 2 * Integer.BYTES || bytes.getInt() != InputRecorder.MAGIC
+                || bytes.getInt() != InputRecorder.VERSION)
+            throw new IOException(String.format("%s is not an input log, or was written by another version", file));
+
+        long[] values = new long[bytes.remaining()];
+        int numValues = 0;
+        while (bytes.hasRemaining()) {
+            long zigZag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (!bytes.hasRemaining() || shift > 63)
+                    return new InputReplay(file, Arrays.copyOf(values, numValues));
+                b = bytes.get();
+                zigZag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            values[numValues++] = (zigZag >>> 1) ^ -(zigZag & 1);
+        }
+        return new InputReplay(file, Arrays.copyOf(values, numValues));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getNumValues() {
+        return values.length;
+    }
+
+    public long[] getValues() {
+        return values.clone();
+    }
+
+    /**
+     * Runs the computer, which must be a new one with the program of the recorded session, until it halts or needs more
+     * input. The output values are counted and discarded.
+     */
+    public Result replay(IntCodeComputer computer) throws IntComputerException {
+        Session session = new Session();
+        ResultType resultType = computer.run(session, session);
+        return new Result(resultType, session.numInputs, session.numOutputs, session.lastOutput);
+    }
+
+    private class Session implements InputSource, OutputSink {
+        private int numInputs;
+        private long numOutputs;
+        private long lastOutput;
+
+        @Override
+        public boolean hasInput() {
+            return numInputs < values.length;
+        }
+
+        @Override
+        public long nextInput() {
+            return values[numInputs++];
+        }
+
+        @Override
+        public void accept(long value) {
+            numOutputs++;
+            lastOutput = value;
+        }
+    }
+
+    public static class Result {
+        private final ResultType resultType;
+        private final int numInputValues;
+        private final long numOutputValues;
+        private final long lastOutputValue;
+
+        private Result(ResultType resultType, int numInputValues, long numOutputValues, long lastOutputValue) {
+            this.resultType = resultType;
+            this.numInputValues = numInputValues;
+            this.numOutputValues = numOutputValues;
+            this.lastOutputValue = lastOutputValue;
+        }
+
+        /**
+         * @return {@link ResultType#EXECUTION_FINISHED} if the program halted, or {@link ResultType#INPUT_NEEDED} if it
+         * ran out of recorded values
+         */
+        public ResultType getResultType() {
+            return resultType;
+        }
+
+        public int getNumInputValues() {
+            return numInputValues;
+        }
+
+        public long getNumOutputValues() {
+            return numOutputValues;
+        }
+
+        /**
+         * @return the last output value, or 0 if there were none
+         */
+        public long getLastOutputValue() {
+            return lastOutputValue;
+        }
+
+        @Override
+        public String toString() {
+            return "{" + resultType +
+                    ", numInputValues=" + numInputValues +
+                    ", numOutputValues=" + numOutputValues +
+                    ", lastOutputValue=" + lastOutputValue +
+                    '}';
+        }
+    }
+}
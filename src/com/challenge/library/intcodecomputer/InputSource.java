@@ -0,0 +1,30 @@
+package com.challenge.library.intcodecomputer;
+
+public interface InputSource {
+    /**
+     * @return true if a value can be read right now. When it returns false, the execution stops waiting for input.
+     */
+    boolean hasInput();
+
+    long nextInput();
+
+    static InputSource empty() {
+        return of();
+    }
+
+    static InputSource of(long... values) {
+        return new InputSource() {
+            private int index;
+
+            @Override
+            public boolean hasInput() {
+                return index < values.length;
+            }
+
+            @Override
+            public long nextInput() {
+                return values[index++];
+            }
+        };
+    }
+}
@@ -14,11 +14,18 @@ public class Instruction {
     Operation operation;
     List<Parameter> parameters;
     int position;
+    // Number of instructions executed by this one: 2 for fused instructions
+    final int numInstructions;
 
     private Instruction(Operation operation, List<Parameter> parameters, int position) {
+        this(operation, parameters, position, 1);
+    }
+
+    private Instruction(Operation operation, List<Parameter> parameters, int position, int numInstructions) {
         this.operation = operation;
         this.parameters = parameters;
         this.position = position;
+        this.numInstructions = numInstructions;
     }
 
     public Operation getOperation() {
@@ -29,6 +36,10 @@ public class Instruction {
         return position + parameters.size() + 1;
     }
 
+    Instruction getFirstInstruction() {
+        return this;
+    }
+
     public InstructionResult execute(IntCodeMemory code, BigInteger ...inputValues) throws InvalidPositionException {
         return operation.executeInstruction(code, parameters, inputValues);
     }
@@ -41,12 +52,77 @@ public class Instruction {
                 '}';
     }
 
+    /**
+     * Fuses a conditional jump with the arithmetic, comparison or relative base adjustment before it.
+     *
+     * @return the fused instruction, or null if the instructions can't be fused
+     */
+    static Instruction fuse(Instruction first, Instruction second) {
+        return canStartFusion(first) && canEndFusion(second) && second.position == first.getNextInstructionPosition()
+                ? new FusedInstruction(first, second)
+                : null;
+    }
+
+    static boolean canStartFusion(Instruction instruction) {
+        return switch (instruction.operation) {
+            case ADD, MULTIPLY, LESS_THAN, EQUALS, ADJUST_RELATIVE_BASE -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean canEndFusion(Instruction instruction) {
+        return instruction.operation == Operation.JUMP_IF_TRUE || instruction.operation == Operation.JUMP_IF_FALSE;
+    }
+
+    // Cached at the position of the first instruction. If the cells of the second one are overwritten, it only executes
+    // the first one and discards itself
+    private static class FusedInstruction extends Instruction {
+        private final Instruction first;
+        private final Instruction second;
+
+        private FusedInstruction(Instruction first, Instruction second) {
+            super(second.operation, second.parameters, first.position, 2);
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public int getNextInstructionPosition() {
+            return second.getNextInstructionPosition();
+        }
+
+        @Override
+        Instruction getFirstInstruction() {
+            return first;
+        }
+
+        @Override
+        public InstructionResult execute(IntCodeMemory code, BigInteger... inputValues) throws InvalidPositionException {
+            first.execute(code);
+            if (code.isDecodedInstruction(second.position, second))
+                return second.execute(code);
+
+            code.discardFusedInstruction(this, second.position);
+            return InstructionResult.emptyInstructionResult();
+        }
+
+        @Override
+        public String toString() {
+            return "FusedInstruction{" +
+                    "first=" + first +
+                    ", second=" + second +
+                    '}';
+        }
+    }
+
     public static class Parameter {
         private BigInteger value;
+        private long longValue;
         private ParameterMode mode;
 
         Parameter(BigInteger value, ParameterMode mode) {
             this.value = value;
+            this.longValue = value.bitLength() < Long.SIZE ? value.longValue() : IntCodeMemory.PROMOTED_CELL;
             this.mode = mode;
         }
 
@@ -54,6 +130,13 @@ public class Instruction {
             return value;
         }
 
+        /**
+         * @return the value as a long, or {@link IntCodeMemory#PROMOTED_CELL} if it doesn't fit in a long.
+         */
+        public long getLongValue() {
+            return longValue;
+        }
+
         public ParameterMode getMode() {
             return mode;
         }
@@ -68,6 +151,10 @@ public class Instruction {
     }
 
     public static class InstructionResult {
+        private static final InstructionResult EMPTY_RESULT = new InstructionResult();
+        private static final InstructionResult END_OF_EXECUTION_RESULT = new InstructionResult(ResultType.EXECUTION_FINISHED);
+        private static final InstructionResult INPUT_NEEDED_RESULT = new InstructionResult(ResultType.INPUT_NEEDED);
+
         private final BigInteger output;
         private final ResultType resultType;
 
@@ -89,15 +176,15 @@ public class Instruction {
         }
 
         public static InstructionResult emptyInstructionResult() {
-            return new InstructionResult();
+            return EMPTY_RESULT;
         }
 
         public static InstructionResult endOfExecutionResult() {
-            return new InstructionResult(ResultType.EXECUTION_FINISHED);
+            return END_OF_EXECUTION_RESULT;
         }
 
         private static InstructionResult inputNeededResult() {
-            return new InstructionResult(ResultType.INPUT_NEEDED);
+            return INPUT_NEEDED_RESULT;
         }
 
         public static InstructionResult ofOutput(BigInteger output) {
@@ -139,10 +226,15 @@ public class Instruction {
         }
 
         private static final Map<String, ParameterMode> stringToEnum = Stream.of(values()).collect(toMap(Object::toString, e -> e));
+        private static final ParameterMode[] modeToEnum = values();
 
         public static Optional<ParameterMode> fromString(String paramMode) {
             return Optional.ofNullable(stringToEnum.get(paramMode));
         }
+
+        public static ParameterMode fromMode(int mode) {
+            return mode >= 0 && mode < modeToEnum.length ? modeToEnum[mode] : null;
+        }
     }
 
     enum Operation {
@@ -155,6 +247,17 @@ public class Instruction {
 
             @Override
             public InstructionResult executeInstruction(IntCodeMemory code, List<Parameter> parameters, BigInteger ...inputValues) throws InvalidPositionException {
+                final long value1 = getLongParameterValue(parameters.get(0), code);
+                final long value2 = getLongParameterValue(parameters.get(1), code);
+                if (value1 != IntCodeMemory.PROMOTED_CELL && value2 != IntCodeMemory.PROMOTED_CELL) {
+                    try {
+                        code.setLongValue(Math.addExact(value1, value2), getLongMemoryPosition(parameters.get(2), code));
+                        return InstructionResult.emptyInstructionResult();
+                    } catch (ArithmeticException e) {
+                        // Overflow: the result is computed again with BigInteger arithmetic
+                    }
+                }
+
                 BigInteger result = getParameterValue(parameters.get(0), code).add(getParameterValue(parameters.get(1), code));
                 code.setValue(result, getMemoryPosition(parameters.get(2), code));
 
@@ -171,6 +274,17 @@ public class Instruction {
 
             @Override
             public InstructionResult executeInstruction(IntCodeMemory code, List<Parameter> parameters, BigInteger ...inputValues) throws InvalidPositionException {
+                final long value1 = getLongParameterValue(parameters.get(0), code);
+                final long value2 = getLongParameterValue(parameters.get(1), code);
+                if (value1 != IntCodeMemory.PROMOTED_CELL && value2 != IntCodeMemory.PROMOTED_CELL) {
+                    try {
+                        code.setLongValue(Math.multiplyExact(value1, value2), getLongMemoryPosition(parameters.get(2), code));
+                        return InstructionResult.emptyInstructionResult();
+                    } catch (ArithmeticException e) {
+                        // Overflow: the result is computed again with BigInteger arithmetic
+                    }
+                }
+
                 BigInteger result = getParameterValue(parameters.get(0), code).multiply(getParameterValue(parameters.get(1), code));
                 code.setValue(result, getMemoryPosition(parameters.get(2), code));
 
@@ -199,6 +313,11 @@ public class Instruction {
         OUTPUT(4, 1) {
             @Override
             public InstructionResult executeInstruction(IntCodeMemory code, List<Parameter> parameters, BigInteger ...inputValues) throws InvalidPositionException {
+                final long value = getLongParameterValue(parameters.get(0), code);
+                if (value != IntCodeMemory.PROMOTED_CELL) {
+                    return InstructionResult.ofOutput(BigInteger.valueOf(value));
+                }
+
                 return InstructionResult.ofOutput(getParameterValue(parameters.get(0), code));
             }
         },
@@ -210,8 +329,8 @@ public class Instruction {
         JUMP_IF_TRUE(5, 2) {
             @Override
             public InstructionResult executeInstruction(IntCodeMemory code, List<Parameter> parameters, BigInteger ...inputValues) throws InvalidPositionException {
-                if (getParameterValue(parameters.get(0), code).compareTo(BigInteger.ZERO) != 0) {
-                   code.setCurrentPos(getParameterValue(parameters.get(1), code));
+                if (getLongParameterValue(parameters.get(0), code) != 0) {
+                   jumpTo(parameters.get(1), code);
                 }
 
                 return InstructionResult.emptyInstructionResult();
@@ -220,8 +339,8 @@ public class Instruction {
         JUMP_IF_FALSE(6, 2) {
             @Override
             public InstructionResult executeInstruction(IntCodeMemory code, List<Parameter> parameters, BigInteger ...inputValues) throws InvalidPositionException {
-                if (getParameterValue(parameters.get(0), code).compareTo(BigInteger.ZERO) == 0) {
-                    code.setCurrentPos(getParameterValue(parameters.get(1), code));
+                if (getLongParameterValue(parameters.get(0), code) == 0) {
+                    jumpTo(parameters.get(1), code);
                 }
 
                 return InstructionResult.emptyInstructionResult();
@@ -236,11 +355,15 @@ public class Instruction {
 
             @Override
             public InstructionResult executeInstruction(IntCodeMemory code, List<Parameter> parameters, BigInteger ...inputValues) throws InvalidPositionException {
-                if (getParameterValue(parameters.get(0), code).compareTo(getParameterValue(parameters.get(1), code)) < 0) {
-                    code.setValue(BigInteger.ONE, getMemoryPosition(parameters.get(2), code));
+                final long value1 = getLongParameterValue(parameters.get(0), code);
+                final long value2 = getLongParameterValue(parameters.get(1), code);
+                final boolean result;
+                if (value1 != IntCodeMemory.PROMOTED_CELL && value2 != IntCodeMemory.PROMOTED_CELL) {
+                    result = value1 < value2;
                 } else {
-                    code.setValue(BigInteger.ZERO, getMemoryPosition(parameters.get(2), code));
+                    result = getParameterValue(parameters.get(0), code).compareTo(getParameterValue(parameters.get(1), code)) < 0;
                 }
+                code.setLongValue(result ? 1L : 0L, getLongMemoryPosition(parameters.get(2), code));
 
                 return InstructionResult.emptyInstructionResult();
             }
@@ -254,11 +377,15 @@ public class Instruction {
 
             @Override
             public InstructionResult executeInstruction(IntCodeMemory code, List<Parameter> parameters, BigInteger ...inputValues) throws InvalidPositionException {
-                if (getParameterValue(parameters.get(0), code).compareTo(getParameterValue(parameters.get(1), code)) == 0) {
-                    code.setValue(BigInteger.ONE, getMemoryPosition(parameters.get(2), code));
+                final long value1 = getLongParameterValue(parameters.get(0), code);
+                final long value2 = getLongParameterValue(parameters.get(1), code);
+                final boolean result;
+                if (value1 != IntCodeMemory.PROMOTED_CELL && value2 != IntCodeMemory.PROMOTED_CELL) {
+                    result = value1 == value2;
                 } else {
-                    code.setValue(BigInteger.ZERO, getMemoryPosition(parameters.get(2), code));
+                    result = getParameterValue(parameters.get(0), code).compareTo(getParameterValue(parameters.get(1), code)) == 0;
                 }
+                code.setLongValue(result ? 1L : 0L, getLongMemoryPosition(parameters.get(2), code));
 
                 return InstructionResult.emptyInstructionResult();
             }
@@ -266,7 +393,12 @@ public class Instruction {
         ADJUST_RELATIVE_BASE(9, 1) {
             @Override
             public InstructionResult executeInstruction(IntCodeMemory code, List<Parameter> parameters, BigInteger ...inputValues) throws InvalidPositionException {
-                code.incrementRelativeBaseOffset(getParameterValue(parameters.get(0), code));
+                final long increment = getLongParameterValue(parameters.get(0), code);
+                if (increment != IntCodeMemory.PROMOTED_CELL) {
+                    code.incrementRelativeBaseOffset(increment);
+                } else {
+                    code.incrementRelativeBaseOffset(getParameterValue(parameters.get(0), code));
+                }
 
                 return InstructionResult.emptyInstructionResult();
             }
@@ -311,17 +443,72 @@ public class Instruction {
             }
         }
 
+        /**
+         * @return the value, or {@link IntCodeMemory#PROMOTED_CELL} if it doesn't fit in a long
+         */
+        protected long getLongParameterValue(Parameter parameter, IntCodeMemory code) throws InvalidPositionException {
+            switch (parameter.getMode()) {
+                case IMMEDIATE_MODE:
+                    return parameter.getLongValue();
+                case POSITION_MODE:
+                    return code.getLongValue(parameter.getLongValue());
+                default: // RELATIVE_MODE
+                    return code.getLongValue(getLongRelativePosition(parameter, code));
+            }
+        }
+
+        protected long getLongMemoryPosition(Parameter parameter, IntCodeMemory code) throws InvalidPositionException {
+            switch (parameter.getMode()) {
+                case POSITION_MODE:
+                    return parameter.getLongValue();
+                case RELATIVE_MODE:
+                    return getLongRelativePosition(parameter, code);
+                default: // IMMEDIATE_MODE
+                    throw new IllegalArgumentException("Parameter mode IMMEDIATE_MODE not allowed");
+            }
+        }
+
+        protected void jumpTo(Parameter parameter, IntCodeMemory code) throws InvalidPositionException {
+            final long position = getLongParameterValue(parameter, code);
+            if (position != IntCodeMemory.PROMOTED_CELL) {
+                code.setCurrentPos(position);
+            } else {
+                code.setCurrentPos(getParameterValue(parameter, code));
+            }
+        }
+
+        private long getLongRelativePosition(Parameter parameter, IntCodeMemory code) throws InvalidPositionException {
+            if (parameter.getLongValue() == IntCodeMemory.PROMOTED_CELL)
+                throw new InvalidPositionException(String.format("Relative position out of range (%s + %d)", parameter.getValue(), code.getLongRelativeBaseOffset()));
+
+            try {
+                return Math.addExact(code.getLongRelativeBaseOffset(), parameter.getLongValue());
+            } catch (ArithmeticException e) {
+                throw new InvalidPositionException(String.format("Relative position out of range (%d + %d)", parameter.getLongValue(), code.getLongRelativeBaseOffset()));
+            }
+        }
+
         public void validateParameters(List<Parameter> parameterList) throws InvalidParameterModesException {
             // Override only if the operation have some validations to do.
         }
         public abstract InstructionResult executeInstruction(IntCodeMemory code, List<Parameter> parameters, BigInteger ...inputValues) throws InvalidPositionException;
 
         private static final Map<String, Operation> stringToEnum = Stream.of(values()).collect(toMap(Object::toString, e -> e));
+        private static final Operation[] opCodeToEnum = new Operation[100];
+
+        static {
+            for (Operation operation : values())
+                opCodeToEnum[operation.opCode] = operation;
+        }
 
         public static Optional<Operation> fromString(String op) {
             return Optional.ofNullable(stringToEnum.get(op));
         }
 
+        public static Operation fromOpCode(int opCode) {
+            return opCode >= 0 && opCode < opCodeToEnum.length ? opCodeToEnum[opCode] : null;
+        }
+
     }
 
     public static class Builder {
@@ -347,9 +534,8 @@ public class Instruction {
         public static Builder createInstruction(int opCodeAndParamModes, int position) throws InvalidOperationException, InvalidParameterModesException {
 
             final int opCode = opCodeAndParamModes % 100;
-            Optional<Operation> optionalOperation = Operation.fromString(Integer.toString(opCode));
-            if(optionalOperation.isPresent()) {
-                Operation operation = optionalOperation.get();
+            final Operation operation = Operation.fromOpCode(opCode);
+            if (operation != null) {
                 List<ParameterMode> parameterModeList = getParameterModes(opCodeAndParamModes, operation.getNumParams());
                 return new Builder(operation, parameterModeList, operation.getNumParams(), position);
             } else {
@@ -377,16 +563,15 @@ public class Instruction {
         }
 
         private static List<ParameterMode> getParameterModes(int opCodeAndParamModes, int numParams) throws InvalidParameterModesException {
-            List<ParameterMode> parameterModeList = new ArrayList<>();
+            List<ParameterMode> parameterModeList = new ArrayList<>(numParams);
 
             int remaining = opCodeAndParamModes/100;
             for (int i = 0; i < numParams; i++) {
-                String strParamMode = Long.toString(remaining%10);
-                Optional<ParameterMode> parameterMode = ParameterMode.fromString(strParamMode);
-                if (parameterMode.isPresent()) {
-                    parameterModeList.add(parameterMode.get());
+                ParameterMode parameterMode = ParameterMode.fromMode(remaining%10);
+                if (parameterMode != null) {
+                    parameterModeList.add(parameterMode);
                 } else {
-                    throw new InvalidParameterModesException(opCodeAndParamModes, String.format("Invalid parameter mode %s for param nº %d", strParamMode, i+1));
+                    throw new InvalidParameterModesException(opCodeAndParamModes, String.format("Invalid parameter mode %d for param nº %d", remaining%10, i+1));
                 }
                 remaining /= 10;
             }
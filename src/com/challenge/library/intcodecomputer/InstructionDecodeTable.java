@@ -0,0 +1,76 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.InvalidOperationException;
+import com.challenge.library.intcodecomputer.exception.InvalidParameterModesException;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Precomputed table with every valid combination of opcode and parameter modes. Each one is decoded into an int holding
+ * the opcode in the lowest byte and the mode of each parameter in the following pairs of bits.
+ */
+final class InstructionDecodeTable {
+    static final int INVALID = 0;
+
+    private static final int OPCODE_MASK = 0xFF;
+    private static final int MODES_SHIFT = 8;
+
+    private static final int[] DECODE_TABLE = createDecodeTable();
+
+    private InstructionDecodeTable() {}
+
+    static int decode(long instruction) {
+        return instruction >= 0 && instruction < DECODE_TABLE.length ? DECODE_TABLE[(int) instruction] : INVALID;
+    }
+
+    static int getOpCode(int entry) {
+        return entry & OPCODE_MASK;
+    }
+
+    static int getParameterMode(int entry, int paramIndex) {
+        return (entry >>> (MODES_SHIFT + 2 * paramIndex)) & 0b11;
+    }
+
+    static int getSize(int entry) {
+        Instruction.Operation operation = Instruction.Operation.fromOpCode(getOpCode(entry));
+        return operation != null ? operation.getNumParams() + 1 : 1;
+    }
+
+    private static int[] createDecodeTable() {
+        int[] table = new int[22300];
+        Arrays.fill(table, INVALID);
+
+        for (Instruction.Operation operation : Instruction.Operation.values()) {
+            final int numParams = operation.getNumParams();
+            final int numCombinations = (int) Math.pow(3, numParams);
+            for (int combination = 0; combination < numCombinations; combination++) {
+                int modes = 0;
+                int decimalModes = 0;
+                int remaining = combination;
+                for (int i = 0, factor = 100; i < numParams; i++, factor *= 10) {
+                    modes |= (remaining % 3) << (2 * i);
+                    decimalModes += (remaining % 3) * factor;
+                    remaining /= 3;
+                }
+
+                final int encoding = decimalModes + operation.opCode;
+                if (isValidInstruction(encoding, numParams))
+                    table[encoding] = operation.opCode | (modes << MODES_SHIFT);
+            }
+        }
+
+        return table;
+    }
+
+    private static boolean isValidInstruction(int encoding, int numParams) {
+        BigInteger[] parameters = new BigInteger[numParams];
+        Arrays.fill(parameters, BigInteger.ZERO);
+        try {
+            Instruction.Builder.createInstruction(encoding, 0).withParameters(parameters).build();
+            return true;
+        } catch (InvalidOperationException | InvalidParameterModesException e) {
+            return false;
+        }
+    }
+}
@@ -1,33 +1,109 @@
 package com.challenge.library.intcodecomputer;
 
+import com.challenge.library.intcodecomputer.IntCodeComputer.ExecutionResult;
 import com.challenge.library.intcodecomputer.exception.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.math.BigInteger;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static com.challenge.library.intcodecomputer.IntCodeMemory.Builder.createIntCodeMemory;
 
 public class InstructionExecutor {
     private static final Logger logger = LogManager.getLogger();
+    private static final VarHandle PUBLISHED_INSTRUCTIONS;
+    private static final VarHandle PUBLISHED_OUTPUTS;
+    private static final VarHandle PUBLISHED_INPUT_STARVATIONS;
+    private static final VarHandle PUBLISHED_MEMORY_SIZE;
+    private static final VarHandle PUBLISHED_AUTO_EXPANSIONS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PUBLISHED_INSTRUCTIONS = lookup.findVarHandle(InstructionExecutor.class, "publishedInstructions", long.class);
+            PUBLISHED_OUTPUTS = lookup.findVarHandle(InstructionExecutor.class, "publishedOutputs", long.class);
+            PUBLISHED_INPUT_STARVATIONS = lookup.findVarHandle(InstructionExecutor.class, "publishedInputStarvations", long.class);
+            PUBLISHED_MEMORY_SIZE = lookup.findVarHandle(InstructionExecutor.class, "publishedMemorySize", int.class);
+            PUBLISHED_AUTO_EXPANSIONS = lookup.findVarHandle(InstructionExecutor.class, "publishedAutoExpansions", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     IntCodeMemory code;
-    List<BigInteger> input;
-    int inputIndex;
+    InputQueue input;
+    InputSource inputSource;
+    OutputSink outputSink;
+    // Output values the sink is still waiting for. Once it gets to 0 the execution stops with an empty result
+    long outputsLeft;
+    // Steps left of the quantum of a time slice (see runSlice)
+    long stepsLeft;
+    // Execution counters, only read and written by the thread running the code
+    long numInstructions;
+    long numOutputs;
+    long numInputStarvations;
+    // Copies of the counters and of the memory metrics for the IntCodeMetrics of the computer, which reads them from
+    // other threads. Only written through publishCounters() and publishInstructions()
+    private long publishedInstructions;
+    private long publishedOutputs;
+    private long publishedInputStarvations;
+    private int publishedMemorySize;
+    private long publishedAutoExpansions;
 
-    private InstructionExecutor(IntCodeMemory code, List<BigInteger> input) {
+    InstructionExecutor(IntCodeMemory code, InputQueue input) {
         this.code = code;
         this.input = input;
+        publishCounters();
     }
 
     public Instruction.InstructionResult executeNextInstruction() throws ExecutionException {
+        return executeInstruction(false);
+    }
+
+    /**
+     * Executes instructions until one of them gives a non empty result (output, input needed or end of execution).
+     */
+    public Instruction.InstructionResult executeUntilEvent() throws ExecutionException {
+        Instruction.InstructionResult result;
+        do {
+            result = executeNextStep();
+        } while (result.isEmptyResult());
+
+        return result;
+    }
+
+    /**
+     * Executes the next instruction, or the superinstruction it has been fused in.
+     */
+    Instruction.InstructionResult executeNextStep() throws ExecutionException {
+        return executeInstruction(true);
+    }
+
+    /**
+     * @return the result of the step that gave an event, or null if the steps left of the quantum ran out before
+     */
+    Instruction.InstructionResult executeSteps() throws ExecutionException {
+        while (stepsLeft > 0) {
+            stepsLeft--;
+            Instruction.InstructionResult result = executeNextStep();
+            if (!result.isEmptyResult())
+                return result;
+        }
+        return null;
+    }
+
+    private Instruction.InstructionResult executeInstruction(boolean fused) throws ExecutionException {
         Instruction.InstructionResult result;
 
         Instruction instruction;
         try {
-         instruction = code.readInstruction();
+         instruction = fused ? code.readFusedInstruction() : code.readInstruction();
         } catch (Exception e) {
             throw new ExecutionException("Error reading next instruction", e);
         }
@@ -37,20 +113,159 @@ public class InstructionExecutor {
                 result = instruction.execute(code, getNextInputValue());
                 if (result.isInputNeeded()) {
                     code.goBackToPreviousPosition();
+                    numInputStarvations++;
+                    publishCounters();
+                    return result;
                 }
             } else {
                 result = instruction.execute(code);
+                if (instruction.getOperation() == Instruction.Operation.OUTPUT)
+                    numOutputs++;
             }
         } catch (InvalidPositionException e) {
             throw new ExecutionException(instruction, "Error executing instruction", e);
         }
 
+        numInstructions += instruction.numInstructions;
+        publishCounters();
         return result;
     }
 
+    // Called at every event and when the execution stops (after every instruction by the interpreter). The values are
+    // written in opaque mode, which costs a plain store but is never torn
+    final void publishCounters() {
+        publishInstructions();
+        PUBLISHED_OUTPUTS.setOpaque(this, numOutputs);
+        PUBLISHED_INPUT_STARVATIONS.setOpaque(this, numInputStarvations);
+        PUBLISHED_MEMORY_SIZE.setOpaque(this, code.getSize());
+        PUBLISHED_AUTO_EXPANSIONS.setOpaque(this, code.getNumAutoExpansions());
+    }
+
+    final void publishInstructions() {
+        PUBLISHED_INSTRUCTIONS.setOpaque(this, numInstructions);
+    }
+
+    long getPublishedInstructions() {
+        return (long) PUBLISHED_INSTRUCTIONS.getOpaque(this);
+    }
+
+    long getPublishedOutputs() {
+        return (long) PUBLISHED_OUTPUTS.getOpaque(this);
+    }
+
+    long getPublishedInputStarvations() {
+        return (long) PUBLISHED_INPUT_STARVATIONS.getOpaque(this);
+    }
+
+    int getPublishedMemorySize() {
+        return (int) PUBLISHED_MEMORY_SIZE.getOpaque(this);
+    }
+
+    long getPublishedAutoExpansions() {
+        return (long) PUBLISHED_AUTO_EXPANSIONS.getOpaque(this);
+    }
+
+    /**
+     * @return true if the execution finished, false if the program is waiting for input
+     */
+    public boolean run(InputSource inputSource, OutputSink outputSink) throws ExecutionException {
+        return execute(inputSource, outputSink, Long.MAX_VALUE) == ExecutionResult.ResultType.EXECUTION_FINISHED;
+    }
+
+    public void executeUntilOutputs(OutputFrame frame, int numOutputs) throws ExecutionException {
+        if (numOutputs <= 0)
+            throw new IllegalArgumentException("The number of outputs must be greater than 0: " + numOutputs);
+
+        frame.clear();
+        frame.setResultType(execute(InputSource.empty(), frame, numOutputs));
+    }
+
+    public void executeUntilInputNeeded(OutputFrame frame) throws ExecutionException {
+        frame.clear();
+        frame.setResultType(execute(InputSource.empty(), frame, Long.MAX_VALUE));
+    }
+
+    /**
+     * @return the reason why the execution stopped, or null if the quantum of maxSteps steps was used up
+     */
+    ExecutionResult.ResultType runSlice(InputSource inputSource, OutputSink outputSink, long maxSteps) throws ExecutionException {
+        this.inputSource = Objects.requireNonNull(inputSource);
+        this.outputSink = Objects.requireNonNull(outputSink);
+        this.outputsLeft = Long.MAX_VALUE;
+        this.stepsLeft = maxSteps;
+        try {
+            while (true) {
+                Instruction.InstructionResult result = executeSteps();
+                if (result == null)
+                    return null;
+                if (result.isExecutionFinished())
+                    return ExecutionResult.ResultType.EXECUTION_FINISHED;
+                if (result.isInputNeeded())
+                    return ExecutionResult.ResultType.INPUT_NEEDED;
+
+                if (result.getOutput().isPresent())
+                    outputSink.accept(toLongOutput(result.getOutput().get()));
+            }
+        } finally {
+            this.inputSource = null;
+            this.outputSink = null;
+            publishCounters();
+        }
+    }
+
+    ExecutionResult.ResultType runUntilOutputs(InputSource inputSource, OutputSink outputSink, long maxOutputs) throws ExecutionException {
+        return execute(inputSource, outputSink, maxOutputs);
+    }
+
+    private ExecutionResult.ResultType execute(InputSource inputSource, OutputSink outputSink, long maxOutputs) throws ExecutionException {
+        this.inputSource = Objects.requireNonNull(inputSource);
+        this.outputSink = Objects.requireNonNull(outputSink);
+        this.outputsLeft = maxOutputs;
+        try {
+            // The engines can send the output values to the sink by themselves, stopping when no output is left
+            while (outputsLeft > 0) {
+                Instruction.InstructionResult result = executeUntilEvent();
+                if (result.isExecutionFinished())
+                    return ExecutionResult.ResultType.EXECUTION_FINISHED;
+                if (result.isInputNeeded())
+                    return ExecutionResult.ResultType.INPUT_NEEDED;
+
+                if (result.getOutput().isPresent()) {
+                    outputSink.accept(toLongOutput(result.getOutput().get()));
+                    outputsLeft--;
+                }
+            }
+            return ExecutionResult.ResultType.NEXT_OUTPUT;
+        } finally {
+            this.inputSource = null;
+            this.outputSink = null;
+            publishCounters();
+        }
+    }
+
+    private static long toLongOutput(BigInteger output) throws ExecutionException {
+        if (output.bitLength() >= Long.SIZE)
+            throw new ExecutionException(String.format("Output value %s doesn't fit in a long", output));
+
+        return output.longValue();
+    }
+
     public void addInputValue(long inputValue) {
-        input.add(BigInteger.valueOf(inputValue));
-        logger.trace("Input added. Input index = {}, Input list = {}", inputIndex, input);
+        input.add(inputValue);
+        logger.trace("Input added. Pending input = {}", input);
+    }
+
+    public void addInputValues(long... inputValues) {
+        input.addAll(inputValues);
+        logger.trace("Input added. Pending input = {}", input);
+    }
+
+    public boolean offerInputValue(long inputValue) {
+        return input.offer(inputValue);
+    }
+
+    public int getRemainingInputCapacity() {
+        return input.getRemainingCapacity();
     }
 
     public void rewindLastInstruction() {
@@ -61,9 +276,28 @@ public class InstructionExecutor {
         return code.getSnapshot();
     }
 
-    private BigInteger getNextInputValue() {
-        if (inputIndex < input.size()) {
-            return input.get(inputIndex++);
+    void decodeProgram() {
+        ProgramAnalysis analysis = ProgramAnalyzer.analyze(code.getDenseCells());
+        code.decodeInstructions(IntStream.range(0, analysis.getProgramLength()).filter(analysis::isInstructionStart).toArray());
+    }
+
+    InstructionExecutor fork() {
+        return new InstructionExecutor(code.fork(), input.copy());
+    }
+
+    ExecutionEngine getEngine() {
+        return ExecutionEngine.INTERPRETER;
+    }
+
+    Optional<ExecutionTrace> getExecutionTrace() {
+        return Optional.empty();
+    }
+
+    BigInteger getNextInputValue() {
+        if (!input.isEmpty()) {
+            return BigInteger.valueOf(input.poll());
+        } else if (inputSource != null && inputSource.hasInput()) {
+            return BigInteger.valueOf(inputSource.nextInput());
         } else {
             return null;
         }
@@ -71,12 +305,20 @@ public class InstructionExecutor {
 
     public static class Builder {
         private IntCodeMemory.Builder intCodeMemoryBuilder;
-        private List<BigInteger> input;
+        private long[] input = new long[0];
+        private int inputCapacity = InputQueue.UNBOUNDED_CAPACITY;
+        private ExecutionEngine engine = ExecutionEngine.INTERPRETER;
+        private IntCodeProfiler profiler;
+        private int executionTraceSize;
 
         private Builder(long[] code) {
             intCodeMemoryBuilder = createIntCodeMemory(code);
         }
 
+        private Builder(IntCodeMemory.Builder intCodeMemoryBuilder) {
+            this.intCodeMemoryBuilder = intCodeMemoryBuilder;
+        }
+
         private Builder(BigInteger[] code) {
             intCodeMemoryBuilder = createIntCodeMemory(code);
         }
@@ -89,13 +331,32 @@ public class InstructionExecutor {
             return new Builder(code);
         }
 
+        /**
+         * Creates an executor going on from a checkpoint. The pending input values are added with {@link
+         * #withInput(List)}.
+         */
+        static Builder restoreInstructionExecutor(MachineState state) {
+            Builder builder = new Builder(IntCodeMemory.Builder.restoreIntCodeMemory(state));
+            builder.inputCapacity = state.getInputCapacity();
+            builder.engine = state.getEngine();
+            return builder;
+        }
+
         public Builder startWithPosition(int pos) {
             this.intCodeMemoryBuilder.withStartingPos(pos);
             return this;
         }
 
         public Builder withInput(List<Long> input) {
-            this.input = input.stream().map(BigInteger::valueOf).collect(Collectors.toList());
+            this.input = input.stream().mapToLong(Long::longValue).toArray();
+            return this;
+        }
+
+        public Builder withInputCapacity(int inputCapacity) {
+            if (inputCapacity <= 0)
+                throw new IllegalArgumentException("The input capacity must be greater than 0: " + inputCapacity);
+
+            this.inputCapacity = inputCapacity;
             return this;
         }
 
@@ -109,8 +370,57 @@ public class InstructionExecutor {
             return this;
         }
 
+        public Builder withMemoryPageSize(int pageSize) {
+            intCodeMemoryBuilder.withPageSize(pageSize);
+            return this;
+        }
+
+        public Builder withMemoryMaxSize(int maxSize) {
+            intCodeMemoryBuilder.withMaxSize(maxSize);
+            return this;
+        }
+
+        public Builder withUnboundedMemory() {
+            intCodeMemoryBuilder.withUnboundedSize();
+            return this;
+        }
+
+        public Builder withEngine(ExecutionEngine engine) {
+            this.engine = Objects.requireNonNull(engine);
+            return this;
+        }
+
+        public Builder withProfiler(IntCodeProfiler profiler) {
+            this.profiler = Objects.requireNonNull(profiler);
+            return this;
+        }
+
+        public Builder withExecutionTrace(int size) {
+            if (size <= 0)
+                throw new IllegalArgumentException("The execution trace size must be greater than 0: " + size);
+
+            this.executionTraceSize = size;
+            return this;
+        }
+
         public InstructionExecutor build() {
-            return new InstructionExecutor(intCodeMemoryBuilder.build(), input);
+            InputQueue input = new InputQueue(inputCapacity);
+            input.addAll(this.input);
+
+            if (profiler != null || executionTraceSize > 0) {
+                ExecutionTrace trace = executionTraceSize > 0 ? new ExecutionTrace(executionTraceSize) : null;
+                return new InstrumentedInstructionExecutor(intCodeMemoryBuilder.build(), input, profiler, trace);
+            }
+
+            switch (engine) {
+                case TABLE_DRIVEN:
+                    return new TableDrivenInstructionExecutor(intCodeMemoryBuilder.build(), input);
+                case COMPILED:
+                    IntCodeMemory memory = intCodeMemoryBuilder.build();
+                    return new CompiledInstructionExecutor(memory, input, IntCodeCompiler.compile(memory.getDenseCells()));
+                default: // INTERPRETER
+                    return new InstructionExecutor(intCodeMemoryBuilder.build(), input);
+            }
         }
     }
 }
@@ -0,0 +1,89 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.ExecutionException;
+
+import java.math.BigInteger;
+import java.util.Optional;
+
+import static com.challenge.library.intcodecomputer.InstructionDecodeTable.*;
+
+/**
+ * Executor recording every instruction executed in a {@link IntCodeProfiler} and/or an {@link ExecutionTrace}. It
+ * interprets the code one instruction at a time, whatever the engine chosen, so the records don't depend on the engine.
+ */
+class InstrumentedInstructionExecutor extends InstructionExecutor {
+    private final IntCodeProfiler profiler;
+    private final ExecutionTrace trace;
+
+    InstrumentedInstructionExecutor(IntCodeMemory code, InputQueue input, IntCodeProfiler profiler, ExecutionTrace trace) {
+        super(code, input);
+        this.profiler = profiler;
+        this.trace = trace;
+    }
+
+    @Override
+    public Instruction.InstructionResult executeNextInstruction() throws ExecutionException {
+        final int position = code.getCurrentPos();
+        final long instructionCode = code.readCell(position);
+        final long relativeBase = code.getLongRelativeBaseOffset();
+        // Read before the execution, as the instruction can overwrite its own parameters
+        final long parameter1 = code.readCell(position + 1);
+        final long parameter2 = code.readCell(position + 2);
+        final long parameter3 = code.readCell(position + 3);
+
+        Instruction.InstructionResult result;
+        try {
+            result = super.executeNextInstruction();
+        } catch (ExecutionException e) {
+            // The instruction failing is the one the trace is dumped for
+            if (trace != null)
+                trace.recordFailure(position, instructionCode, parameter1, parameter2, parameter3);
+            throw e;
+        }
+        if (result.isInputNeeded())
+            return result;
+
+        final int nextPosition = code.getCurrentPos();
+        if (profiler != null) {
+            profiler.recordInstruction(position, instructionCode, nextPosition, code.getDenseLength());
+        }
+        if (trace != null) {
+            final int entry = decode(instructionCode);
+            final long instructionResult = switch (getOpCode(entry)) {
+                case 1, 2, 7, 8 -> code.readCell(address(entry, 2, parameter3, relativeBase));
+                case 3 -> code.readCell(address(entry, 0, parameter1, relativeBase));
+                case 4 -> toTraceValue(result.getOutput().orElseThrow());
+                case 5, 6 -> nextPosition;
+                case 9 -> code.getLongRelativeBaseOffset();
+                default -> 0;
+            };
+            trace.record(position, instructionCode, parameter1, parameter2, parameter3, instructionResult);
+        }
+        return result;
+    }
+
+    // Never runs superinstructions, every single instruction is recorded
+    @Override
+    Instruction.InstructionResult executeNextStep() throws ExecutionException {
+        return executeNextInstruction();
+    }
+
+    @Override
+    Optional<ExecutionTrace> getExecutionTrace() {
+        return Optional.ofNullable(trace);
+    }
+
+    // The fork records its instructions in the same profiler, and in a copy of the trace
+    @Override
+    InstrumentedInstructionExecutor fork() {
+        return new InstrumentedInstructionExecutor(code.fork(), input.copy(), profiler, trace != null ? trace.copy() : null);
+    }
+
+    private static long address(int entry, int paramIndex, long parameter, long relativeBase) {
+        return getParameterMode(entry, paramIndex) == 2 ? relativeBase + parameter : parameter;
+    }
+
+    private static long toTraceValue(BigInteger value) {
+        return value.bitLength() < Long.SIZE ? value.longValue() : IntCodeMemory.PROMOTED_CELL;
+    }
+}
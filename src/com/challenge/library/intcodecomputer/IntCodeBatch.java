@@ -0,0 +1,290 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+
+/**
+ * Runs the same program many times in parallel, each {@link Job} with its own input values and memory patches, like the
+ * noun and verb grid of day 2. The program is loaded and decoded once, and every run gets a copy on write fork of it.
+ */
+public class IntCodeBatch {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final IntCodeComputer image;
+    private final ForkJoinPool pool;
+
+    private IntCodeBatch(Builder builder) {
+        IntCodeComputer.Builder computerBuilder = createNewIntCodeComputer(builder.code).withEngine(builder.engine);
+        if (builder.memoryAutoExpand)
+            computerBuilder.withMemoryAutoExpand();
+
+        this.image = computerBuilder.build();
+        this.image.decodeProgram();
+        this.pool = builder.pool;
+    }
+
+    public List<Result> runAll(List<Job> jobs) {
+        Result[] results = new Result[jobs.size()];
+        pool.invoke(new BatchTask(new Execution(jobs, result -> results[result.index] = result, null), 0, jobs.size()));
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * @return the result of the first job, in the order given, matching the condition. The jobs after a match are
+     * skipped, though some of them may have been run already by other threads.
+     */
+    public Optional<Result> findFirst(List<Job> jobs, Predicate<Result> condition) {
+        AtomicReference<Result> firstMatch = new AtomicReference<>();
+        Execution execution = new Execution(jobs, result -> {
+            if (condition.test(result))
+                firstMatch.accumulateAndGet(result, (current, match) -> current == null || match.index < current.index ? match : current);
+        }, firstMatch);
+
+        pool.invoke(new BatchTask(execution, 0, jobs.size()));
+        return Optional.ofNullable(firstMatch.get());
+    }
+
+    private IntCodeComputer forkImage() {
+        synchronized (image) {
+            return image.fork();
+        }
+    }
+
+    private static Result run(int index, Job job, IntCodeComputer workerImage) {
+        IntCodeComputer computer = workerImage.fork();
+        List<Long> output = new ArrayList<>();
+        try {
+            for (int i = 0; i < job.patchPositions.length; i++)
+                computer.patchMemory(job.patchPositions[i], job.patchValues[i]);
+
+            IntCodeComputer.ExecutionResult.ResultType resultType = computer.run(InputSource.of(job.inputValues), output::add);
+            return new Result(index, job, computer, resultType, output, null);
+        } catch (IntComputerException e) {
+            logger.debug("Error running the job {} ({}): {}", index, job, e.getMessage());
+            return new Result(index, job, computer, null, output, e);
+        }
+    }
+
+    private class Execution {
+        private final List<Job> jobs;
+        private final ResultHandler resultHandler;
+        // The first match found so far, if the jobs after it can be skipped
+        private final AtomicReference<Result> firstMatch;
+        private final Map<Thread, IntCodeComputer> workerImages = new ConcurrentHashMap<>();
+        private final int threshold;
+
+        Execution(List<Job> jobs, ResultHandler resultHandler, AtomicReference<Result> firstMatch) {
+            this.jobs = jobs;
+            this.resultHandler = resultHandler;
+            this.firstMatch = firstMatch;
+            this.threshold = Math.max(1, jobs.size() / (pool.getParallelism() * 4));
+        }
+
+        void runJobs(int from, int to) {
+            final IntCodeComputer workerImage = workerImages.computeIfAbsent(Thread.currentThread(), thread -> forkImage());
+            for (int index = from; index < to && !isSkipped(index); index++)
+                resultHandler.accept(run(index, jobs.get(index), workerImage));
+        }
+
+        private boolean isSkipped(int index) {
+            if (firstMatch == null)
+                return false;
+
+            final Result match = firstMatch.get();
+            return match != null && match.index < index;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResultHandler {
+        void accept(Result result);
+    }
+
+    // The first half is run by the thread splitting the jobs, so they tend to run in order and findFirst skips more of
+    // them
+    private static class BatchTask extends RecursiveAction {
+        private final Execution execution;
+        private final int from;
+        private final int to;
+
+        BatchTask(Execution execution, int from, int to) {
+            this.execution = execution;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= execution.threshold) {
+                execution.runJobs(from, to);
+            } else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new BatchTask(execution, from, middle), new BatchTask(execution, middle, to));
+            }
+        }
+    }
+
+    public static final class Job {
+        private final long[] inputValues;
+        private final int[] patchPositions;
+        private final long[] patchValues;
+
+        private Job(long[] inputValues, int[] patchPositions, long[] patchValues) {
+            this.inputValues = inputValues;
+            this.patchPositions = patchPositions;
+            this.patchValues = patchValues;
+        }
+
+        public static Job createJob() {
+            return new Job(new long[0], new int[0], new long[0]);
+        }
+
+        public Job withInputValues(long... values) {
+            long[] newInputValues = Arrays.copyOf(inputValues, inputValues.length + values.length);
+            System.arraycopy(values, 0, newInputValues, inputValues.length, values.length);
+            return new Job(newInputValues, patchPositions, patchValues);
+        }
+
+        public Job withPatch(int position, long value) {
+            if (position < 0)
+                throw new IllegalArgumentException("Invalid patch position: " + position);
+
+            int[] newPatchPositions = Arrays.copyOf(patchPositions, patchPositions.length + 1);
+            long[] newPatchValues = Arrays.copyOf(patchValues, patchValues.length + 1);
+            newPatchPositions[patchPositions.length] = position;
+            newPatchValues[patchValues.length] = value;
+            return new Job(inputValues, newPatchPositions, newPatchValues);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder patches = new StringBuilder();
+            for (int i = 0; i < patchPositions.length; i++)
+                patches.append(patches.length() > 0 ? ", " : "").append(patchPositions[i]).append('=').append(patchValues[i]);
+
+            return "Job{" +
+                    "inputValues=" + Arrays.toString(inputValues) +
+                    ", patches={" + patches + '}' +
+                    '}';
+        }
+    }
+
+    public static final class Result {
+        private final int index;
+        private final Job job;
+        private final IntCodeComputer computer;
+        private final IntCodeComputer.ExecutionResult.ResultType resultType;
+        private final List<Long> output;
+        private final IntComputerException error;
+
+        private Result(int index, Job job, IntCodeComputer computer, IntCodeComputer.ExecutionResult.ResultType resultType,
+                       List<Long> output, IntComputerException error) {
+            this.index = index;
+            this.job = job;
+            this.computer = computer;
+            this.resultType = resultType;
+            this.output = Collections.unmodifiableList(output);
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Job getJob() {
+            return job;
+        }
+
+        public boolean isExecutionFinished() {
+            return resultType == IntCodeComputer.ExecutionResult.ResultType.EXECUTION_FINISHED;
+        }
+
+        /**
+         * @return true if the program stopped waiting for more input values than the ones of the job
+         */
+        public boolean isInputNeeded() {
+            return resultType == IntCodeComputer.ExecutionResult.ResultType.INPUT_NEEDED;
+        }
+
+        public Optional<IntComputerException> getError() {
+            return Optional.ofNullable(error);
+        }
+
+        public List<Long> getOutput() {
+            return output;
+        }
+
+        public BigInteger getCell(int position) {
+            return computer.getMemoryValue(position);
+        }
+
+        public List<BigInteger> getMemorySnapshot() {
+            return computer.getMemorySnapshot();
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" +
+                    "index=" + index +
+                    ", job=" + job +
+                    ", resultType=" + resultType +
+                    ", output=" + output +
+                    (error != null ? ", error=" + error.getMessage() : "") +
+                    '}';
+        }
+    }
+
+    public static class Builder {
+        private final long[] code;
+        private ExecutionEngine engine = ExecutionEngine.INTERPRETER;
+        private boolean memoryAutoExpand;
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        private Builder(long[] code) {
+            this.code = code;
+        }
+
+        public static Builder createBatch(long[] code) {
+            if (code == null || code.length == 0)
+                throw new IllegalArgumentException("The int computer code array can't be empty or null");
+
+            return new Builder(code.clone());
+        }
+
+        public Builder withEngine(ExecutionEngine engine) {
+            this.engine = Objects.requireNonNull(engine);
+            return this;
+        }
+
+        public Builder withMemoryAutoExpand() {
+            this.memoryAutoExpand = true;
+            return this;
+        }
+
+        public Builder withPool(ForkJoinPool pool) {
+            this.pool = Objects.requireNonNull(pool);
+            return this;
+        }
+
+        public IntCodeBatch build() {
+            return new IntCodeBatch(this);
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package com.challenge.library.intcodecomputer;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.ClassFileVersion;
+import net.bytebuddy.asm.AsmVisitorWrapper;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.modifier.Ownership;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.jar.asm.ClassWriter;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.challenge.library.intcodecomputer.InstructionDecodeTable.*;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+/**
+ * Translates int code programs to JVM bytecode with Byte Buddy: every basic block reachable from the start of the
+ * program becomes a static method, with a switch to enter it at any of its instructions. Input, output and halt
+ * instructions, and writes into compiled cells, are left to the interpreter.
+ */
+final class IntCodeCompiler {
+    private static final Logger logger = LogManager.getLogger();
+
+    // Small enough for the generated methods to be JIT compiled
+    private static final int MAX_BLOCK_SIZE = 64;
+    private static final int BLOCKS_PER_DISPATCHER = 256;
+
+    private static final String CONTEXT = Type.getInternalName(CompiledCode.Context.class);
+    private static final String OPERATIONS = Type.getInternalName(CompiledCode.class);
+    private static final String BLOCK_DESCRIPTOR = "(L" + CONTEXT + ";I)I";
+    private static final String DISPATCHER_DESCRIPTOR = "(L" + CONTEXT + ";II)I";
+
+    // Least recently used first out. Every generated class has a class loader of its own, so it's unloaded with the
+    // program
+    static final int MAX_CACHED_PROGRAMS = 64;
+
+    // Compilations of the most recently used programs, in access order. Only locked to look them up or add them: the
+    // programs are compiled out of the lock, and the threads compiling the same program wait for the first one
+    private static final Map<ProgramKey, CompletableFuture<CompiledProgram>> compiledPrograms =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ProgramKey, CompletableFuture<CompiledProgram>> eldest) {
+                    return size() > MAX_CACHED_PROGRAMS;
+                }
+            };
+    private static final AtomicInteger classCounter = new AtomicInteger();
+
+    private IntCodeCompiler() {}
+
+    static CompiledProgram compile(long[] code) {
+        final ProgramKey key = new ProgramKey(code);
+        final CompletableFuture<CompiledProgram> compilation = new CompletableFuture<>();
+        final CompletableFuture<CompiledProgram> previousCompilation;
+        synchronized (compiledPrograms) {
+            previousCompilation = compiledPrograms.putIfAbsent(key, compilation);
+        }
+        if (previousCompilation != null)
+            return awaitCompilation(previousCompilation);
+
+        try {
+            final CompiledProgram program = new IntCodeCompiler().doCompile(key.code);
+            compilation.complete(program);
+            return program;
+        } catch (RuntimeException e) {
+            synchronized (compiledPrograms) {
+                compiledPrograms.remove(key, compilation);
+            }
+            compilation.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static CompiledProgram awaitCompilation(CompletableFuture<CompiledProgram> compilation) {
+        try {
+            return compilation.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    static int getNumCachedPrograms() {
+        synchronized (compiledPrograms) {
+            return compiledPrograms.size();
+        }
+    }
+
+    private CompiledProgram doCompile(long[] code) {
+        final int[] instructionBlocks = new int[code.length];
+        final byte[] instructionSizes = new byte[code.length];
+        final boolean[] codeCells = new boolean[code.length];
+        final byte[] instructionsToBlockEnd = new byte[code.length];
+        Arrays.fill(instructionBlocks, -1);
+
+        List<int[]> blocks = findBlocks(code, instructionBlocks, instructionSizes);
+        for (int[] block : blocks) {
+            for (int i = 0; i < block.length; i++) {
+                Arrays.fill(codeCells, block[i], block[i] + instructionSizes[block[i]], true);
+                instructionsToBlockEnd[block[i]] = (byte) (block.length - i);
+            }
+        }
+
+        logger.debug("Compiling int code program of {} cells: {} blocks found", code.length, blocks.size());
+
+        CompiledCode compiledCode = generateClass(code, blocks, instructionSizes);
+        return new CompiledProgram(compiledCode, instructionBlocks, instructionSizes, instructionsToBlockEnd, codeCells, blocks.size());
+    }
+
+    private List<int[]> findBlocks(long[] code, int[] instructionBlocks, byte[] instructionSizes) {
+        List<int[]> blocks = new ArrayList<>();
+        Deque<Integer> pending = new ArrayDeque<>();
+        pending.add(0);
+
+        while (!pending.isEmpty()) {
+            int pc = pending.poll();
+            List<Integer> block = new ArrayList<>();
+
+            while (pc >= 0 && pc < code.length && instructionBlocks[pc] < 0 && block.size() < MAX_BLOCK_SIZE) {
+                final int entry = decode(code[pc]);
+                final int size = getSize(entry);
+                if (entry == INVALID || pc + size > code.length)
+                    break;
+
+                final int opCode = getOpCode(entry);
+                if (opCode == 3 || opCode == 4) {
+                    pending.add(pc + size);
+                    break;
+                } else if (opCode == 99) {
+                    break;
+                }
+
+                block.add(pc);
+                instructionBlocks[pc] = blocks.size();
+                instructionSizes[pc] = (byte) size;
+                addKnownTargets(code, pc, entry, pending);
+
+                if (opCode == 5 || opCode == 6) {
+                    pending.add(pc + size);
+                    break;
+                }
+                pc += size;
+            }
+
+            if (!block.isEmpty())
+                blocks.add(block.stream().mapToInt(Integer::intValue).toArray());
+            if (pc >= 0 && pc < code.length && instructionBlocks[pc] < 0 && block.size() == MAX_BLOCK_SIZE)
+                pending.add(pc);
+        }
+
+        return blocks;
+    }
+
+    // Jump targets in immediate mode, the current value of the cells used as targets in position mode, and constants
+    // computed from immediate values (return addresses)
+    private void addKnownTargets(long[] code, int pc, int entry, Deque<Integer> pending) {
+        switch (getOpCode(entry)) {
+            case 5, 6 -> {
+                final long target = code[pc + 2];
+                if (getParameterMode(entry, 1) == 1)
+                    addTarget(target, code, pending);
+                else if (getParameterMode(entry, 1) == 0 && target >= 0 && target < code.length)
+                    addTarget(code[(int) target], code, pending);
+            }
+            case 1, 2 -> {
+                if (getParameterMode(entry, 0) == 1 && getParameterMode(entry, 1) == 1) {
+                    final long value1 = code[pc + 1];
+                    final long value2 = code[pc + 2];
+                    addTarget(getOpCode(entry) == 1 ? CompiledCode.add(value1, value2) : CompiledCode.multiply(value1, value2), code, pending);
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private void addTarget(long target, long[] code, Deque<Integer> pending) {
+        if (target > 0 && target < code.length)
+            pending.add((int) target);
+    }
+
+    private CompiledCode generateClass(long[] code, List<int[]> blocks, byte[] instructionSizes) {
+        DynamicType.Builder<CompiledCode> builder = new ByteBuddy(ClassFileVersion.JAVA_V8)
+                .subclass(CompiledCode.class)
+                .name(String.format("%s$Program%d", CompiledCode.class.getName(), classCounter.incrementAndGet()))
+                .visit(new AsmVisitorWrapper.ForDeclaredMethods().writerFlags(ClassWriter.COMPUTE_FRAMES));
+
+        for (int i = 0; i < blocks.size(); i++) {
+            builder = builder.defineMethod(blockMethodName(i), int.class, Visibility.PRIVATE, Ownership.STATIC)
+                    .withParameters(CompiledCode.Context.class, int.class)
+                    .intercept(new Implementation.Simple(new BlockAppender(code, blocks.get(i), instructionSizes)));
+        }
+
+        final int numDispatchers = (blocks.size() + BLOCKS_PER_DISPATCHER - 1) / BLOCKS_PER_DISPATCHER;
+        for (int i = 0; i < numDispatchers; i++) {
+            final int firstBlock = i * BLOCKS_PER_DISPATCHER;
+            final int lastBlock = Math.min(blocks.size(), firstBlock + BLOCKS_PER_DISPATCHER) - 1;
+            builder = builder.defineMethod(dispatcherMethodName(i), int.class, Visibility.PRIVATE, Ownership.STATIC)
+                    .withParameters(CompiledCode.Context.class, int.class, int.class)
+                    .intercept(new Implementation.Simple(new DispatcherAppender(firstBlock, lastBlock)));
+        }
+
+        builder = builder.method(named("execute"))
+                .intercept(new Implementation.Simple(new ExecuteAppender(numDispatchers)));
+
+        try {
+            return builder.make()
+                    .load(CompiledCode.class.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                    .getLoaded()
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            throw new IllegalStateException("Unable to instantiate the compiled int code program", e);
+        }
+    }
+
+    private static String blockMethodName(int block) {
+        return "block" + block;
+    }
+
+    private static String dispatcherMethodName(int dispatcher) {
+        return "dispatch" + dispatcher;
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        mv.visitLdcInsn(value);
+    }
+
+    private static class ExecuteAppender implements ByteCodeAppender {
+        private final int numDispatchers;
+
+        ExecuteAppender(int numDispatchers) {
+            this.numDispatchers = numDispatchers;
+        }
+
+        @Override
+        public Size apply(MethodVisitor mv, Implementation.Context context, MethodDescription method) {
+            // Locals: 0 = this, 1 = context, 2 = block, 3 = pc
+            Label bailOut = new Label();
+            Label[] labels = new Label[Math.max(numDispatchers, 1)];
+            for (int i = 0; i < labels.length; i++)
+                labels[i] = numDispatchers > 0 ? new Label() : bailOut;
+
+            mv.visitVarInsn(Opcodes.ILOAD, 2);
+            pushInt(mv, BLOCKS_PER_DISPATCHER);
+            mv.visitInsn(Opcodes.IDIV);
+            mv.visitTableSwitchInsn(0, labels.length - 1, bailOut, labels);
+
+            final String owner = context.getInstrumentedType().getInternalName();
+            for (int i = 0; i < numDispatchers; i++) {
+                mv.visitLabel(labels[i]);
+                mv.visitVarInsn(Opcodes.ALOAD, 1);
+                mv.visitVarInsn(Opcodes.ILOAD, 2);
+                mv.visitVarInsn(Opcodes.ILOAD, 3);
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, owner, dispatcherMethodName(i), DISPATCHER_DESCRIPTOR, false);
+                mv.visitInsn(Opcodes.IRETURN);
+            }
+
+            mv.visitLabel(bailOut);
+            mv.visitVarInsn(Opcodes.ILOAD, 3);
+            mv.visitInsn(Opcodes.ICONST_M1);
+            mv.visitInsn(Opcodes.IXOR);
+            mv.visitInsn(Opcodes.IRETURN);
+
+            return new Size(4, method.getStackSize());
+        }
+    }
+
+    private static class DispatcherAppender implements ByteCodeAppender {
+        private final int firstBlock;
+        private final int lastBlock;
+
+        DispatcherAppender(int firstBlock, int lastBlock) {
+            this.firstBlock = firstBlock;
+            this.lastBlock = lastBlock;
+        }
+
+        @Override
+        public Size apply(MethodVisitor mv, Implementation.Context context, MethodDescription method) {
+            // Locals: 0 = context, 1 = block, 2 = pc
+            Label bailOut = new Label();
+            Label[] labels = new Label[lastBlock - firstBlock + 1];
+            for (int i = 0; i < labels.length; i++)
+                labels[i] = new Label();
+
+            mv.visitVarInsn(Opcodes.ILOAD, 1);
+            mv.visitTableSwitchInsn(firstBlock, lastBlock, bailOut, labels);
+
+            final String owner = context.getInstrumentedType().getInternalName();
+            for (int i = 0; i < labels.length; i++) {
+                mv.visitLabel(labels[i]);
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitVarInsn(Opcodes.ILOAD, 2);
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, owner, blockMethodName(firstBlock + i), BLOCK_DESCRIPTOR, false);
+                mv.visitInsn(Opcodes.IRETURN);
+            }
+
+            mv.visitLabel(bailOut);
+            mv.visitVarInsn(Opcodes.ILOAD, 2);
+            mv.visitInsn(Opcodes.ICONST_M1);
+            mv.visitInsn(Opcodes.IXOR);
+            mv.visitInsn(Opcodes.IRETURN);
+
+            return new Size(3, method.getStackSize());
+        }
+    }
+
+    private static class BlockAppender implements ByteCodeAppender {
+        private static final int CONTEXT_VAR = 0;
+        private static final int PC_VAR = 1;
+        private static final int TEMP_VAR = 2;
+
+        private final long[] code;
+        private final int[] positions;
+        private final byte[] instructionSizes;
+
+        BlockAppender(long[] code, int[] positions, byte[] instructionSizes) {
+            this.code = code;
+            this.positions = positions;
+            this.instructionSizes = instructionSizes;
+        }
+
+        @Override
+        public Size apply(MethodVisitor mv, Implementation.Context context, MethodDescription method) {
+            Label bailOut = new Label();
+            Label[] labels = new Label[positions.length];
+            for (int i = 0; i < labels.length; i++)
+                labels[i] = new Label();
+
+            mv.visitVarInsn(Opcodes.ILOAD, PC_VAR);
+            mv.visitLookupSwitchInsn(bailOut, positions, labels);
+
+            for (int i = 0; i < positions.length; i++) {
+                mv.visitLabel(labels[i]);
+                generateInstruction(mv, positions[i]);
+            }
+
+            final int lastPosition = positions[positions.length - 1];
+            pushInt(mv, lastPosition + instructionSizes[lastPosition]);
+            mv.visitInsn(Opcodes.IRETURN);
+
+            mv.visitLabel(bailOut);
+            mv.visitVarInsn(Opcodes.ILOAD, PC_VAR);
+            mv.visitInsn(Opcodes.ICONST_M1);
+            mv.visitInsn(Opcodes.IXOR);
+            mv.visitInsn(Opcodes.IRETURN);
+
+            return new Size(10, TEMP_VAR + 2);
+        }
+
+        private void generateInstruction(MethodVisitor mv, int pc) {
+            final int entry = decode(code[pc]);
+            switch (getOpCode(entry)) {
+                case 1 -> generateWrite(mv, pc, entry, "add");
+                case 2 -> generateWrite(mv, pc, entry, "multiply");
+                case 7 -> generateWrite(mv, pc, entry, "lessThan");
+                case 8 -> generateWrite(mv, pc, entry, "equalTo");
+                case 5 -> generateJump(mv, pc, entry, true);
+                case 6 -> generateJump(mv, pc, entry, false);
+                case 9 -> generateAdjustRelativeBase(mv, pc, entry);
+                default -> throw new IllegalStateException(String.format("Unexpected instruction %d at position %d", code[pc], pc));
+            }
+        }
+
+        private void generateWrite(MethodVisitor mv, int pc, int entry, String operation) {
+            mv.visitVarInsn(Opcodes.ALOAD, CONTEXT_VAR);
+            mv.visitLdcInsn(code[pc + 3]);
+            generateParameter(mv, pc, entry, 0);
+            generateParameter(mv, pc, entry, 1);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, OPERATIONS, operation, "(JJ)J", false);
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, CONTEXT, getParameterMode(entry, 2) == 0 ? "write" : "writeRelative", "(JJ)Z", true);
+            generateBailOutIfFalse(mv, pc);
+        }
+
+        private void generateJump(MethodVisitor mv, int pc, int entry, boolean jumpIfTrue) {
+            Label notPromoted = new Label();
+            Label notTaken = new Label();
+            Label validTarget = new Label();
+
+            generateParameter(mv, pc, entry, 0);
+            mv.visitVarInsn(Opcodes.LSTORE, TEMP_VAR);
+            mv.visitVarInsn(Opcodes.LLOAD, TEMP_VAR);
+            mv.visitLdcInsn(IntCodeMemory.PROMOTED_CELL);
+            mv.visitInsn(Opcodes.LCMP);
+            mv.visitJumpInsn(Opcodes.IFNE, notPromoted);
+            generateBailOut(mv, pc);
+
+            mv.visitLabel(notPromoted);
+            mv.visitVarInsn(Opcodes.LLOAD, TEMP_VAR);
+            mv.visitInsn(Opcodes.LCONST_0);
+            mv.visitInsn(Opcodes.LCMP);
+            mv.visitJumpInsn(jumpIfTrue ? Opcodes.IFEQ : Opcodes.IFNE, notTaken);
+
+            generateParameter(mv, pc, entry, 1);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, OPERATIONS, "jumpTarget", "(J)I", false);
+            mv.visitInsn(Opcodes.DUP);
+            mv.visitJumpInsn(Opcodes.IFGE, validTarget);
+            mv.visitInsn(Opcodes.POP);
+            generateBailOut(mv, pc);
+
+            mv.visitLabel(validTarget);
+            mv.visitInsn(Opcodes.IRETURN);
+
+            mv.visitLabel(notTaken);
+            pushInt(mv, pc + 3);
+            mv.visitInsn(Opcodes.IRETURN);
+        }
+
+        private void generateAdjustRelativeBase(MethodVisitor mv, int pc, int entry) {
+            mv.visitVarInsn(Opcodes.ALOAD, CONTEXT_VAR);
+            generateParameter(mv, pc, entry, 0);
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, CONTEXT, "adjustRelativeBase", "(J)Z", true);
+            generateBailOutIfFalse(mv, pc);
+        }
+
+        private void generateParameter(MethodVisitor mv, int pc, int entry, int paramIndex) {
+            final long value = code[pc + 1 + paramIndex];
+            switch (getParameterMode(entry, paramIndex)) {
+                case 0 -> {
+                    mv.visitVarInsn(Opcodes.ALOAD, CONTEXT_VAR);
+                    mv.visitLdcInsn(value);
+                    mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, CONTEXT, "read", "(J)J", true);
+                }
+                case 1 -> mv.visitLdcInsn(value);
+                default -> {
+                    mv.visitVarInsn(Opcodes.ALOAD, CONTEXT_VAR);
+                    mv.visitLdcInsn(value);
+                    mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, CONTEXT, "readRelative", "(J)J", true);
+                }
+            }
+        }
+
+        private void generateBailOutIfFalse(MethodVisitor mv, int pc) {
+            Label ok = new Label();
+            mv.visitJumpInsn(Opcodes.IFNE, ok);
+            generateBailOut(mv, pc);
+            mv.visitLabel(ok);
+        }
+
+        private void generateBailOut(MethodVisitor mv, int pc) {
+            pushInt(mv, ~pc);
+            mv.visitInsn(Opcodes.IRETURN);
+        }
+    }
+
+    private static class ProgramKey {
+        private final long[] code;
+        private final int hashCode;
+
+        ProgramKey(long[] code) {
+            this.code = code.clone();
+            this.hashCode = Arrays.hashCode(code);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ProgramKey && Arrays.equals(code, ((ProgramKey) o).code);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -2,17 +2,22 @@ package com.challenge.library.intcodecomputer;
 
 import com.challenge.library.intcodecomputer.exception.ExecutionException;
 import com.challenge.library.intcodecomputer.exception.ExecutionResultBuilderException;
+import com.challenge.library.intcodecomputer.exception.InputQueueFullException;
 import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import com.challenge.library.intcodecomputer.exception.InvalidPositionException;
 import static com.challenge.library.intcodecomputer.IntCodeComputer.ExecutionResult.Builder.createExecutionResult;
 
 import com.challenge.library.intcodecomputer.exception.NoMoreInputValuesException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 import static com.challenge.library.intcodecomputer.InstructionExecutor.Builder.createInstructionExecutor;
 
@@ -20,11 +25,16 @@ public class IntCodeComputer {
     private static final Logger logger = LogManager.getLogger();
 
     private final InstructionExecutor instructionExecutor;
+    private final IntCodeMetrics metrics;
     private final Configuration configuration;
+    private final InputRecorder inputRecorder;
 
-    private IntCodeComputer(InstructionExecutor instructionExecutor, Configuration configuration) {
+    private IntCodeComputer(InstructionExecutor instructionExecutor, Configuration configuration,
+                            InputRecorder inputRecorder) {
         this.instructionExecutor = instructionExecutor;
+        this.metrics = new IntCodeMetrics(instructionExecutor);
         this.configuration = configuration;
+        this.inputRecorder = inputRecorder;
     }
 
     public ExecutionResult executeCode() throws IntComputerException {
@@ -33,28 +43,188 @@ public class IntCodeComputer {
         boolean finished;
         do {
             try {
-                Instruction.InstructionResult instructionResult = instructionExecutor.executeNextInstruction();
+                Instruction.InstructionResult instructionResult = instructionExecutor.executeUntilEvent();
                 if (logger.isDebugEnabled() && instructionResult.isExecutionFinished()) {
                     logger.debug("Int code computer: HALT operation received!! Execution finished!!");
                 }
 
                 finished = updateResult(instructionResult, result);
             } catch (ExecutionException | NoMoreInputValuesException e) {
-                throw new IntComputerException("Error executing int computer code", e);
+                throw executionError(e);
             }
         } while (!finished);
 
         return result.build();
     }
 
+    /**
+     * Runs the code until it halts or needs an input value that isn't available, reading the input values from the
+     * source once the ones added are consumed. The feedback loop and ask for input modes don't apply here.
+     */
+    public ExecutionResult.ResultType run(InputSource inputSource, OutputSink outputSink) throws IntComputerException {
+        try {
+            return instructionExecutor.run(inputRecorder != null ? recording(inputSource) : inputSource, outputSink)
+                    ? ExecutionResult.ResultType.EXECUTION_FINISHED
+                    : ExecutionResult.ResultType.INPUT_NEEDED;
+        } catch (ExecutionException e) {
+            throw executionError(e);
+        }
+    }
+
+    /**
+     * @return the reason why the execution stopped, or null if the quantum of maxSteps steps was used up
+     */
+    ExecutionResult.ResultType runSlice(InputSource inputSource, OutputSink outputSink, long maxSteps) throws IntComputerException {
+        try {
+            return instructionExecutor.runSlice(inputRecorder != null ? recording(inputSource) : inputSource, outputSink, maxSteps);
+        } catch (ExecutionException e) {
+            throw executionError(e);
+        }
+    }
+
+    ExecutionResult.ResultType runUntilOutputs(InputSource inputSource, OutputSink outputSink, long maxOutputs) throws IntComputerException {
+        try {
+            return instructionExecutor.runUntilOutputs(inputRecorder != null ? recording(inputSource) : inputSource, outputSink, maxOutputs);
+        } catch (ExecutionException e) {
+            throw executionError(e);
+        }
+    }
+
+    /**
+     * Runs the code until it gives numOutputs output values, halts or needs an input value that isn't available,
+     * leaving the output values in the frame (cleared first).
+     */
+    public OutputFrame executeUntilOutputs(OutputFrame frame, int numOutputs) throws IntComputerException {
+        try {
+            instructionExecutor.executeUntilOutputs(frame, numOutputs);
+            return frame;
+        } catch (ExecutionException e) {
+            throw executionError(e);
+        }
+    }
+
+    public OutputFrame executeUntilInputNeeded(OutputFrame frame) throws IntComputerException {
+        try {
+            instructionExecutor.executeUntilInputNeeded(frame);
+            return frame;
+        } catch (ExecutionException e) {
+            throw executionError(e);
+        }
+    }
+
+    /**
+     * @throws InputQueueFullException if the computer was built with an input capacity and it's reached
+     */
     public void addInputValue(long inputValue) {
         this.instructionExecutor.addInputValue(inputValue);
+        if (inputRecorder != null)
+            inputRecorder.record(inputValue);
+    }
+
+    /**
+     * Adds all the values, or none of them if there isn't room enough for all.
+     */
+    public void addInputValues(long... inputValues) {
+        this.instructionExecutor.addInputValues(inputValues);
+        if (inputRecorder != null)
+            inputRecorder.record(inputValues);
+    }
+
+    /**
+     * @return false if the computer was built with an input capacity and it's reached
+     */
+    public boolean offerInputValue(long inputValue) {
+        final boolean added = this.instructionExecutor.offerInputValue(inputValue);
+        if (added && inputRecorder != null)
+            inputRecorder.record(inputValue);
+        return added;
+    }
+
+    public int getRemainingInputCapacity() {
+        return this.instructionExecutor.getRemainingInputCapacity();
+    }
+
+    /**
+     * Creates an independent computer with the same state as this one. The memory is shared copy on write, and the
+     * input values of the fork aren't recorded.
+     */
+    public IntCodeComputer fork() {
+        return new IntCodeComputer(instructionExecutor.fork(), configuration, null);
+    }
+
+    void decodeProgram() {
+        instructionExecutor.decodeProgram();
+    }
+
+    void patchMemory(int position, long value) throws IntComputerException {
+        try {
+            instructionExecutor.code.setLongValue(value, position);
+        } catch (InvalidPositionException e) {
+            throw new IntComputerException("Error patching the int computer memory", e);
+        }
+    }
+
+    BigInteger getMemoryValue(int position) {
+        return instructionExecutor.code.getCellValue(position);
     }
 
     public List<BigInteger> getMemorySnapshot() {
         return instructionExecutor.getMemorySnapshot();
     }
 
+    public Optional<ExecutionTrace> getExecutionTrace() {
+        return instructionExecutor.getExecutionTrace();
+    }
+
+    /**
+     * @return the execution metrics of the computer, which start from 0 for a fork
+     */
+    public IntCodeMetrics getMetrics() {
+        return metrics;
+    }
+
+    MachineState captureState() {
+        return MachineState.capture(instructionExecutor, configuration);
+    }
+
+    private InputSource recording(InputSource inputSource) {
+        return new InputSource() {
+            @Override
+            public boolean hasInput() {
+                return inputSource.hasInput();
+            }
+
+            @Override
+            public long nextInput() {
+                final long value = inputSource.nextInput();
+                inputRecorder.record(value);
+                return value;
+            }
+        };
+    }
+
+    private IntComputerException executionError(Exception cause) {
+        flushInputRecorder();
+        Optional<ExecutionTrace> trace = instructionExecutor.getExecutionTrace();
+        if (trace.isEmpty())
+            return new IntComputerException("Error executing int computer code", cause);
+
+        String dump = trace.get().dump();
+        logger.error("Error executing int computer code. Last instructions executed:{}{}", System.lineSeparator(), dump);
+        return new IntComputerException("Error executing int computer code", cause, dump);
+    }
+
+    private void flushInputRecorder() {
+        if (inputRecorder == null)
+            return;
+
+        try {
+            inputRecorder.flush();
+        } catch (IOException e) {
+            logger.warn("Unable to flush the input log {}: {}", inputRecorder.getFile(), e.toString());
+        }
+    }
+
     private boolean updateResult(Instruction.InstructionResult instructionResult, ExecutionResult.Builder result) throws NoMoreInputValuesException {
         switch (instructionResult.getResultType()) {
             case EXECUTION_FINISHED -> {
@@ -91,6 +261,7 @@ public class IntCodeComputer {
         private InstructionExecutor.Builder instructionExecutorBuilder;
         private List<Long> input = new ArrayList<>();
         private Configuration.Builder configurationBuilder = Configuration.Builder.createConfiguration();
+        private InputRecorder inputRecorder;
 
         private Builder(InstructionExecutor.Builder instructionExecutorBuilder) {
             this.instructionExecutorBuilder = instructionExecutorBuilder;
@@ -104,11 +275,31 @@ public class IntCodeComputer {
             return new Builder(createInstructionExecutor(code));
         }
 
+        /**
+         * Creates a computer going on from the last checkpoint saved in the file. Profilers and execution traces aren't
+         * saved in the checkpoints.
+         */
+        public static Builder restoreIntCodeComputer(Path checkpointFile) throws IOException {
+            MachineState state = CheckpointFile.read(checkpointFile);
+
+            Builder builder = new Builder(InstructionExecutor.Builder.restoreInstructionExecutor(state));
+            for (long value : state.getPendingInput())
+                builder.withInputValue(value);
+            return builder
+                    .withFeedbackLoopMode(state.isFeedbackLoopMode())
+                    .withAskForInputMode(state.isAskForInputMode());
+        }
+
         public Builder withInputValue(long value) {
             input.add(value);
             return this;
         }
 
+        public Builder withInputCapacity(int inputCapacity) {
+            instructionExecutorBuilder.withInputCapacity(inputCapacity);
+            return this;
+        }
+
         public Builder withFeedbackLoopMode() {
             configurationBuilder.withFeedBackLoopMode();
             return this;
@@ -143,12 +334,60 @@ public class IntCodeComputer {
             return this;
         }
 
+        public Builder withMemoryPageSize(int pageSize) {
+            instructionExecutorBuilder.withMemoryPageSize(pageSize);
+            return this;
+        }
+
+        public Builder withMemoryMaxSize(int maxSize) {
+            instructionExecutorBuilder.withMemoryMaxSize(maxSize);
+            return this;
+        }
+
+        public Builder withUnboundedMemory() {
+            instructionExecutorBuilder.withUnboundedMemory();
+            return this;
+        }
+
+        public Builder withEngine(ExecutionEngine engine) {
+            instructionExecutorBuilder.withEngine(engine);
+            return this;
+        }
+
+        /**
+         * The code is interpreted one instruction at a time as long as there's a profiler, whatever the engine chosen.
+         */
+        public Builder withProfiler(IntCodeProfiler profiler) {
+            instructionExecutorBuilder.withProfiler(profiler);
+            return this;
+        }
+
+        /**
+         * Keeps the last size instructions executed, dumped in the exception thrown when the execution fails. The code
+         * is interpreted one instruction at a time then, whatever the engine chosen.
+         */
+        public Builder withExecutionTrace(int size) {
+            instructionExecutorBuilder.withExecutionTrace(size);
+            return this;
+        }
+
+        /**
+         * Records every input value fed to the computer, to replay the session later with {@link InputReplay}. The
+         * recorder isn't closed by the computer.
+         */
+        public Builder withInputRecorder(InputRecorder inputRecorder) {
+            this.inputRecorder = inputRecorder;
+            return this;
+        }
+
         public IntCodeComputer build() {
             InstructionExecutor instructionExecutor = instructionExecutorBuilder
                     .startWithPosition(0)
                     .withInput(input)
                     .build();
-            return new IntCodeComputer(instructionExecutor, configurationBuilder.build());
+            if (inputRecorder != null)
+                input.forEach(inputRecorder::record);
+            return new IntCodeComputer(instructionExecutor, configurationBuilder.build(), inputRecorder);
         }
     }
 
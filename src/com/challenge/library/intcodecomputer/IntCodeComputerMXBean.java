@@ -0,0 +1,21 @@
+package com.challenge.library.intcodecomputer;
+
+public interface IntCodeComputerMXBean {
+    String getEngine();
+
+    long getInstructionsExecuted();
+
+    /**
+     * @return the instructions per second over the last one or two seconds while the metrics are registered, or since
+     * they were created otherwise
+     */
+    double getInstructionsPerSecond();
+
+    long getOutputCount();
+
+    long getInputStarvationCount();
+
+    int getMemoryHighWaterMark();
+
+    long getAutoExpandCount();
+}
@@ -1,49 +1,67 @@
 package com.challenge.library.intcodecomputer;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
+import java.util.Optional;
 
 public class IntCodeLoader {
-    private static IntCodeLoader instance = new IntCodeLoader();
+    // Directory of the ProgramCache of getInstance(). If it's not set, the programs are parsed every time
+    public static final String CACHE_DIRECTORY_PROPERTY = "intcode.cacheDirectory";
 
-    private IntCodeLoader() {}
+    private static IntCodeLoader instance = createDefaultInstance();
 
-    public static IntCodeLoader getInstance() { return instance; }
+    private final ProgramCache cache;
 
-    public long[] loadIntCodeFromFile(Path basePath, String fileName) throws IOException {
+    private IntCodeLoader(ProgramCache cache) {
+        this.cache = cache;
+    }
 
-        Path filePath = basePath.resolve(Paths.get(fileName));
+    public static IntCodeLoader getInstance() { return instance; }
 
-        String line;
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(filePath.toFile()))) {
-            line = bufferedReader.readLine();
-        }
+    /**
+     * @return a loader keeping the parsed programs in a {@link ProgramCache} in the given directory
+     */
+    public static IntCodeLoader getCachedInstance(Path cacheDirectory) {
+        return new IntCodeLoader(new ProgramCache(cacheDirectory));
+    }
 
-        String[] strCode = line.split(",");
-        long[] intCode = new long[strCode.length];
+    static IntCodeLoader getCachedInstance(Path cacheDirectory, int minProgramSize) {
+        return new IntCodeLoader(new ProgramCache(cacheDirectory, minProgramSize));
+    }
 
-        for (int i = 0; i < strCode.length; i++) {
-            intCode[i] = Long.parseLong(strCode[i]);
-        }
+    private static IntCodeLoader createDefaultInstance() {
+        String cacheDirectory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+        return new IntCodeLoader(cacheDirectory != null ? new ProgramCache(Paths.get(cacheDirectory)) : null);
+    }
 
-        return intCode;
+    public long[] loadIntCodeFromFile(Path basePath, String fileName) throws IOException {
+        return loadCode(basePath.resolve(Paths.get(fileName))).toLongs();
     }
 
     public BigInteger[] loadBigIntCodeFromFile(Path basePath, String fileName) throws IOException {
+        return loadCode(basePath.resolve(Paths.get(fileName))).toBigIntegers();
+    }
+
+    private IntCodeParser.ParsedCode loadCode(Path filePath) throws IOException {
+        if (cache == null)
+            return IntCodeParser.parse(filePath);
+
+        byte[] programText = Files.readAllBytes(filePath);
+        if (!cache.isWorthCaching(programText.length))
+            return IntCodeParser.parse(ByteBuffer.wrap(programText));
 
-        Path filePath = basePath.resolve(Paths.get(fileName));
+        String key = ProgramCache.getKey(programText);
 
-        String line;
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(filePath.toFile()))) {
-            line = bufferedReader.readLine();
-        }
+        Optional<IntCodeParser.ParsedCode> cachedCode = cache.get(key);
+        if (cachedCode.isPresent())
+            return cachedCode.get();
 
-        String[] strCode = line.split(",");
-        return Arrays.stream(strCode).map(BigInteger::new).toArray(BigInteger[]::new);
+        IntCodeParser.ParsedCode code = IntCodeParser.parse(ByteBuffer.wrap(programText));
+        cache.put(key, code);
+        return code;
     }
 }
@@ -4,57 +4,280 @@ import com.challenge.library.intcodecomputer.exception.*;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.challenge.library.intcodecomputer.Instruction.Builder.createInstruction;
 import static com.challenge.library.utils.NumberUtils.convertToInt;
 import static java.util.Objects.requireNonNull;
 import static org.apache.commons.lang3.ArrayUtils.isEmpty;
 
+/**
+ * Memory of the int code computer. The cells are primitive longs: the few values that don't fit in a long are kept as
+ * BigIntegers, behind the {@link #PROMOTED_CELL} marker. The cells from position 0 are kept in chunks, the far
+ * positions in pages only allocated when written, and a {@link #fork()} shares both until they're written (copy on
+ * write).
+ */
 public class IntCodeMemory {
-    private int MAX_MEMORY_SIZE = 1_000_000;
-
-    private final List<BigInteger> memory;
+    // Marker of the cells whose value is kept as a BigInteger (Long.MIN_VALUE itself is stored promoted)
+    static final long PROMOTED_CELL = Long.MIN_VALUE;
+
+    static final int DEFAULT_PAGE_SIZE = 1024;
+    static final int DEFAULT_MAX_SIZE = 1_000_000;
+
+    static final int UNBOUNDED_SIZE = Integer.MAX_VALUE;
+
+    // Operation + 3 parameters
+    private static final int MAX_INSTRUCTION_SIZE = 4;
+
+    // Token of this memory, compared to the owner of the chunks, pages and tables to know if they can be written in
+    // place. A new one is given to both memories when forking, so they share everything they had
+    private Object owner = new Object();
+    // Dense part: chunk i holds the cells from i * page size, up to denseLength
+    private long[][] chunks;
+    private Object[] chunkOwners;
+    private Object chunkTableOwner;
+    private int denseLength;
+    private IntObjectMap<Page> pages = new IntObjectMap<>();
+    private Object pagesOwner = owner;
+    private final int pageShift;
+    private final int pageMask;
+    private final int maxSize;
+    private int size;
+    private Map<Integer, BigInteger> promotedCells;
+    private Object promotedCellsOwner = owner;
+    // Decoded instructions of the dense part, by chunk (null until any instruction of the chunk is decoded)
+    private Instruction[][] decodedChunks;
+    private Object[] decodedChunkOwners;
+    private Object decodedTableOwner = owner;
+    private boolean[] watchedCells;
+    private CodeWriteListener codeWriteListener;
     private int currentPos;
     private int previousPos;
-    private BigInteger relativeBaseOffset = BigInteger.ZERO;
+    private long relativeBaseOffset;
     private final boolean autoExpand;
+    // Times the memory has been expanded to reach a position past its end
+    private long numAutoExpansions;
 
     public IntCodeMemory(List<BigInteger> memory, int startingPos, boolean autoExpand) {
-        this.memory = memory;
+        this(new long[memory.size()], memory.size(), DEFAULT_PAGE_SIZE, Math.max(memory.size(), DEFAULT_MAX_SIZE), new HashMap<>(), startingPos, autoExpand);
+        for (int i = 0; i < size; i++)
+            storeValue(memory.get(i), i);
+    }
+
+    private IntCodeMemory(long[] memory, int size, int pageSize, int maxSize, Map<Integer, BigInteger> promotedCells, int startingPos, boolean autoExpand) {
+        this.size = size;
+        this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+        this.pageMask = pageSize - 1;
+        this.denseLength = memory.length;
+        this.chunks = new long[getNumChunks(memory.length)][];
+        this.chunkOwners = new Object[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = Arrays.copyOfRange(memory, i << pageShift, (i << pageShift) + pageSize);
+            chunkOwners[i] = owner;
+        }
+        this.chunkTableOwner = owner;
+        this.decodedChunks = new Instruction[chunks.length][];
+        this.decodedChunkOwners = new Object[chunks.length];
+        this.maxSize = maxSize;
+        this.promotedCells = promotedCells;
         this.currentPos = startingPos;
         this.previousPos = startingPos;
         this.autoExpand = autoExpand;
     }
 
+    // Shares everything with the other memory, which gets a new owner token too, so whichever writes first copies
+    private IntCodeMemory(IntCodeMemory other) {
+        this.chunks = other.chunks;
+        this.chunkOwners = other.chunkOwners;
+        this.chunkTableOwner = other.chunkTableOwner;
+        this.denseLength = other.denseLength;
+        this.pages = other.pages;
+        this.pagesOwner = other.pagesOwner;
+        this.decodedChunks = other.decodedChunks;
+        this.decodedChunkOwners = other.decodedChunkOwners;
+        this.decodedTableOwner = other.decodedTableOwner;
+        this.size = other.size;
+        this.pageShift = other.pageShift;
+        this.pageMask = other.pageMask;
+        this.maxSize = other.maxSize;
+        this.promotedCells = other.promotedCells;
+        this.promotedCellsOwner = other.promotedCellsOwner;
+        this.currentPos = other.currentPos;
+        this.previousPos = other.previousPos;
+        this.relativeBaseOffset = other.relativeBaseOffset;
+        this.autoExpand = other.autoExpand;
+
+        other.owner = new Object();
+    }
+
+    /**
+     * Creates an independent copy of this memory, copying the cells lazily a chunk or page at a time. Code write
+     * listeners are not copied.
+     */
+    public IntCodeMemory fork() {
+        return new IntCodeMemory(this);
+    }
+
     public Instruction readInstruction() throws InvalidInstructionException, EndOfCodeException {
-        if (currentPos >= memory.size())
-            throw new EndOfCodeException(currentPos, memory.size());
+        return readInstruction(false);
+    }
+
+    /**
+     * Like {@link #readInstruction()}, but returns the superinstruction fusing the instruction with the following one
+     * when they can be fused.
+     */
+    Instruction readFusedInstruction() throws InvalidInstructionException, EndOfCodeException {
+        return readInstruction(true);
+    }
+
+    private Instruction readInstruction(boolean fused) throws InvalidInstructionException, EndOfCodeException {
+        if (currentPos >= size)
+            throw new EndOfCodeException(currentPos, size);
+
+        Instruction instruction = decodedInstructionAt(currentPos);
+        if (instruction == null) {
+            instruction = decodeInstruction(currentPos);
+            if (isCacheable(currentPos)) {
+                cacheDecodedInstruction(currentPos, instruction);
+                if (Instruction.canStartFusion(instruction))
+                    instruction = fuseWithNextInstruction(instruction);
+            }
+        }
+        if (!fused)
+            instruction = instruction.getFirstInstruction();
+
+        previousPos = currentPos;
+        currentPos = instruction.getNextInstructionPosition();
+        return instruction;
+    }
 
-        int intInstruction = getIntValueFromInstruction(memory.get(currentPos));
+    private Instruction decodeInstruction(int position) throws InvalidInstructionException {
+        int intInstruction = getIntValueFromInstruction(position);
 
         try {
-            Instruction.Builder builder = createInstruction(intInstruction, currentPos);
+            Instruction.Builder builder = createInstruction(intInstruction, position);
             int numParams = builder.getNumParameters();
             if (numParams > 0) {
-                if (currentPos + numParams >= memory.size())
-                    throw new InvalidInstructionException(intInstruction, currentPos,
-                            String.format("Instruction needs %d parameters, but only %d were found in the code", numParams, memory.size() - currentPos - 1));
+                if (position + numParams >= size)
+                    throw new InvalidInstructionException(intInstruction, position,
+                            String.format("Instruction needs %d parameters, but only %d were found in the code", numParams, size - position - 1));
 
                 BigInteger[] params = new BigInteger[numParams];
                 for (int i = 0; i < numParams; i++)
-                    params[i] = memory.get(currentPos+i+1);
+                    params[i] = valueAt(position+i+1);
 
                 builder = builder.withParameters(params);
             }
 
-            Instruction instruction = builder.build();
-            previousPos = currentPos;
-            currentPos = instruction.getNextInstructionPosition();
-            return instruction;
+            return builder.build();
         } catch (InvalidOperationException | InvalidParameterModesException e) {
-            throw new InvalidInstructionException(intInstruction, currentPos, e);
+            throw new InvalidInstructionException(intInstruction, position, e);
+        }
+    }
+
+    private Instruction fuseWithNextInstruction(Instruction first) {
+        final int nextPos = first.getNextInstructionPosition();
+        if (nextPos >= size || !isCacheable(nextPos))
+            return first;
+
+        Instruction second = decodedInstructionAt(nextPos);
+        if (second == null) {
+            try {
+                second = decodeInstruction(nextPos);
+            } catch (InvalidInstructionException e) {
+                // Not fused: the error is reported if the program gets to execute it
+                return first;
+            }
+            cacheDecodedInstruction(nextPos, second);
+        }
+
+        final Instruction fused = Instruction.fuse(first, second);
+        if (fused == null)
+            return first;
+
+        cacheDecodedInstruction(first.position, fused);
+        return fused;
+    }
+
+    /**
+     * Decodes the instructions at the given positions in advance, so all the forks share them. Invalid instructions are
+     * skipped.
+     */
+    void decodeInstructions(int[] positions) {
+        for (int position : positions) {
+            if (position >= size || !isCacheable(position) || decodedInstructionAt(position) != null)
+                continue;
+
+            try {
+                Instruction instruction = decodeInstruction(position);
+                cacheDecodedInstruction(position, instruction);
+                if (Instruction.canStartFusion(instruction))
+                    fuseWithNextInstruction(instruction);
+            } catch (InvalidInstructionException e) {
+                // Data, or code not reachable
+            }
+        }
+    }
+
+    /**
+     * @return true if none of the cells of the instruction has been written since it was decoded
+     */
+    boolean isDecodedInstruction(int position, Instruction instruction) {
+        return decodedInstructionAt(position) == instruction;
+    }
+
+    void discardFusedInstruction(Instruction fused, int secondPosition) {
+        if (isDecodedInstruction(fused.position, fused))
+            writableDecodedChunk(fused.position >>> pageShift)[fused.position & pageMask] = null;
+
+        previousPos = fused.position;
+        currentPos = secondPosition;
+    }
+
+    // Only the dense part is cached, so code running far in the paged part doesn't allocate a cache as big as its
+    // position
+    private boolean isCacheable(int position) {
+        return position < denseLength;
+    }
+
+    private Instruction decodedInstructionAt(int position) {
+        if (position >= denseLength)
+            return null;
+
+        final Instruction[] chunk = decodedChunks[position >>> pageShift];
+        return chunk == null ? null : chunk[position & pageMask];
+    }
+
+    private void cacheDecodedInstruction(int position, Instruction instruction) {
+        writableDecodedChunk(position >>> pageShift)[position & pageMask] = instruction;
+    }
+
+    private Instruction[] writableDecodedChunk(int chunkIndex) {
+        Instruction[] chunk = decodedChunks[chunkIndex];
+        if (chunk == null || decodedChunkOwners[chunkIndex] != owner) {
+            if (decodedTableOwner != owner) {
+                decodedChunks = decodedChunks.clone();
+                decodedChunkOwners = decodedChunkOwners.clone();
+                decodedTableOwner = owner;
+            }
+            chunk = chunk == null ? new Instruction[pageMask + 1] : chunk.clone();
+            decodedChunks[chunkIndex] = chunk;
+            decodedChunkOwners[chunkIndex] = owner;
+        }
+
+        return chunk;
+    }
+
+    private void invalidateDecodedInstructions(int position) {
+        final int first = Math.max(0, position - MAX_INSTRUCTION_SIZE + 1);
+        final int last = Math.min(position, denseLength - 1);
+        for (int i = first; i <= last; i++) {
+            final Instruction instruction = decodedInstructionAt(i);
+            if (instruction != null && instruction.getNextInstructionPosition() > position)
+                writableDecodedChunk(i >>> pageShift)[i & pageMask] = null;
         }
     }
 
@@ -63,65 +286,415 @@ public class IntCodeMemory {
     }
 
     public BigInteger getValue(BigInteger position) throws InvalidPositionException {
-        return memory.get(convertMemoryPositionToIntAndCheck(position));
+        return valueAt(convertMemoryPositionToIntAndCheck(position));
     }
 
     public void setValue(BigInteger value, BigInteger position) throws InvalidPositionException {
-        memory.set(convertMemoryPositionToIntAndCheck(position), value);
+        storeValue(value, convertMemoryPositionToIntAndCheck(position));
+    }
+
+    /**
+     * @return the value at the position, or {@link #PROMOTED_CELL} if it doesn't fit in a long
+     */
+    public long getLongValue(long position) throws InvalidPositionException {
+        return cellAt(convertMemoryPositionToIntAndCheck(position));
+    }
+
+    public void setLongValue(long value, long position) throws InvalidPositionException {
+        storeLongValue(value, convertMemoryPositionToIntAndCheck(position));
     }
 
     public void setCurrentPos(BigInteger newPosition) throws InvalidPositionException {
         this.currentPos = getIntValueFromPosition(newPosition);
     }
 
+    public void setCurrentPos(long newPosition) throws InvalidPositionException {
+        this.currentPos = getIntValueFromPosition(newPosition);
+    }
+
     public BigInteger getRelativeBaseOffset() {
+        return BigInteger.valueOf(relativeBaseOffset);
+    }
+
+    public long getLongRelativeBaseOffset() {
         return relativeBaseOffset;
     }
 
-    public void incrementRelativeBaseOffset(BigInteger increment) {
-        relativeBaseOffset = relativeBaseOffset.add(increment);
+    public void incrementRelativeBaseOffset(BigInteger increment) throws InvalidPositionException {
+        if (increment.bitLength() >= Long.SIZE)
+            throw new InvalidPositionException(String.format("Relative base offset increment out of range (%s)", increment));
+
+        incrementRelativeBaseOffset(increment.longValue());
+    }
+
+    public void incrementRelativeBaseOffset(long increment) throws InvalidPositionException {
+        try {
+            relativeBaseOffset = Math.addExact(relativeBaseOffset, increment);
+        } catch (ArithmeticException e) {
+            throw new InvalidPositionException(String.format("Relative base offset out of range (%d + %d)", relativeBaseOffset, increment));
+        }
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    BigInteger getCellValue(int position) {
+        if (position < 0 || position >= size)
+            throw new IndexOutOfBoundsException(String.format("Position %d out of the memory (size %d)", position, size));
+
+        return valueAt(position);
+    }
+
+    long getNumAutoExpansions() {
+        return numAutoExpansions;
+    }
+
+    /**
+     * @return a copy of the cells, with {@link #PROMOTED_CELL} in the ones holding values that don't fit in a long
+     */
+    long[] getCells() {
+        long[] cells = new long[size];
+        pages.forEach((pageIndex, page) -> {
+            final int first = pageIndex << pageShift;
+            if (first < size)
+                System.arraycopy(page.cells, 0, cells, first, Math.min(page.cells.length, size - first));
+        });
+        copyDenseCells(cells, Math.min(denseLength, size));
+
+        return cells;
+    }
+
+    long[] getDenseCells() {
+        long[] cells = new long[Math.min(denseLength, size)];
+        copyDenseCells(cells, cells.length);
+        return cells;
+    }
+
+    private void copyDenseCells(long[] cells, int length) {
+        for (int i = 0; i < chunks.length && i << pageShift < length; i++) {
+            final int first = i << pageShift;
+            System.arraycopy(chunks[i], 0, cells, first, Math.min(chunks[i].length, length - first));
+        }
+    }
+
+    int getNumOwnedChunks() {
+        int numOwnedChunks = 0;
+        for (Object chunkOwner : chunkOwners)
+            if (chunkOwner == owner)
+                numOwnedChunks++;
+
+        return numOwnedChunks;
+    }
+
+    int getNumMappedPages() {
+        return pages.size();
+    }
+
+    int getCurrentPos() {
+        return currentPos;
+    }
+
+    int getPreviousPos() {
+        return previousPos;
+    }
+
+    int getPageSize() {
+        return pageMask + 1;
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    boolean isAutoExpand() {
+        return autoExpand;
+    }
+
+    int getDenseLength() {
+        return denseLength;
+    }
+
+    int[] getMappedPageIndexes() {
+        return pages.keys();
+    }
+
+    Map<Integer, BigInteger> getPromotedCells() {
+        return new HashMap<>(promotedCells);
+    }
+
+    private void restore(MachineState state) {
+        state.getPages().forEach((pageIndex, cells) -> {
+            final long first = (long) pageIndex * cells.length;
+            for (int i = 0; i < cells.length && first + i < size; i++) {
+                if (cells[i] != 0)
+                    setCell((int) (first + i), cells[i]);
+            }
+        });
+        setPositions(state.getCurrentPos(), state.getPreviousPos());
+        setRelativeBaseOffset(state.getRelativeBase());
+    }
+
+    /**
+     * Copies the cells from the given position to the buffer, with zeros past the end of the memory.
+     */
+    void readCells(int from, long[] buffer) {
+        for (int i = 0; i < buffer.length; i++) {
+            final long position = (long) from + i;
+            buffer[i] = position < size ? cellAt((int) position) : 0L;
+        }
+    }
+
+    void setPositions(int currentPos, int previousPos) {
+        this.currentPos = currentPos;
+        this.previousPos = previousPos;
+    }
+
+    void setRelativeBaseOffset(long relativeBaseOffset) {
+        this.relativeBaseOffset = relativeBaseOffset;
+    }
+
+    void watchCodeWrites(boolean[] watchedCells, CodeWriteListener codeWriteListener) {
+        this.watchedCells = watchedCells;
+        this.codeWriteListener = codeWriteListener;
+    }
+
+    boolean isWatchedCell(long position) {
+        return watchedCells != null && position >= 0 && position < watchedCells.length && watchedCells[(int) position];
+    }
+
+    /**
+     * Unchecked read for the execution engines: {@link #PROMOTED_CELL} if the position is out of the memory or the
+     * value doesn't fit in a long, and the caller must take the checked path.
+     */
+    long readCell(long position) {
+        return position >= 0 && position < size ? cellAt((int) position) : PROMOTED_CELL;
+    }
+
+    /**
+     * Unchecked write for the execution engines: false, without changing the memory, if the position is out of the
+     * memory or the value doesn't fit in a long, and the caller must take the checked path.
+     */
+    boolean writeCell(long position, long value) {
+        if (position < 0 || position >= size || value == PROMOTED_CELL)
+            return false;
+
+        final int intPosition = (int) position;
+        if (intPosition < denseLength) {
+            // Fast path: an owned chunk, with no promoted value nor watched cell to deal with
+            final int chunkIndex = intPosition >>> pageShift;
+            final long[] chunk = chunks[chunkIndex];
+            final int offset = intPosition & pageMask;
+            if (chunkOwners[chunkIndex] == owner && chunk[offset] != PROMOTED_CELL && !isWatchedCell(intPosition)) {
+                chunk[offset] = value;
+                if (decodedChunks[chunkIndex] != null || (offset < MAX_INSTRUCTION_SIZE - 1 && chunkIndex > 0))
+                    invalidateDecodedInstructions(intPosition);
+                return true;
+            }
+        }
+
+        storeLongValue(value, intPosition);
+        return true;
     }
 
     public List<BigInteger> getSnapshot() {
-        return new ArrayList<>(memory);
+        List<BigInteger> snapshot = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            snapshot.add(valueAt(i));
+
+        return snapshot;
+    }
+
+    private long cellAt(int position) {
+        return position < denseLength ? chunks[position >>> pageShift][position & pageMask] : pagedCellAt(position);
+    }
+
+    private long pagedCellAt(int position) {
+        final Page page = pages.get(position >>> pageShift);
+        return page == null ? 0L : page.cells[position & pageMask];
+    }
+
+    private void setCell(int position, long value) {
+        if (position < denseLength)
+            writableChunk(position >>> pageShift)[position & pageMask] = value;
+        else
+            setPagedCell(position, value);
+    }
+
+    private void setPagedCell(int position, long value) {
+        if (position < 2L * denseLength) {
+            growDenseMemory(position);
+            writableChunk(position >>> pageShift)[position & pageMask] = value;
+        } else {
+            final int pageIndex = position >>> pageShift;
+            Page page = pages.get(pageIndex);
+            if (page == null || page.owner != owner) {
+                if (page == null && value == 0)
+                    return;
+
+                page = new Page(page == null ? new long[pageMask + 1] : page.cells.clone(), owner);
+                writablePages().put(pageIndex, page);
+            }
+            page.cells[position & pageMask] = value;
+        }
+    }
+
+    private void growDenseMemory(int position) {
+        final int oldLength = denseLength;
+        final int oldNumChunks = chunks.length;
+        denseLength = (int) Math.min(Math.max(position + 1L, oldLength * 2L), maxSize);
+
+        final int numChunks = getNumChunks(denseLength);
+        if (numChunks > oldNumChunks) {
+            chunks = Arrays.copyOf(chunks, numChunks);
+            chunkOwners = Arrays.copyOf(chunkOwners, numChunks);
+            chunkTableOwner = owner;
+            for (int i = oldNumChunks; i < numChunks; i++) {
+                chunks[i] = new long[pageMask + 1];
+                chunkOwners[i] = owner;
+            }
+
+            decodedChunks = Arrays.copyOf(decodedChunks, numChunks);
+            decodedChunkOwners = Arrays.copyOf(decodedChunkOwners, numChunks);
+            decodedTableOwner = owner;
+        }
+
+        // Pages and chunks are aligned, so the page of a position has the same index as its chunk
+        for (int pageIndex = oldLength >>> pageShift; pageIndex < numChunks && !pages.isEmpty(); pageIndex++) {
+            final Page page = pages.get(pageIndex);
+            if (page == null)
+                continue;
+
+            final int first = pageIndex << pageShift;
+            final int from = Math.max(first, oldLength);
+            final int to = (int) Math.min(first + (long) page.cells.length, denseLength);
+            System.arraycopy(page.cells, from - first, writableChunk(pageIndex), from - first, to - from);
+
+            if (first + (long) page.cells.length <= denseLength)
+                writablePages().remove(pageIndex);
+        }
+    }
+
+    private int getNumChunks(int length) {
+        return (int) ((length + (long) pageMask) >>> pageShift);
+    }
+
+    private long[] writableChunk(int chunkIndex) {
+        if (chunkOwners[chunkIndex] != owner) {
+            if (chunkTableOwner != owner) {
+                chunks = chunks.clone();
+                chunkOwners = chunkOwners.clone();
+                chunkTableOwner = owner;
+            }
+            chunks[chunkIndex] = chunks[chunkIndex].clone();
+            chunkOwners[chunkIndex] = owner;
+        }
+
+        return chunks[chunkIndex];
+    }
+
+    private IntObjectMap<Page> writablePages() {
+        if (pagesOwner != owner) {
+            pages = pages.copy();
+            pagesOwner = owner;
+        }
+
+        return pages;
+    }
+
+    private Map<Integer, BigInteger> writablePromotedCells() {
+        if (promotedCellsOwner != owner) {
+            promotedCells = new HashMap<>(promotedCells);
+            promotedCellsOwner = owner;
+        }
+
+        return promotedCells;
+    }
+
+    private BigInteger valueAt(int position) {
+        final long value = cellAt(position);
+        return value == PROMOTED_CELL ? promotedCells.get(position) : BigInteger.valueOf(value);
+    }
+
+    private void storeValue(BigInteger value, int position) {
+        if (value.bitLength() < Long.SIZE && value.longValue() != PROMOTED_CELL) {
+            storeLongValue(value.longValue(), position);
+        } else {
+            setCell(position, PROMOTED_CELL);
+            writablePromotedCells().put(position, value);
+            cellWritten(position);
+        }
+    }
+
+    private void storeLongValue(long value, int position) {
+        if (value == PROMOTED_CELL) {
+            storeValue(BigInteger.valueOf(value), position);
+            return;
+        }
+
+        if (position < denseLength) {
+            final long[] chunk = writableChunk(position >>> pageShift);
+            if (chunk[position & pageMask] == PROMOTED_CELL)
+                writablePromotedCells().remove(position);
+
+            chunk[position & pageMask] = value;
+        } else {
+            storePagedLongValue(value, position);
+        }
+
+        cellWritten(position);
+    }
+
+    private void storePagedLongValue(long value, int position) {
+        if (cellAt(position) == PROMOTED_CELL)
+            writablePromotedCells().remove(position);
+
+        setPagedCell(position, value);
+    }
+
+    private void cellWritten(int position) {
+        invalidateDecodedInstructions(position);
+        if (isWatchedCell(position))
+            codeWriteListener.codeWritten(position);
     }
 
     private int convertMemoryPositionToIntAndCheck(BigInteger position) throws InvalidPositionException {
-        final int intPosition = getIntValueFromPosition(position);
+        return checkMemoryPosition(getIntValueFromPosition(position));
+    }
 
-        if (intPosition >= memory.size()) {
+    private int convertMemoryPositionToIntAndCheck(long position) throws InvalidPositionException {
+        return checkMemoryPosition(getIntValueFromPosition(position));
+    }
+
+    private int checkMemoryPosition(int intPosition) throws InvalidPositionException {
+        if (intPosition >= size) {
             if (autoExpand)
                 try {
-                    autoExpandMemory(intPosition + 1);
+                    autoExpandMemory(intPosition);
                 } catch (MemoryExpandException e) {
-                    throw new InvalidPositionException("Attempting to store a value to an invalid position", intPosition, memory.size(), e);
+                    throw new InvalidPositionException("Attempting to store a value to an invalid position", intPosition, size, e);
                 }
             else
-                throw new InvalidPositionException("Attempting to store a value to an invalid position", intPosition, memory.size());
+                throw new InvalidPositionException("Attempting to store a value to an invalid position", intPosition, size);
         }
 
         return intPosition;
     }
 
-    private void autoExpandMemory(int newSize) throws MemoryExpandException {
-        if (newSize > MAX_MEMORY_SIZE)
-            throw new MemoryExpandException(newSize, MAX_MEMORY_SIZE);
+    private void autoExpandMemory(int position) throws MemoryExpandException {
+        if (position >= maxSize)
+            throw new MemoryExpandException(position == Integer.MAX_VALUE ? position : position + 1, maxSize);
 
-        final int currentSize = memory.size();
-        for (int i = currentSize; i < newSize; i++)
-            memory.add(BigInteger.ZERO);
-
-        assert(memory.size() == newSize);
+        size = position + 1;
+        numAutoExpansions++;
     }
 
-    private int getIntValueFromInstruction(BigInteger instruction) throws InvalidInstructionException {
-        int intInstruction = 0;
-        try {
-            intInstruction = convertToInt(instruction);
-        } catch (IllegalArgumentException e) {
-            throw new InvalidInstructionException(intInstruction, currentPos, e.getMessage());
-        }
+    private int getIntValueFromInstruction(int position) throws InvalidInstructionException {
+        final long instruction = cellAt(position);
+        if (instruction == PROMOTED_CELL || instruction > Integer.MAX_VALUE || instruction < Integer.MIN_VALUE)
+            throw new InvalidInstructionException(0, currentPos, String.format("Number %s is not a valid int value", valueAt(position)));
 
+        int intInstruction = (int) instruction;
         if (intInstruction < 0)
             throw new InvalidInstructionException(intInstruction, currentPos, "Instruction can't be a negative number");
 
@@ -136,6 +709,17 @@ public class IntCodeMemory {
             throw new InvalidPositionException(e.getMessage());
         }
 
+        return checkNotNegative(intPosition);
+    }
+
+    private int getIntValueFromPosition(long position) throws InvalidPositionException {
+        if (position > Integer.MAX_VALUE || position < Integer.MIN_VALUE)
+            throw new InvalidPositionException(String.format("Number %d is not a valid int value", position));
+
+        return checkNotNegative((int) position);
+    }
+
+    private int checkNotNegative(int intPosition) throws InvalidPositionException {
         if (intPosition < 0)
             throw new InvalidPositionException(intPosition, "A memory position can't be a negative value");
 
@@ -143,32 +727,71 @@ public class IntCodeMemory {
     }
 
 
+    interface CodeWriteListener {
+        void codeWritten(int position);
+    }
+
+    private static class Page {
+        private final long[] cells;
+        private final Object owner;
+
+        Page(long[] cells, Object owner) {
+            this.cells = cells;
+            this.owner = owner;
+        }
+    }
+
     public static class Builder {
-        private List<BigInteger> memory;
+        private long[] memory;
+        private int size;
+        private final Map<Integer, BigInteger> promotedCells = new HashMap<>();
         private int startingPos;
         private boolean autoExpand;
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private int maxSize = DEFAULT_MAX_SIZE;
+        private MachineState restoredState;
 
         public Builder(List<BigInteger> memory) {
+            this(new long[memory.size()]);
+            for (int i = 0; i < memory.size(); i++)
+                setInitialValue(memory.get(i), i);
+        }
+
+        private Builder(long[] memory) {
             this.memory = memory;
+            this.size = memory.length;
         }
 
         public static Builder createIntCodeMemory(long[] code) {
             checkCodeArray(code);
 
-            List<BigInteger> memory = new ArrayList<>();
-            for (long l : code)
-                memory.add(BigInteger.valueOf(l));
+            Builder builder = new Builder(code.clone());
+            for (int i = 0; i < code.length; i++)
+                if (code[i] == PROMOTED_CELL)
+                    builder.setInitialValue(BigInteger.valueOf(code[i]), i);
 
-            return new Builder(memory);
+            return builder;
         }
 
         public static Builder createIntCodeMemory(BigInteger[] code) {
             checkCodeArray(code);
 
-            List<BigInteger> memory = new ArrayList<>();
-            Collections.addAll(memory, code);
+            Builder builder = new Builder(new long[code.length]);
+            for (int i = 0; i < code.length; i++)
+                builder.setInitialValue(code[i], i);
 
-            return new Builder(memory);
+            return builder;
+        }
+
+        static Builder restoreIntCodeMemory(MachineState state) {
+            Builder builder = new Builder(new long[state.getDenseLength()]);
+            builder.size = state.getMemorySize();
+            builder.promotedCells.putAll(state.getPromotedCells());
+            builder.autoExpand = state.isMemoryAutoExpand();
+            builder.pageSize = state.getMemoryPageSize();
+            builder.maxSize = state.getMemoryMaxSize();
+            builder.restoredState = state;
+            return builder;
         }
 
         private static void checkCodeArray(long[] code) {
@@ -187,19 +810,26 @@ public class IntCodeMemory {
             }
         }
 
-        public Builder withInitialSize(int initialSize) {
-            for (int i = memory.size(); i < initialSize; i++)
-                memory.add(BigInteger.valueOf(0L));
+        private void setInitialValue(BigInteger value, int position) {
+            if (value.bitLength() < Long.SIZE && value.longValue() != PROMOTED_CELL) {
+                memory[position] = value.longValue();
+            } else {
+                memory[position] = PROMOTED_CELL;
+                promotedCells.put(position, value);
+            }
+        }
 
-            assert(memory.size() == initialSize);
+        public Builder withInitialSize(int initialSize) {
+            if (initialSize > size)
+                size = initialSize;
 
             return this;
         }
 
         public Builder withStartingPos(int startingPos) {
             if (startingPos != 0)
-                if (startingPos < 0 || startingPos >= memory.size())
-                    throw new IllegalArgumentException(String.format("The starting position (%d) must be within range [0, %d]", startingPos, memory.size()));
+                if (startingPos < 0 || startingPos >= size)
+                    throw new IllegalArgumentException(String.format("The starting position (%d) must be within range [0, %d]", startingPos, size));
 
             this.startingPos = startingPos;
             return this;
@@ -211,8 +841,39 @@ public class IntCodeMemory {
             return this;
         }
 
+        /**
+         * Sets the number of cells of each memory page (a power of 2).
+         */
+        public Builder withPageSize(int pageSize) {
+            if (pageSize <= 0 || Integer.bitCount(pageSize) != 1)
+                throw new IllegalArgumentException(String.format("The page size (%d) must be a power of 2", pageSize));
+
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public Builder withMaxSize(int maxSize) {
+            if (maxSize <= 0)
+                throw new IllegalArgumentException(String.format("The max size (%d) must be a positive number", maxSize));
+
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public Builder withUnboundedSize() {
+            this.maxSize = UNBOUNDED_SIZE;
+            return this;
+        }
+
         public IntCodeMemory build() {
-            return new IntCodeMemory(memory, startingPos, autoExpand);
+            if (size > maxSize)
+                throw new IllegalArgumentException(String.format("The memory size (%d) can't be greater than the max size (%d)", size, maxSize));
+
+            IntCodeMemory intCodeMemory = new IntCodeMemory(memory, size, pageSize, maxSize, promotedCells, startingPos, autoExpand);
+            if (restoredState != null)
+                intCodeMemory.restore(restoredState);
+
+            return intCodeMemory;
         }
     }
 }
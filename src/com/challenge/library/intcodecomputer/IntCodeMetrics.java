@@ -0,0 +1,133 @@
+package com.challenge.library.intcodecomputer;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execution metrics of an int code computer, which can be registered as an MXBean. The executor publishes its counters
+ * in opaque mode at every event, and the instructions at every taken jump, so the values read may be a little behind
+ * the execution. The instructions per second are measured against a sample taken every second while the metrics are
+ * registered.
+ */
+public class IntCodeMetrics implements IntCodeComputerMXBean, AutoCloseable {
+    public static final String DOMAIN = "com.challenge.library.intcodecomputer";
+    private static final long SAMPLE_PERIOD_MILLIS = 1000;
+
+    private final InstructionExecutor instructionExecutor;
+    // Sample the rate is measured against, the one before the newest one, so it's between one and two periods old
+    private volatile Sample rateSample;
+    // Only used by the sampler
+    private Sample newestSample;
+    private ScheduledFuture<?> sampling;
+    private ObjectName objectName;
+
+    IntCodeMetrics(InstructionExecutor instructionExecutor) {
+        this.instructionExecutor = instructionExecutor;
+        rateSample = newestSample = new Sample(System.nanoTime(), getInstructionsExecuted());
+    }
+
+    private static class Sample {
+        private final long nanos;
+        private final long instructions;
+
+        private Sample(long nanos, long instructions) {
+            this.nanos = nanos;
+            this.instructions = instructions;
+        }
+    }
+
+    // Started the first time some metrics are registered
+    private static class Sampler {
+        private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "intcode-metrics-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String getEngine() {
+        return instructionExecutor.getEngine().name();
+    }
+
+    @Override
+    public long getInstructionsExecuted() {
+        return instructionExecutor.getPublishedInstructions();
+    }
+
+    @Override
+    public double getInstructionsPerSecond() {
+        final Sample sample = rateSample;
+        final long instructions = getInstructionsExecuted();
+        final long elapsedNanos = System.nanoTime() - sample.nanos;
+        return elapsedNanos > 0 ? (instructions - sample.instructions) * 1e9 / elapsedNanos : 0;
+    }
+
+    void sample() {
+        rateSample = newestSample;
+        newestSample = new Sample(System.nanoTime(), getInstructionsExecuted());
+    }
+
+    @Override
+    public long getOutputCount() {
+        return instructionExecutor.getPublishedOutputs();
+    }
+
+    @Override
+    public long getInputStarvationCount() {
+        return instructionExecutor.getPublishedInputStarvations();
+    }
+
+    @Override
+    public int getMemoryHighWaterMark() {
+        return instructionExecutor.getPublishedMemorySize();
+    }
+
+    @Override
+    public long getAutoExpandCount() {
+        return instructionExecutor.getPublishedAutoExpansions();
+    }
+
+    /**
+     * @return the name of the MXBean: com.challenge.library.intcodecomputer:type=IntCodeComputer,name=(name given)
+     *
+     * @throws InstanceAlreadyExistsException if there's already an MXBean with the same name
+     */
+    public synchronized ObjectName register(String name) throws JMException {
+        if (objectName != null)
+            throw new IllegalStateException("The metrics are already registered as " + objectName);
+
+        ObjectName newObjectName = new ObjectName(DOMAIN + ":type=IntCodeComputer,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, newObjectName);
+        objectName = newObjectName;
+        sampling = Sampler.executor.scheduleAtFixedRate(this::sample, SAMPLE_PERIOD_MILLIS, SAMPLE_PERIOD_MILLIS,
+                TimeUnit.MILLISECONDS);
+        return objectName;
+    }
+
+    @Override
+    public synchronized void close() throws JMException {
+        if (objectName == null)
+            return;
+
+        sampling.cancel(false);
+        sampling = null;
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        objectName = null;
+    }
+
+    @Override
+    public String toString() {
+        return "IntCodeMetrics{" +
+                "instructions=" + getInstructionsExecuted() +
+                ", outputs=" + getOutputCount() +
+                ", inputStarvations=" + getInputStarvationCount() +
+                ", memoryHighWaterMark=" + getMemoryHighWaterMark() +
+                ", autoExpansions=" + getAutoExpandCount() +
+                '}';
+    }
+}
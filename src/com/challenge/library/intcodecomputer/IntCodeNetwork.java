@@ -0,0 +1,229 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.IntCodeScheduler.Machine;
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+import static com.challenge.library.intcodecomputer.IntCodeScheduler.Builder.createScheduler;
+
+/**
+ * Network of int code computers running the same program and exchanging packets, like the network of day 23. The nodes
+ * run on an {@link IntCodeScheduler}, and the ones waiting for packets are parked. When all of them are, the {@link
+ * IdleListener} is called, and the network stops unless it sends a packet.
+ */
+public class IntCodeNetwork {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final IntCodeScheduler scheduler;
+    private final Machine[] nodes;
+    private final PacketListener packetListener;
+    private final IdleListener idleListener;
+    private final AtomicLong numPacketsSent = new AtomicLong();
+    private volatile boolean stopped;
+
+    private IntCodeNetwork(Builder builder) {
+        this.scheduler = createScheduler()
+                .withNumWorkers(builder.numWorkers)
+                .withQuantum(builder.quantum)
+                .build();
+        this.packetListener = builder.packetListener;
+        this.idleListener = builder.idleListener;
+
+        this.nodes = new Machine[builder.numNodes];
+        for (int address = 0; address < nodes.length; address++) {
+            IntCodeComputer computer = createNewIntCodeComputer(builder.code)
+                    .withMemoryAutoExpand()
+                    .withEngine(builder.engine)
+                    .withInputValue(address)
+                    .build();
+            nodes[address] = scheduler.submit(computer, new PacketAssembler(), builder.idleInputValue);
+        }
+    }
+
+    /**
+     * Runs the network until it's stopped by a listener, or until it's idle and the idle listener doesn't send any
+     * packet.
+     *
+     * @throws IntComputerException if any of the nodes failed
+     */
+    public void run() throws InterruptedException, IntComputerException {
+        try {
+            scheduler.start();
+            while (true) {
+                scheduler.awaitIdle();
+                if (stopped)
+                    break;
+
+                final long packetsBeforeIdle = numPacketsSent.get();
+                idleListener.networkIdle(this);
+                if (stopped || numPacketsSent.get() == packetsBeforeIdle)
+                    break;
+            }
+        } finally {
+            scheduler.close();
+        }
+    }
+
+    /**
+     * Sends a packet to a node, or to the packet listener if the destination isn't one of the nodes. Can be called from
+     * any thread.
+     */
+    public void send(Packet packet) {
+        numPacketsSent.incrementAndGet();
+        final long destination = packet.getDestination();
+        if (destination >= 0 && destination < nodes.length) {
+            nodes[(int) destination].addInputValues(packet.getX(), packet.getY());
+        } else {
+            packetListener.packetReceived(packet, this);
+        }
+    }
+
+    public void stop() {
+        stopped = true;
+        scheduler.shutdown();
+    }
+
+    public int getNumNodes() {
+        return nodes.length;
+    }
+
+    public long getNumPacketsSent() {
+        return numPacketsSent.get();
+    }
+
+    private class PacketAssembler implements OutputSink {
+        private final long[] values = new long[3];
+        private int numValues;
+
+        @Override
+        public void accept(long value) {
+            values[numValues++] = value;
+            if (numValues == values.length) {
+                numValues = 0;
+                send(new Packet(values[0], values[1], values[2]));
+            }
+        }
+    }
+
+    public static class Packet {
+        private final long destination;
+        private final long x;
+        private final long y;
+
+        public Packet(long destination, long x, long y) {
+            this.destination = destination;
+            this.x = x;
+            this.y = y;
+        }
+
+        public long getDestination() {
+            return destination;
+        }
+
+        public long getX() {
+            return x;
+        }
+
+        public long getY() {
+            return y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Packet packet = (Packet) o;
+            return destination == packet.destination && x == packet.x && y == packet.y;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(destination, x, y);
+        }
+
+        @Override
+        public String toString() {
+            return "Packet{" + destination + ": " + x + ", " + y + '}';
+        }
+    }
+
+    /**
+     * Receives the packets sent to addresses outside the network, from the thread of the node sending them.
+     */
+    @FunctionalInterface
+    public interface PacketListener {
+        void packetReceived(Packet packet, IntCodeNetwork network);
+    }
+
+    @FunctionalInterface
+    public interface IdleListener {
+        void networkIdle(IntCodeNetwork network);
+    }
+
+    public static class Builder {
+        private final long[] code;
+        private final int numNodes;
+        private ExecutionEngine engine = ExecutionEngine.INTERPRETER;
+        private int numWorkers = Runtime.getRuntime().availableProcessors();
+        private long quantum = IntCodeScheduler.DEFAULT_QUANTUM;
+        private long idleInputValue = -1;
+        private PacketListener packetListener = (packet, network) -> logger.warn("Packet to an unknown address dropped: {}", packet);
+        private IdleListener idleListener = network -> {};
+
+        private Builder(long[] code, int numNodes) {
+            this.code = code;
+            this.numNodes = numNodes;
+        }
+
+        public static Builder createNetwork(long[] code, int numNodes) {
+            if (code == null || code.length == 0)
+                throw new IllegalArgumentException("The int computer code array can't be empty or null");
+            if (numNodes <= 0)
+                throw new IllegalArgumentException("The number of nodes must be greater than 0: " + numNodes);
+
+            return new Builder(code, numNodes);
+        }
+
+        public Builder withEngine(ExecutionEngine engine) {
+            this.engine = Objects.requireNonNull(engine);
+            return this;
+        }
+
+        public Builder withNumWorkers(int numWorkers) {
+            this.numWorkers = numWorkers;
+            return this;
+        }
+
+        public Builder withQuantum(long quantum) {
+            this.quantum = quantum;
+            return this;
+        }
+
+        /**
+         * Sets the value read by a node asking for input with its queue empty (-1 by default).
+         */
+        public Builder withIdleInputValue(long idleInputValue) {
+            this.idleInputValue = idleInputValue;
+            return this;
+        }
+
+        public Builder withPacketListener(PacketListener packetListener) {
+            this.packetListener = Objects.requireNonNull(packetListener);
+            return this;
+        }
+
+        public Builder withIdleListener(IdleListener idleListener) {
+            this.idleListener = Objects.requireNonNull(idleListener);
+            return this;
+        }
+
+        public IntCodeNetwork build() {
+            return new IntCodeNetwork(this);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.challenge.library.intcodecomputer;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Parser of the comma separated int code programs, scanning the bytes of the text straight into a {@code long[]}.
+ * Whitespace is allowed around the values.
+ */
+final class IntCodeParser {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] cells;
+    private BigInteger[] bigCells;
+    private int numCells;
+
+    private IntCodeParser(int maxCells) {
+        this.cells = new long[Math.min(maxCells, INITIAL_CAPACITY)];
+    }
+
+    static ParsedCode parse(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @throws NumberFormatException if any of the values isn't a valid integer
+     */
+    static ParsedCode parse(ByteBuffer text) {
+        IntCodeParser parser = new IntCodeParser(text.remaining() / 2 + 1);
+        parser.doParse(text);
+        return new ParsedCode(Arrays.copyOf(parser.cells, parser.numCells),
+                parser.bigCells != null ? Arrays.copyOf(parser.bigCells, parser.numCells) : null);
+    }
+
+    private void doParse(ByteBuffer text) {
+        final int end = text.limit();
+        int pos = text.position();
+
+        while (true) {
+            pos = skipWhitespace(text, pos, end);
+            final int tokenStart = pos;
+            final boolean negative = pos < end && text.get(pos) == '-';
+            if (negative || (pos < end && text.get(pos) == '+'))
+                pos++;
+
+            // Accumulated as a negative number, like Long.parseLong, so Long.MIN_VALUE can be parsed too
+            final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+            final long multiplyLimit = limit / 10;
+            final int digitsStart = pos;
+            long value = 0;
+            boolean overflow = false;
+            while (pos < end) {
+                final int digit = text.get(pos) - '0';
+                if (digit < 0 || digit > 9)
+                    break;
+
+                if (!overflow) {
+                    if (value < multiplyLimit || value * 10 < limit + digit)
+                        overflow = true;
+                    else
+                        value = value * 10 - digit;
+                }
+                pos++;
+            }
+            if (pos == digitsStart)
+                throw invalidValue(text, tokenStart, end);
+
+            if (overflow)
+                addBigCell(new BigInteger(ascii(text, tokenStart, pos)));
+            else
+                addCell(negative ? value : -value);
+
+            pos = skipWhitespace(text, pos, end);
+            if (pos == end)
+                return;
+            if (text.get(pos) != ',')
+                throw invalidValue(text, tokenStart, end);
+            pos++;
+        }
+    }
+
+    private void addCell(long value) {
+        if (numCells == cells.length)
+            cells = Arrays.copyOf(cells, cells.length * 2);
+        cells[numCells++] = value;
+    }
+
+    private void addBigCell(BigInteger value) {
+        addCell(IntCodeMemory.PROMOTED_CELL);
+        if (bigCells == null)
+            bigCells = new BigInteger[cells.length];
+        else if (bigCells.length < cells.length)
+            bigCells = Arrays.copyOf(bigCells, cells.length);
+        bigCells[numCells - 1] = value;
+    }
+
+    private NumberFormatException invalidValue(ByteBuffer text, int tokenStart, int end) {
+        int tokenEnd = tokenStart;
+        while (tokenEnd < end && text.get(tokenEnd) != ',')
+            tokenEnd++;
+        return new NumberFormatException(String.format("Invalid value for cell %d: \"%s\"", numCells,
+                ascii(text, tokenStart, tokenEnd).strip()));
+    }
+
+    private static int skipWhitespace(ByteBuffer text, int pos, int end) {
+        while (pos < end && isWhitespace(text.get(pos)))
+            pos++;
+        return pos;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private static String ascii(ByteBuffer text, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        text.get(start, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Cells of a parsed program, with {@link IntCodeMemory#PROMOTED_CELL} in the ones not fitting in a long.
+     */
+    static class ParsedCode {
+        private final long[] cells;
+        private final BigInteger[] bigCells;
+
+        /**
+         * @param bigCells values of the cells not fitting in a long (null for the rest), or null if there are none
+         */
+        ParsedCode(long[] cells, BigInteger[] bigCells) {
+            this.cells = cells;
+            this.bigCells = bigCells;
+        }
+
+        int size() {
+            return cells.length;
+        }
+
+        long[] getCells() {
+            return cells;
+        }
+
+        BigInteger getBigCell(int index) {
+            return bigCells != null ? bigCells[index] : null;
+        }
+
+        /**
+         * @throws NumberFormatException if any of the values doesn't fit in a long
+         */
+        long[] toLongs() {
+            for (int i = 0; bigCells != null && i < bigCells.length; i++) {
+                if (bigCells[i] != null)
+                    throw new NumberFormatException(String.format("Value of cell %d out of range: %s", i, bigCells[i]));
+            }
+            return cells.clone();
+        }
+
+        BigInteger[] toBigIntegers() {
+            BigInteger[] values = new BigInteger[cells.length];
+            for (int i = 0; i < cells.length; i++)
+                values[i] = getBigCell(i) != null ? bigCells[i] : BigInteger.valueOf(cells[i]);
+            return values;
+        }
+    }
+}
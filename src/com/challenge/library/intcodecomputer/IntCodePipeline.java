@@ -0,0 +1,220 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.IntCodeComputer.ExecutionResult.ResultType;
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Int code computers running concurrently, each one in its own thread, connected by {@link LongChannel}s into chains,
+ * rings or fan-outs. A stage ends when its program halts, or when it needs input and its input channel is closed and
+ * empty, and then closes the channels of the stages it feeds.
+ */
+public class IntCodePipeline implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger();
+
+    public static final int DEFAULT_CHANNEL_CAPACITY = 1024;
+
+    private final List<Stage> stages;
+    private final ThreadFactory threadFactory;
+    private final CountDownLatch completion;
+    private final List<Thread> threads = new ArrayList<>();
+
+    private IntCodePipeline(List<Stage> stages, ThreadFactory threadFactory) {
+        this.stages = stages;
+        this.threadFactory = threadFactory;
+        this.completion = new CountDownLatch(stages.size());
+    }
+
+    /**
+     * @return the input channel of a stage no other stage is connected to, so the caller can feed it
+     */
+    public LongChannel getInput(int stage) {
+        final Stage inputStage = stages.get(stage);
+        if (inputStage.hasProducer)
+            throw new IllegalArgumentException(String.format("The input of the stage %d comes from another stage", stage));
+
+        return inputStage.input;
+    }
+
+    public int getNumStages() {
+        return stages.size();
+    }
+
+    public synchronized void start() {
+        if (!threads.isEmpty())
+            throw new IllegalStateException("The pipeline is already started");
+
+        for (Stage stage : stages) {
+            Thread thread = threadFactory.newThread(() -> runStage(stage));
+            threads.add(thread);
+        }
+        threads.forEach(Thread::start);
+    }
+
+    /**
+     * @throws IntComputerException if any of the stages failed
+     */
+    public void awaitCompletion() throws InterruptedException, IntComputerException {
+        completion.await();
+
+        for (Stage stage : stages) {
+            if (stage.error != null)
+                throw new IntComputerException(String.format("Error running the stage %d of the pipeline", stage.id), stage.error);
+        }
+    }
+
+    public void run() throws InterruptedException, IntComputerException {
+        start();
+        awaitCompletion();
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Thread thread : threads)
+            thread.interrupt();
+        try {
+            for (Thread thread : threads)
+                thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runStage(Stage stage) {
+        try {
+            while (stage.computer.run(stage.input, stage::sendOutput) != ResultType.EXECUTION_FINISHED) {
+                if (!stage.input.awaitInput()) {
+                    logger.debug("Stage {} of the pipeline ended waiting for input", stage.id);
+                    break;
+                }
+            }
+        } catch (InterruptedException | CancellationException e) {
+            logger.debug("Stage {} of the pipeline interrupted", stage.id);
+            stage.error = e;
+        } catch (IntComputerException | RuntimeException e) {
+            logger.error("Error running the stage {} of the pipeline", stage.id, e);
+            stage.error = e;
+        } finally {
+            stage.input.cancel();
+            for (LongChannel output : stage.outputs)
+                output.close();
+            completion.countDown();
+        }
+    }
+
+    private static class Stage {
+        private final int id;
+        private final IntCodeComputer computer;
+        private final LongChannel input;
+        private final List<LongChannel> outputs = new ArrayList<>();
+        private final List<OutputSink> outputSinks = new ArrayList<>();
+        private boolean hasProducer;
+        private volatile Exception error;
+
+        Stage(int id, IntCodeComputer computer, int channelCapacity) {
+            this.id = id;
+            this.computer = computer;
+            this.input = new LongChannel(channelCapacity);
+        }
+
+        void sendOutput(long value) {
+            for (LongChannel output : outputs)
+                output.put(value);
+            for (OutputSink outputSink : outputSinks)
+                outputSink.accept(value);
+        }
+    }
+
+    public static class Builder {
+        private final List<IntCodeComputer> computers = new ArrayList<>();
+        private final List<int[]> connections = new ArrayList<>();
+        private final Map<Integer, List<OutputSink>> outputSinks = new HashMap<>();
+        private int channelCapacity = DEFAULT_CHANNEL_CAPACITY;
+        private ThreadFactory threadFactory = new StageThreadFactory();
+
+        public static Builder createPipeline() {
+            return new Builder();
+        }
+
+        /**
+         * Adds a stage running the computer. The stages are numbered from 0, in the order they are added.
+         */
+        public Builder withStage(IntCodeComputer computer) {
+            computers.add(Objects.requireNonNull(computer));
+            return this;
+        }
+
+        /**
+         * Every stage can get values from a single stage, but can send values to any number of them.
+         */
+        public Builder withConnection(int from, int to) {
+            connections.add(new int[] {from, to});
+            return this;
+        }
+
+        public Builder withOutputSink(int stage, OutputSink outputSink) {
+            outputSinks.computeIfAbsent(stage, key -> new ArrayList<>()).add(Objects.requireNonNull(outputSink));
+            return this;
+        }
+
+        public Builder withChannelCapacity(int channelCapacity) {
+            if (channelCapacity <= 0)
+                throw new IllegalArgumentException("The channel capacity must be greater than 0: " + channelCapacity);
+
+            this.channelCapacity = channelCapacity;
+            return this;
+        }
+
+        /**
+         * By default the stages run in daemon platform threads.
+         */
+        public Builder withThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = Objects.requireNonNull(threadFactory);
+            return this;
+        }
+
+        public IntCodePipeline build() {
+            List<Stage> stages = new ArrayList<>();
+            for (IntCodeComputer computer : computers)
+                stages.add(new Stage(stages.size(), computer, channelCapacity));
+
+            for (int[] connection : connections) {
+                final Stage from = getStage(stages, connection[0]);
+                final Stage to = getStage(stages, connection[1]);
+                if (to.hasProducer)
+                    throw new IllegalArgumentException(String.format("The stage %d can't get values from more than one stage", to.id));
+
+                to.hasProducer = true;
+                from.outputs.add(to.input);
+            }
+            outputSinks.forEach((stage, sinks) -> getStage(stages, stage).outputSinks.addAll(sinks));
+
+            return new IntCodePipeline(stages, threadFactory);
+        }
+
+        private static Stage getStage(List<Stage> stages, int stage) {
+            if (stage < 0 || stage >= stages.size())
+                throw new IllegalArgumentException(String.format("There's no stage %d in the pipeline", stage));
+
+            return stages.get(stage);
+        }
+    }
+
+    private static class StageThreadFactory implements ThreadFactory {
+        private static final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "intcode-pipeline-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.challenge.library.intcodecomputer;
+
+import java.util.*;
+
+/**
+ * Counts the instructions executed per opcode, parameter modes and program counter, and the jumps taken, by the
+ * computers it's attached to. The backward jumps delimit the loops summarized in {@link #getReport(int)}. Not thread
+ * safe: it can only be shared by computers running in the same thread.
+ */
+public class IntCodeProfiler {
+    // 3 parameter modes (from 0 to 2) and a 2 digit opcode
+    private static final int MAX_INSTRUCTION_CODE = 30_000;
+
+    private long totalInstructions;
+    private final long[] instructionCodeCounts = new long[MAX_INSTRUCTION_CODE];
+    private long[] positionCounts = new long[1024];
+    private final LongCountMap sparsePositionCounts = new LongCountMap();
+    private final LongCountMap jumpCounts = new LongCountMap();
+
+    /**
+     * @param instructionCode value of the instruction cell: opcode and parameter modes
+     */
+    void recordInstruction(int position, long instructionCode, int nextPosition, int denseLength) {
+        totalInstructions++;
+        if (instructionCode >= 0 && instructionCode < MAX_INSTRUCTION_CODE)
+            instructionCodeCounts[(int) instructionCode]++;
+
+        if (position < denseLength) {
+            if (position >= positionCounts.length)
+                positionCounts = Arrays.copyOf(positionCounts, Math.min(denseLength, Math.max(position + 1, positionCounts.length * 2)));
+            positionCounts[position]++;
+        } else {
+            sparsePositionCounts.increment(position);
+        }
+
+        final int opCode = (int) (instructionCode % 100);
+        if ((opCode == 5 || opCode == 6) && nextPosition != position + 3)
+            jumpCounts.increment(jumpKey(position, nextPosition));
+    }
+
+    public long getTotalInstructions() {
+        return totalInstructions;
+    }
+
+    public long getOpCodeCount(int opCode) {
+        long count = 0;
+        for (int instructionCode = opCode; instructionCode < MAX_INSTRUCTION_CODE; instructionCode += 100) {
+            count += instructionCodeCounts[instructionCode];
+        }
+        return count;
+    }
+
+    /**
+     * @param instructionCode opcode and parameter modes, as they are stored in the memory (e.g. 1002)
+     */
+    public long getInstructionCodeCount(int instructionCode) {
+        return instructionCode >= 0 && instructionCode < MAX_INSTRUCTION_CODE ? instructionCodeCounts[instructionCode] : 0;
+    }
+
+    public long getPositionCount(int position) {
+        // A position may have been counted in both, if the dense memory grew over it
+        final long denseCount = position >= 0 && position < positionCounts.length ? positionCounts[position] : 0;
+        return denseCount + sparsePositionCounts.get(position);
+    }
+
+    public long getJumpCount(int fromPosition, int toPosition) {
+        return jumpCounts.get(jumpKey(fromPosition, toPosition));
+    }
+
+    /**
+     * @return the loops of the program, found from the back edges taken at least once, hottest first
+     */
+    public List<HotLoop> getHotLoops() {
+        List<HotLoop> loops = new ArrayList<>();
+        jumpCounts.forEach((key, count) -> {
+            int from = (int) (key >>> 32);
+            int to = (int) key;
+            if (to <= from)
+                loops.add(new HotLoop(to, from, count, countInstructions(to, from)));
+        });
+        loops.sort(Comparator.comparingLong(HotLoop::getInstructions).reversed());
+        return loops;
+    }
+
+    private long countInstructions(int startPosition, int endPosition) {
+        long instructions = 0;
+        for (int position = startPosition; position <= endPosition && position < positionCounts.length; position++) {
+            instructions += positionCounts[position];
+        }
+        if (sparsePositionCounts.size() > 0) {
+            long[] sparseInstructions = {0};
+            sparsePositionCounts.forEach((position, count) -> {
+                if (position >= startPosition && position <= endPosition)
+                    sparseInstructions[0] += count;
+            });
+            instructions += sparseInstructions[0];
+        }
+        return instructions;
+    }
+
+    /**
+     * @param maxEntries max number of entries shown in the sections of the report ranking the hottest items
+     */
+    public String getReport(int maxEntries) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Instructions executed: %d%n", totalInstructions));
+
+        report.append(String.format("%nInstructions per opcode:%n"));
+        for (Instruction.Operation operation : Instruction.Operation.values()) {
+            long count = getOpCodeCount(operation.opCode);
+            if (count > 0)
+                report.append(formatEntry(operation.name(), count));
+        }
+
+        report.append(String.format("%nHottest instruction codes (opcode and parameter modes):%n"));
+        topEntries(instructionCodeCounts, maxEntries)
+                .forEach(code -> report.append(formatEntry(Integer.toString(code), instructionCodeCounts[code])));
+
+        report.append(String.format("%nHottest positions:%n"));
+        topPositions(maxEntries)
+                .forEach(position -> report.append(formatEntry(Integer.toString(position), getPositionCount(position))));
+
+        report.append(String.format("%nHot loops:%n"));
+        getHotLoops().stream()
+                .limit(maxEntries)
+                .forEach(loop -> report.append(String.format("  [%d..%d] %d iterations, %d instructions (%.2f%%)%n",
+                        loop.getStartPosition(), loop.getEndPosition(), loop.getIterations(), loop.getInstructions(),
+                        percentage(loop.getInstructions()))));
+
+        return report.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getReport(10);
+    }
+
+    private String formatEntry(String name, long count) {
+        return String.format("  %-20s %12d (%.2f%%)%n", name, count, percentage(count));
+    }
+
+    private double percentage(long count) {
+        return totalInstructions > 0 ? count * 100.0 / totalInstructions : 0;
+    }
+
+    private static List<Integer> topEntries(long[] counts, int maxEntries) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0)
+                indexes.add(i);
+        }
+        indexes.sort(Comparator.comparingLong((Integer i) -> counts[i]).reversed());
+        return indexes.subList(0, Math.min(maxEntries, indexes.size()));
+    }
+
+    private List<Integer> topPositions(int maxEntries) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < positionCounts.length; i++) {
+            if (positionCounts[i] > 0)
+                positions.add(i);
+        }
+        sparsePositionCounts.forEach((position, count) -> {
+            if (position >= positionCounts.length || positionCounts[(int) position] == 0)
+                positions.add((int) position);
+        });
+        positions.sort(Comparator.comparingLong((Integer position) -> getPositionCount(position)).reversed());
+        return positions.subList(0, Math.min(maxEntries, positions.size()));
+    }
+
+    private static long jumpKey(int fromPosition, int toPosition) {
+        return ((long) fromPosition << 32) | (toPosition & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Loop delimited by a back edge: a jump from the end position to the start position.
+     */
+    public static class HotLoop {
+        private final int startPosition;
+        private final int endPosition;
+        private final long iterations;
+        private final long instructions;
+
+        private HotLoop(int startPosition, int endPosition, long iterations, long instructions) {
+            this.startPosition = startPosition;
+            this.endPosition = endPosition;
+            this.iterations = iterations;
+            this.instructions = instructions;
+        }
+
+        public int getStartPosition() {
+            return startPosition;
+        }
+
+        public int getEndPosition() {
+            return endPosition;
+        }
+
+        public long getIterations() {
+            return iterations;
+        }
+
+        public long getInstructions() {
+            return instructions;
+        }
+
+        @Override
+        public String toString() {
+            return "HotLoop{" +
+                    "startPosition=" + startPosition +
+                    ", endPosition=" + endPosition +
+                    ", iterations=" + iterations +
+                    ", instructions=" + instructions +
+                    '}';
+        }
+    }
+}
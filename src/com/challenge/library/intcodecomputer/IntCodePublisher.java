@@ -0,0 +1,287 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.IntCodeComputer.ExecutionResult.ResultType;
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reactive view of an int code computer: its output values are published to a single {@link Flow.Subscriber}, and its
+ * input values can come from any {@link Flow.Publisher}. The computer only runs as far as the subscriber asks for, and
+ * input values are only requested as the computer reads them, so no buffer grows in between.
+ */
+public class IntCodePublisher implements Flow.Publisher<Long> {
+    private static final Logger logger = LogManager.getLogger();
+
+    public static final int DEFAULT_INPUT_BUFFER_SIZE = 256;
+
+    private final IntCodeComputer computer;
+    private final Executor executor;
+    private final InputSubscriber inputSubscriber;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    // Number of signals (requests, input values, cancellation...) not processed yet by the execution task
+    private final AtomicInteger pendingSignals = new AtomicInteger();
+    private final AtomicLong demand = new AtomicLong();
+    private volatile Flow.Subscriber<? super Long> subscriber;
+    private volatile boolean cancelled;
+    private volatile Exception requestError;
+    // Only accessed by the execution task
+    private boolean done;
+    private long numOutputsSent;
+
+    private IntCodePublisher(IntCodeComputer computer, Executor executor, int inputBufferSize) {
+        this.computer = computer;
+        this.executor = executor;
+        this.inputSubscriber = new InputSubscriber(inputBufferSize);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Long> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The int code publisher only allows one subscriber"));
+            return;
+        }
+
+        this.subscriber = subscriber;
+        subscriber.onSubscribe(new OutputSubscription());
+    }
+
+    /**
+     * @return the subscriber for the publisher of the input values of the computer
+     */
+    public Flow.Subscriber<Long> getInputSubscriber() {
+        return inputSubscriber;
+    }
+
+    // Runs the execution task, unless it's already running: then it processes the new signal before ending
+    private void signal() {
+        if (pendingSignals.getAndIncrement() == 0) {
+            try {
+                executor.execute(this::processSignals);
+            } catch (RejectedExecutionException e) {
+                pendingSignals.set(0);
+                finish(e);
+            }
+        }
+    }
+
+    private void processSignals() {
+        int signals = pendingSignals.get();
+        do {
+            if (!done)
+                execute();
+            signals = pendingSignals.addAndGet(-signals);
+        } while (signals != 0);
+    }
+
+    private void execute() {
+        if (cancelled) {
+            done = true;
+            inputSubscriber.cancel();
+            return;
+        }
+        if (requestError != null) {
+            finish(requestError);
+            return;
+        }
+
+        final long requested = demand.get();
+        if (requested == 0)
+            return;
+
+        numOutputsSent = 0;
+        final ResultType result;
+        try {
+            result = computer.runUntilOutputs(inputSubscriber, this::sendOutput, requested);
+        } catch (CancellationException e) {
+            done = true;
+            inputSubscriber.cancel();
+            return;
+        } catch (IntComputerException | RuntimeException e) {
+            logger.error("Error running the int code computer of the publisher", e);
+            finish(e);
+            return;
+        }
+        if (requested != Long.MAX_VALUE)
+            demand.addAndGet(-numOutputsSent);
+        inputSubscriber.requestMore();
+
+        if (result == ResultType.EXECUTION_FINISHED) {
+            finish(null);
+        } else if (result == ResultType.INPUT_NEEDED && inputSubscriber.isCompleted() && !inputSubscriber.hasInput()) {
+            finish(inputSubscriber.error);
+        }
+    }
+
+    private void sendOutput(long value) {
+        // The computer is left as it is, as it won't run any more
+        if (cancelled)
+            throw new CancellationException("The subscriber has cancelled the subscription");
+
+        numOutputsSent++;
+        subscriber.onNext(value);
+    }
+
+    private void finish(Throwable error) {
+        done = true;
+        inputSubscriber.cancel();
+        if (cancelled)
+            return;
+
+        if (error != null) {
+            subscriber.onError(error);
+        } else {
+            subscriber.onComplete();
+        }
+    }
+
+    private class OutputSubscription implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                requestError = new IllegalArgumentException("The number of values requested must be greater than 0: " + n);
+                signal();
+                return;
+            }
+
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            signal();
+        }
+    }
+
+    private class InputSubscriber implements Flow.Subscriber<Long>, InputSource {
+        private final LongChannel channel;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean completed;
+        private volatile Throwable error;
+        // Only accessed by the execution task
+        private long numValuesRead;
+
+        InputSubscriber(int bufferSize) {
+            this.channel = new LongChannel(bufferSize);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            synchronized (this) {
+                if (this.subscription != null || cancelled) {
+                    subscription.cancel();
+                    return;
+                }
+                this.subscription = subscription;
+            }
+            subscription.request(channel.getCapacity());
+        }
+
+        @Override
+        public void onNext(Long value) {
+            if (!channel.offer(value))
+                throw new IllegalStateException("The input publisher sent more values than requested");
+            signal();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+            this.completed = true;
+            signal();
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+            signal();
+        }
+
+        @Override
+        public boolean hasInput() {
+            return channel.hasInput();
+        }
+
+        @Override
+        public long nextInput() {
+            numValuesRead++;
+            return channel.nextInput();
+        }
+
+        boolean isCompleted() {
+            return completed;
+        }
+
+        void requestMore() {
+            if (numValuesRead > 0 && subscription != null && !completed) {
+                subscription.request(numValuesRead);
+                numValuesRead = 0;
+            }
+        }
+
+        void cancel() {
+            final Flow.Subscription currentSubscription;
+            synchronized (this) {
+                currentSubscription = subscription;
+            }
+            if (currentSubscription != null && !completed)
+                currentSubscription.cancel();
+        }
+    }
+
+    public static class Builder {
+        private final IntCodeComputer computer;
+        private Executor executor = ForkJoinPool.commonPool();
+        private int inputBufferSize = DEFAULT_INPUT_BUFFER_SIZE;
+
+        private Builder(IntCodeComputer computer) {
+            this.computer = computer;
+        }
+
+        /**
+         * The computer must not be used by anything else from now on.
+         */
+        public static Builder createPublisher(IntCodeComputer computer) {
+            return new Builder(Objects.requireNonNull(computer));
+        }
+
+        public Builder withExecutor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        public Builder withInputBufferSize(int inputBufferSize) {
+            if (inputBufferSize <= 0)
+                throw new IllegalArgumentException("The input buffer size must be greater than 0: " + inputBufferSize);
+
+            this.inputBufferSize = inputBufferSize;
+            return this;
+        }
+
+        public IntCodePublisher build() {
+            return new IntCodePublisher(computer, executor, inputBufferSize);
+        }
+    }
+}
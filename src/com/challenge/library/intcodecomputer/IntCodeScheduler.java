@@ -0,0 +1,330 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.IntCodeComputer.ExecutionResult.ResultType;
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Cooperative scheduler running many int code computers on a small pool of worker threads, round robin, a quantum of
+ * steps at a time. A computer waiting for input is parked, without holding any thread, until a value is added to its
+ * {@link Machine}.
+ */
+public class IntCodeScheduler implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger();
+
+    public static final long DEFAULT_QUANTUM = 10_000;
+
+    private final int numWorkers;
+    private final long quantum;
+    private final BlockingQueue<Machine> readyMachines = new LinkedBlockingQueue<>();
+    private final List<Machine> machines = new CopyOnWriteArrayList<>();
+    private final Object activityLock = new Object();
+    // Machines ready to run or running (guarded by activityLock). When it gets to 0 the scheduler is idle
+    private int numActiveMachines;
+    private Thread[] workers;
+    private volatile boolean closed;
+
+    private IntCodeScheduler(int numWorkers, long quantum) {
+        this.numWorkers = numWorkers;
+        this.quantum = quantum;
+    }
+
+    /**
+     * Adds a computer, which runs once the scheduler is started. The computer must only be used through the machine
+     * returned from now on.
+     *
+     * @param outputSink receives the output values of the computer, from the worker thread running it
+     */
+    public Machine submit(IntCodeComputer computer, OutputSink outputSink) {
+        return submit(computer, outputSink, false, 0);
+    }
+
+    /**
+     * Adds a computer polling for input (like the network of day 23): it reads idleInputValue while its inbox is empty,
+     * and is parked once it asks for input again without having sent anything in between.
+     */
+    public Machine submit(IntCodeComputer computer, OutputSink outputSink, long idleInputValue) {
+        return submit(computer, outputSink, true, idleInputValue);
+    }
+
+    private synchronized Machine submit(IntCodeComputer computer, OutputSink outputSink, boolean polling, long idleInputValue) {
+        if (closed)
+            throw new IllegalStateException("The scheduler is closed");
+
+        Machine machine = new Machine(machines.size(), computer, outputSink, polling, idleInputValue);
+        machines.add(machine);
+        synchronized (activityLock) {
+            numActiveMachines++;
+        }
+        readyMachines.add(machine);
+        return machine;
+    }
+
+    public synchronized void start() {
+        if (workers != null)
+            throw new IllegalStateException("The scheduler is already started");
+        if (closed)
+            throw new IllegalStateException("The scheduler is closed");
+
+        workers = new Thread[numWorkers];
+        for (int i = 0; i < numWorkers; i++) {
+            workers[i] = new Thread(this::runWorker, "intcode-scheduler-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Waits until every machine has halted, failed or is waiting for input that nobody has added yet.
+     *
+     * @throws IntComputerException if any of the machines failed
+     */
+    public void awaitIdle() throws InterruptedException, IntComputerException {
+        synchronized (this) {
+            if (workers == null)
+                throw new IllegalStateException("The scheduler isn't started");
+        }
+
+        synchronized (activityLock) {
+            while (numActiveMachines > 0 && !closed)
+                activityLock.wait();
+        }
+
+        for (Machine machine : machines) {
+            if (machine.error != null)
+                throw new IntComputerException(String.format("Error running the machine %d", machine.id), machine.error);
+        }
+    }
+
+    public List<Machine> getMachines() {
+        return List.copyOf(machines);
+    }
+
+    /**
+     * Tells the worker threads to stop, without waiting for them, so it can be called from an output sink.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            closed = true;
+            for (Thread worker : workers != null ? workers : new Thread[0])
+                worker.interrupt();
+        }
+        synchronized (activityLock) {
+            activityLock.notifyAll();
+        }
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+        final Thread[] workersToStop;
+        synchronized (this) {
+            workersToStop = workers != null ? workers : new Thread[0];
+        }
+        try {
+            for (Thread worker : workersToStop) {
+                if (worker != Thread.currentThread())
+                    worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWorker() {
+        try {
+            while (!closed) {
+                readyMachines.take().runSlice();
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Scheduler worker {} stopped", Thread.currentThread().getName());
+        }
+    }
+
+    private void deactivate() {
+        synchronized (activityLock) {
+            if (--numActiveMachines == 0)
+                activityLock.notifyAll();
+        }
+    }
+
+    private void activate() {
+        synchronized (activityLock) {
+            numActiveMachines++;
+        }
+    }
+
+    public enum MachineStatus {
+        READY, RUNNING, WAITING_FOR_INPUT, HALTED, FAILED
+    }
+
+    public class Machine implements InputSource {
+        private final int id;
+        private final IntCodeComputer computer;
+        private final OutputSink outputSink;
+        private final boolean polling;
+        private final long idleInputValue;
+        // Input values not read by the computer yet. It also guards the status
+        private final InputQueue inbox = new InputQueue();
+        private volatile MachineStatus status = MachineStatus.READY;
+        private volatile Exception error;
+        // Whether the last value read was the idle input value, and nothing has been sent since then
+        private boolean idleInputValueRead;
+
+        private Machine(int id, IntCodeComputer computer, OutputSink outputSink, boolean polling, long idleInputValue) {
+            this.id = id;
+            this.computer = Objects.requireNonNull(computer);
+            this.polling = polling;
+            this.idleInputValue = idleInputValue;
+            Objects.requireNonNull(outputSink);
+            this.outputSink = polling ? value -> {
+                idleInputValueRead = false;
+                outputSink.accept(value);
+            } : outputSink;
+        }
+
+        public void addInputValue(long value) {
+            final boolean wakeUp;
+            synchronized (inbox) {
+                inbox.add(value);
+                wakeUp = wakeUp();
+            }
+            if (wakeUp)
+                readyMachines.add(this);
+        }
+
+        /**
+         * Adds the values all at once, so a packet of several values from another machine is never read half way.
+         */
+        public void addInputValues(long... values) {
+            final boolean wakeUp;
+            synchronized (inbox) {
+                inbox.addAll(values);
+                wakeUp = wakeUp();
+            }
+            if (wakeUp)
+                readyMachines.add(this);
+        }
+
+        private boolean wakeUp() {
+            if (status != MachineStatus.WAITING_FOR_INPUT)
+                return false;
+
+            status = MachineStatus.READY;
+            activate();
+            return true;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public MachineStatus getStatus() {
+            return status;
+        }
+
+        public Optional<Exception> getError() {
+            return Optional.ofNullable(error);
+        }
+
+        @Override
+        public boolean hasInput() {
+            synchronized (inbox) {
+                if (!inbox.isEmpty())
+                    return true;
+            }
+            return polling && !idleInputValueRead;
+        }
+
+        @Override
+        public long nextInput() {
+            synchronized (inbox) {
+                if (!inbox.isEmpty()) {
+                    idleInputValueRead = false;
+                    return inbox.poll();
+                }
+            }
+            idleInputValueRead = true;
+            return idleInputValue;
+        }
+
+        private void runSlice() {
+            status = MachineStatus.RUNNING;
+            final ResultType result;
+            try {
+                result = computer.runSlice(this, outputSink, quantum);
+            } catch (IntComputerException | RuntimeException e) {
+                logger.error("Error running the machine {}", id, e);
+                error = e;
+                status = MachineStatus.FAILED;
+                deactivate();
+                return;
+            }
+
+            if (result == null) {
+                status = MachineStatus.READY;
+                readyMachines.add(this);
+            } else if (result == ResultType.EXECUTION_FINISHED) {
+                status = MachineStatus.HALTED;
+                deactivate();
+            } else {
+                waitForInput();
+            }
+        }
+
+        private void waitForInput() {
+            synchronized (inbox) {
+                // A value may have been added after the computer found the inbox empty
+                if (inbox.isEmpty()) {
+                    status = MachineStatus.WAITING_FOR_INPUT;
+                    deactivate();
+                    return;
+                }
+                status = MachineStatus.READY;
+            }
+            readyMachines.add(this);
+        }
+
+        @Override
+        public String toString() {
+            return "Machine{" + id + ", " + status + '}';
+        }
+    }
+
+    public static class Builder {
+        private int numWorkers = Runtime.getRuntime().availableProcessors();
+        private long quantum = DEFAULT_QUANTUM;
+
+        public static Builder createScheduler() {
+            return new Builder();
+        }
+
+        public Builder withNumWorkers(int numWorkers) {
+            if (numWorkers <= 0)
+                throw new IllegalArgumentException("The number of workers must be greater than 0: " + numWorkers);
+
+            this.numWorkers = numWorkers;
+            return this;
+        }
+
+        public Builder withQuantum(long quantum) {
+            if (quantum <= 0)
+                throw new IllegalArgumentException("The quantum must be greater than 0: " + quantum);
+
+            this.quantum = quantum;
+            return this;
+        }
+
+        public IntCodeScheduler build() {
+            return new IntCodeScheduler(numWorkers, quantum);
+        }
+    }
+}
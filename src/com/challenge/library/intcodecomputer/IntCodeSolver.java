@@ -0,0 +1,219 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+
+/**
+ * Finds the values of some cells of a program (the unknowns, each one within a range) that make it halt with a given
+ * value in a target cell, like the noun and verb of day 2. When the {@link SymbolicExecutor} gives the target cell as a
+ * linear expression, the last unknown is solved for instead of enumerated, and the solution is checked running the
+ * program once. Otherwise every combination is run. Either way, the solution is the first one a nested loop over the
+ * unknowns would find.
+ */
+public class IntCodeSolver {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final long[] code;
+    private final int[] positions;
+    private final long[] minValues;
+    private final long[] maxValues;
+    private final ExecutionEngine engine;
+
+    private IntCodeSolver(Builder builder) {
+        this.code = builder.code;
+        this.positions = builder.positions.stream().mapToInt(Integer::intValue).toArray();
+        this.minValues = builder.minValues.stream().mapToLong(Long::longValue).toArray();
+        this.maxValues = builder.maxValues.stream().mapToLong(Long::longValue).toArray();
+        this.engine = builder.engine;
+    }
+
+    /**
+     * @return the values of the unknowns, in the order they were added, that make the program halt with the target
+     * value in the target cell
+     */
+    public Optional<Solution> solve(int targetPosition, long targetValue) {
+        SymbolicExecutor.Result result = SymbolicExecutor.execute(code, positions);
+        Optional<LinearExpression> target = result.getCell(targetPosition);
+        if (target.isPresent()) {
+            logger.debug("Target cell {} solved symbolically: {}", targetPosition, target.get());
+            return solveLinear(target.get(), targetPosition, targetValue).map(values -> new Solution(values, true));
+        }
+
+        logger.debug("Unable to solve the target cell {} symbolically, searching: {}", targetPosition, result);
+        return search(targetPosition, targetValue).map(values -> new Solution(values, false));
+    }
+
+    private Optional<long[]> solveLinear(LinearExpression expression, int targetPosition, long targetValue) {
+        int solved = -1;
+        for (int unknown = 0; unknown < positions.length; unknown++) {
+            if (expression.getCoefficient(unknown) != 0)
+                solved = unknown;
+        }
+
+        final long[] values = minValues.clone();
+        final long[] program = code.clone();
+        if (solved < 0) {
+            return evaluatesTo(expression, values, targetValue) && halts(program, values, targetPosition, targetValue)
+                    ? Optional.of(values)
+                    : Optional.empty();
+        }
+
+        // The unknowns after the solved one don't appear in the expression, so they keep their minimum value
+        final long coefficient = expression.getCoefficient(solved);
+        do {
+            values[solved] = 0;
+            try {
+                final long remainder = Math.subtractExact(targetValue, expression.evaluate(values));
+                if (remainder % coefficient == 0) {
+                    final long value = remainder / coefficient;
+                    if (value >= minValues[solved] && value <= maxValues[solved]) {
+                        values[solved] = value;
+                        if (halts(program, values, targetPosition, targetValue))
+                            return Optional.of(values);
+                    }
+                }
+            } catch (ArithmeticException e) {
+                // No solution for these values: the target can't be reached without overflowing
+            }
+        } while (nextCombination(values, solved));
+
+        return Optional.empty();
+    }
+
+    private static boolean evaluatesTo(LinearExpression expression, long[] values, long targetValue) {
+        try {
+            return expression.evaluate(values) == targetValue;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    private Optional<long[]> search(int targetPosition, long targetValue) {
+        final long[] values = minValues.clone();
+        final long[] program = code.clone();
+        do {
+            if (halts(program, values, targetPosition, targetValue))
+                return Optional.of(values);
+        } while (nextCombination(values, positions.length));
+
+        return Optional.empty();
+    }
+
+    private boolean halts(long[] program, long[] values, int targetPosition, long targetValue) {
+        for (int unknown = 0; unknown < positions.length; unknown++)
+            program[positions[unknown]] = values[unknown];
+
+        try {
+            IntCodeComputer computer = createNewIntCodeComputer(program).withEngine(engine).build();
+            if (computer.run(InputSource.empty(), value -> {}) != IntCodeComputer.ExecutionResult.ResultType.EXECUTION_FINISHED)
+                return false;
+
+            List<BigInteger> memory = computer.getMemorySnapshot();
+            return targetPosition < memory.size() && memory.get(targetPosition).equals(BigInteger.valueOf(targetValue));
+        } catch (IntComputerException e) {
+            logger.debug("Error running the program with the values {}: {}", Arrays.toString(values), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return false if there are no more combinations of the first numUnknowns unknowns
+     */
+    private boolean nextCombination(long[] values, int numUnknowns) {
+        for (int unknown = numUnknowns - 1; unknown >= 0; unknown--) {
+            if (values[unknown] < maxValues[unknown]) {
+                values[unknown]++;
+                return true;
+            }
+            values[unknown] = minValues[unknown];
+        }
+        return false;
+    }
+
+    public static class Solution {
+        private final long[] values;
+        private final boolean symbolic;
+
+        private Solution(long[] values, boolean symbolic) {
+            this.values = values;
+            this.symbolic = symbolic;
+        }
+
+        public long[] getValues() {
+            return values.clone();
+        }
+
+        public long getValue(int unknown) {
+            return values[unknown];
+        }
+
+        /**
+         * @return true if it was found solving the linear expression of the target cell, false if by running the
+         * program
+         */
+        public boolean isSymbolic() {
+            return symbolic;
+        }
+    }
+
+    public static class Builder {
+        private final long[] code;
+        private final List<Integer> positions = new ArrayList<>();
+        private final List<Long> minValues = new ArrayList<>();
+        private final List<Long> maxValues = new ArrayList<>();
+        private ExecutionEngine engine = ExecutionEngine.INTERPRETER;
+
+        private Builder(long[] code) {
+            this.code = code;
+        }
+
+        public static Builder createSolver(long[] code) {
+            if (code == null || code.length == 0)
+                throw new IllegalArgumentException("The int computer code array can't be empty or null");
+
+            return new Builder(code.clone());
+        }
+
+        /**
+         * Adds an unknown: the value of the cell at the given position, from minValue to maxValue (both included).
+         */
+        public Builder withUnknown(int position, long minValue, long maxValue) {
+            if (position < 0 || position >= code.length)
+                throw new IllegalArgumentException(String.format("Unknown position %d out of the program", position));
+            if (positions.contains(position))
+                throw new IllegalArgumentException(String.format("The position %d is already an unknown", position));
+            if (minValue > maxValue)
+                throw new IllegalArgumentException(String.format("Empty range of values for the position %d: [%d, %d]", position, minValue, maxValue));
+
+            positions.add(position);
+            minValues.add(minValue);
+            maxValues.add(maxValue);
+            return this;
+        }
+
+        /**
+         * Sets the engine used to run the program when it can't be solved symbolically.
+         */
+        public Builder withEngine(ExecutionEngine engine) {
+            this.engine = Objects.requireNonNull(engine);
+            return this;
+        }
+
+        public IntCodeSolver build() {
+            if (positions.isEmpty())
+                throw new IllegalStateException("The solver needs at least one unknown");
+
+            return new IntCodeSolver(this);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.challenge.library.intcodecomputer;
+
+import java.util.Arrays;
+
+/**
+ * Map of primitive int keys to objects, so looking up a key doesn't box it. Open addressing with linear probing: a slot
+ * is empty while its value is null.
+ */
+final class IntObjectMap<V> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys;
+    private V[] values;
+    private int size;
+
+    @FunctionalInterface
+    interface EntryConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    IntObjectMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    @SuppressWarnings("unchecked")
+    private IntObjectMap(int capacity) {
+        keys = new int[capacity];
+        values = (V[]) new Object[capacity];
+    }
+
+    IntObjectMap<V> copy() {
+        IntObjectMap<V> copy = new IntObjectMap<>(0);
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.size = size;
+        return copy;
+    }
+
+    V get(int key) {
+        for (int slot = slot(key); values[slot] != null; slot = next(slot)) {
+            if (keys[slot] == key)
+                return values[slot];
+        }
+        return null;
+    }
+
+    void put(int key, V value) {
+        int slot = slot(key);
+        while (values[slot] != null && keys[slot] != key)
+            slot = next(slot);
+
+        if (values[slot] == null)
+            size++;
+        keys[slot] = key;
+        values[slot] = value;
+
+        if (size > values.length / 2)
+            resize();
+    }
+
+    void remove(int key) {
+        int slot = slot(key);
+        while (values[slot] != null && keys[slot] != key)
+            slot = next(slot);
+        if (values[slot] == null)
+            return;
+
+        values[slot] = null;
+        size--;
+        // Moves back the entries after the removed one that would no longer be found from their slot
+        for (int next = next(slot); values[next] != null; next = next(next)) {
+            final int mask = values.length - 1;
+            if (((next - slot(keys[next])) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                values[next] = null;
+                slot = next;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int[] keys() {
+        int[] sortedKeys = new int[size];
+        int i = 0;
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null)
+                sortedKeys[i++] = keys[slot];
+        }
+        Arrays.sort(sortedKeys);
+        return sortedKeys;
+    }
+
+    void forEach(EntryConsumer<V> consumer) {
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null)
+                consumer.accept(keys[slot], values[slot]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        final int[] oldKeys = keys;
+        final V[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = (V[]) new Object[oldValues.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != null)
+                    slot = next(slot);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private int slot(int key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (values.length - 1);
+    }
+
+    private int next(int slot) {
+        return (slot + 1) & (values.length - 1);
+    }
+}
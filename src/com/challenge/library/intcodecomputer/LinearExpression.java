@@ -0,0 +1,120 @@
+package com.challenge.library.intcodecomputer;
+
+import java.util.Arrays;
+
+/**
+ * Immutable linear expression over the unknowns of a {@link SymbolicExecutor}. Operations overflowing a long throw
+ * {@link ArithmeticException}.
+ */
+public final class LinearExpression {
+    private final long constant;
+    private final long[] coefficients;
+
+    private LinearExpression(long constant, long[] coefficients) {
+        this.constant = constant;
+        this.coefficients = coefficients;
+    }
+
+    public static LinearExpression constant(long value, int numUnknowns) {
+        return new LinearExpression(value, new long[numUnknowns]);
+    }
+
+    public static LinearExpression unknown(int unknown, int numUnknowns) {
+        long[] coefficients = new long[numUnknowns];
+        coefficients[unknown] = 1;
+        return new LinearExpression(0, coefficients);
+    }
+
+    public long getConstant() {
+        return constant;
+    }
+
+    public long getCoefficient(int unknown) {
+        return coefficients[unknown];
+    }
+
+    public int getNumUnknowns() {
+        return coefficients.length;
+    }
+
+    public boolean isConstant() {
+        for (long coefficient : coefficients) {
+            if (coefficient != 0)
+                return false;
+        }
+        return true;
+    }
+
+    public LinearExpression add(LinearExpression other) {
+        long[] result = new long[coefficients.length];
+        for (int i = 0; i < result.length; i++)
+            result[i] = Math.addExact(coefficients[i], other.coefficients[i]);
+
+        return new LinearExpression(Math.addExact(constant, other.constant), result);
+    }
+
+    /**
+     * @return the product, or null if it isn't linear
+     */
+    public LinearExpression multiply(LinearExpression other) {
+        if (!isConstant() && !other.isConstant())
+            return null;
+
+        final LinearExpression expression = isConstant() ? other : this;
+        final long factor = isConstant() ? constant : other.constant;
+        long[] result = new long[coefficients.length];
+        for (int i = 0; i < result.length; i++)
+            result[i] = Math.multiplyExact(expression.coefficients[i], factor);
+
+        return new LinearExpression(Math.multiplyExact(expression.constant, factor), result);
+    }
+
+    public long evaluate(long... values) {
+        long result = constant;
+        for (int i = 0; i < coefficients.length; i++)
+            result = Math.addExact(result, Math.multiplyExact(coefficients[i], values[i]));
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LinearExpression that = (LinearExpression) o;
+        return constant == that.constant && Arrays.equals(coefficients, that.coefficients);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(constant) + Arrays.hashCode(coefficients);
+    }
+
+    /**
+     * @return the expression with the unknowns named x0, x1... (e.g. "460800*x0 + x1 + 797908")
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < coefficients.length; i++) {
+            if (coefficients[i] == 0)
+                continue;
+
+            if (result.length() > 0)
+                result.append(coefficients[i] < 0 ? " - " : " + ");
+            else if (coefficients[i] < 0)
+                result.append('-');
+
+            final long magnitude = Math.abs(coefficients[i]);
+            if (magnitude != 1)
+                result.append(magnitude).append('*');
+            result.append('x').append(i);
+        }
+
+        if (result.length() == 0)
+            return Long.toString(constant);
+        if (constant != 0)
+            result.append(constant < 0 ? " - " : " + ").append(Math.abs(constant));
+        return result.toString();
+    }
+}
@@ -0,0 +1,156 @@
+package com.challenge.library.intcodecomputer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free channel of longs between a single producer thread and a single consumer thread, connecting the
+ * stages of an {@link IntCodePipeline}. The producer only writes the tail of the ring buffer and the consumer only
+ * writes the head, so no locks are needed. A side that can't go on spins for a while and then parks for short periods.
+ */
+public final class LongChannel implements InputSource {
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final int SPINS = 1000;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(LongChannel.class, "head", long.class);
+            TAIL = lookup.findVarHandle(LongChannel.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long[] buffer;
+    private final int mask;
+    // Index of the next value to read, only written by the consumer
+    private volatile long head;
+    // Index of the next value to write, only written by the producer
+    private volatile long tail;
+    // Last head seen by the producer, and last tail seen by the consumer
+    private long producerHead;
+    private long consumerTail;
+    private volatile boolean closed;
+    private volatile boolean cancelled;
+
+    /**
+     * @param capacity maximum number of values in the channel, rounded up to a power of 2
+     */
+    public LongChannel(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("Invalid channel capacity: " + capacity);
+
+        this.buffer = new long[Integer.highestOneBit(capacity * 2 - 1)];
+        this.mask = buffer.length - 1;
+    }
+
+    public int getCapacity() {
+        return buffer.length;
+    }
+
+    public boolean offer(long value) {
+        final long currentTail = (long) TAIL.getOpaque(this);
+        if (currentTail - producerHead >= buffer.length) {
+            producerHead = (long) HEAD.getAcquire(this);
+            if (currentTail - producerHead >= buffer.length)
+                return false;
+        }
+
+        buffer[(int) currentTail & mask] = value;
+        TAIL.setRelease(this, currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Adds the value, waiting for room if the channel is full. The values are discarded once the consumer has cancelled
+     * the channel.
+     *
+     * @throws CancellationException if the thread is interrupted while waiting (the interrupt status is kept)
+     */
+    public void put(long value) {
+        int idleCount = 0;
+        while (!offer(value)) {
+            if (cancelled)
+                return;
+            idleCount = idle(idleCount);
+            if (Thread.currentThread().isInterrupted())
+                throw new CancellationException("Interrupted while waiting for room in the channel");
+        }
+    }
+
+    public void close() {
+        closed = true;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public boolean hasInput() {
+        final long currentHead = (long) HEAD.getOpaque(this);
+        if (currentHead >= consumerTail) {
+            consumerTail = (long) TAIL.getAcquire(this);
+            return currentHead != consumerTail;
+        }
+        return true;
+    }
+
+    @Override
+    public long nextInput() {
+        final long currentHead = (long) HEAD.getOpaque(this);
+        final long value = buffer[(int) currentHead & mask];
+        HEAD.setRelease(this, currentHead + 1);
+        return value;
+    }
+
+    /**
+     * @return true if there's a value to read, false if the channel is closed and all its values have been read
+     */
+    public boolean awaitInput() throws InterruptedException {
+        int idleCount = 0;
+        while (!hasInput()) {
+            // Checked again after reading closed, as the last values may have been added just before closing
+            if (closed && !hasInput())
+                return false;
+            idleCount = idle(idleCount);
+            if (Thread.interrupted())
+                throw new InterruptedException();
+        }
+        return true;
+    }
+
+    /**
+     * @throws IllegalStateException if the channel is closed and all its values have been read
+     */
+    public long take() throws InterruptedException {
+        if (!awaitInput())
+            throw new IllegalStateException("The channel is closed");
+
+        return nextInput();
+    }
+
+    private static int idle(int idleCount) {
+        if (idleCount < SPINS) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return idleCount + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LongChannel{" + (tail - head) + "/" + buffer.length + (closed ? ", closed" : "") + '}';
+    }
+}
@@ -0,0 +1,75 @@
+package com.challenge.library.intcodecomputer;
+
+/**
+ * Counters keyed by primitive longs, for the sparse statistics of the {@link IntCodeProfiler}, so counting doesn't box
+ * the key. Open addressing with linear probing: a slot is empty while its count is 0.
+ */
+final class LongCountMap {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] counts = new long[INITIAL_CAPACITY];
+    private int size;
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long key, long count);
+    }
+
+    void increment(long key) {
+        int slot = slot(key, keys.length);
+        while (counts[slot] != 0 && keys[slot] != key)
+            slot = (slot + 1) & (keys.length - 1);
+
+        if (counts[slot] == 0) {
+            keys[slot] = key;
+            // Resized at 1/2 load, so the probe sequences stay short
+            if (++size > keys.length / 2) {
+                counts[slot] = 1;
+                resize();
+                return;
+            }
+        }
+        counts[slot]++;
+    }
+
+    long get(long key) {
+        for (int slot = slot(key, keys.length); counts[slot] != 0; slot = (slot + 1) & (keys.length - 1)) {
+            if (keys[slot] == key)
+                return counts[slot];
+        }
+        return 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (counts[slot] != 0)
+                consumer.accept(keys[slot], counts[slot]);
+        }
+    }
+
+    private void resize() {
+        final long[] oldKeys = keys;
+        final long[] oldCounts = counts;
+        keys = new long[oldKeys.length * 2];
+        counts = new long[oldCounts.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCounts[i] != 0) {
+                int slot = slot(oldKeys[i], keys.length);
+                while (counts[slot] != 0)
+                    slot = (slot + 1) & (keys.length - 1);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int slot(long key, int capacity) {
+        // Fibonacci hashing: the high bits of the product mix all the bits of the key
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (capacity - 1);
+    }
+}
@@ -0,0 +1,225 @@
+package com.challenge.library.intcodecomputer;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Full state of an int code computer, as saved in a {@link CheckpointFile}.
+ */
+class MachineState {
+    // The unit of the incremental checkpoints
+    static final int PAGE_SIZE = 256;
+
+    private final ExecutionEngine engine;
+    private final boolean feedbackLoopMode;
+    private final boolean askForInputMode;
+    private final int inputCapacity;
+    private final long[] pendingInput;
+    private final boolean memoryAutoExpand;
+    private final int memoryPageSize;
+    private final int memoryMaxSize;
+    private final int memorySize;
+    private final int denseLength;
+    private final int currentPos;
+    private final int previousPos;
+    private final long relativeBase;
+    private final Map<Integer, BigInteger> promotedCells;
+    private final TreeMap<Integer, long[]> pages;
+
+    private MachineState(Builder builder) {
+        this.engine = builder.engine;
+        this.feedbackLoopMode = builder.feedbackLoopMode;
+        this.askForInputMode = builder.askForInputMode;
+        this.inputCapacity = builder.inputCapacity;
+        this.pendingInput = builder.pendingInput;
+        this.memoryAutoExpand = builder.memoryAutoExpand;
+        this.memoryPageSize = builder.memoryPageSize;
+        this.memoryMaxSize = builder.memoryMaxSize;
+        this.memorySize = builder.memorySize;
+        this.denseLength = builder.denseLength;
+        this.currentPos = builder.currentPos;
+        this.previousPos = builder.previousPos;
+        this.relativeBase = builder.relativeBase;
+        this.promotedCells = builder.promotedCells;
+        this.pages = builder.pages;
+    }
+
+    /**
+     * Captures the state of a computer which isn't running. Every page of the memory that may hold a non zero value is
+     * included.
+     */
+    static MachineState capture(InstructionExecutor executor, IntCodeComputer.Configuration configuration) {
+        final IntCodeMemory memory = executor.code;
+        Builder builder = new Builder()
+                .withEngine(executor.getEngine())
+                .withFeedbackLoopMode(configuration.isFeedbackLoopMode())
+                .withAskForInputMode(configuration.isAskForInputMode())
+                .withInput(executor.input.getCapacity(), executor.input.toArray())
+                .withMemorySettings(memory.isAutoExpand(), memory.getPageSize(), memory.getMaxSize())
+                .withMemorySize(memory.getSize(), memory.getDenseLength())
+                .withPositions(memory.getCurrentPos(), memory.getPreviousPos())
+                .withRelativeBase(memory.getLongRelativeBaseOffset())
+                .withPromotedCells(memory.getPromotedCells());
+
+        final int denseCells = Math.min(memory.getDenseLength(), memory.getSize());
+        for (int page = 0; (long) page * PAGE_SIZE < denseCells; page++)
+            builder.withPage(page, readPage(memory, page));
+
+        for (int mappedPage : memory.getMappedPageIndexes()) {
+            final long first = (long) mappedPage * memory.getPageSize();
+            final long last = Math.min(first + memory.getPageSize(), memory.getSize()) - 1;
+            for (long page = first / PAGE_SIZE; page <= last / PAGE_SIZE; page++)
+                builder.withPage((int) page, readPage(memory, (int) page));
+        }
+
+        return builder.build();
+    }
+
+    private static long[] readPage(IntCodeMemory memory, int page) {
+        long[] cells = new long[PAGE_SIZE];
+        memory.readCells(page * PAGE_SIZE, cells);
+        return cells;
+    }
+
+    ExecutionEngine getEngine() {
+        return engine;
+    }
+
+    boolean isFeedbackLoopMode() {
+        return feedbackLoopMode;
+    }
+
+    boolean isAskForInputMode() {
+        return askForInputMode;
+    }
+
+    int getInputCapacity() {
+        return inputCapacity;
+    }
+
+    long[] getPendingInput() {
+        return pendingInput.clone();
+    }
+
+    boolean isMemoryAutoExpand() {
+        return memoryAutoExpand;
+    }
+
+    int getMemoryPageSize() {
+        return memoryPageSize;
+    }
+
+    int getMemoryMaxSize() {
+        return memoryMaxSize;
+    }
+
+    int getMemorySize() {
+        return memorySize;
+    }
+
+    int getDenseLength() {
+        return denseLength;
+    }
+
+    int getCurrentPos() {
+        return currentPos;
+    }
+
+    int getPreviousPos() {
+        return previousPos;
+    }
+
+    long getRelativeBase() {
+        return relativeBase;
+    }
+
+    Map<Integer, BigInteger> getPromotedCells() {
+        return promotedCells;
+    }
+
+    /**
+     * @return the pages of cells by page index. The pages not included are all zero.
+     */
+    TreeMap<Integer, long[]> getPages() {
+        return pages;
+    }
+
+    static class Builder {
+        private ExecutionEngine engine = ExecutionEngine.INTERPRETER;
+        private boolean feedbackLoopMode;
+        private boolean askForInputMode;
+        private int inputCapacity = InputQueue.UNBOUNDED_CAPACITY;
+        private long[] pendingInput = new long[0];
+        private boolean memoryAutoExpand;
+        private int memoryPageSize = IntCodeMemory.DEFAULT_PAGE_SIZE;
+        private int memoryMaxSize = IntCodeMemory.DEFAULT_MAX_SIZE;
+        private int memorySize;
+        private int denseLength;
+        private int currentPos;
+        private int previousPos;
+        private long relativeBase;
+        private Map<Integer, BigInteger> promotedCells = new HashMap<>();
+        private final TreeMap<Integer, long[]> pages = new TreeMap<>();
+
+        Builder withEngine(ExecutionEngine engine) {
+            this.engine = engine;
+            return this;
+        }
+
+        Builder withFeedbackLoopMode(boolean feedbackLoopMode) {
+            this.feedbackLoopMode = feedbackLoopMode;
+            return this;
+        }
+
+        Builder withAskForInputMode(boolean askForInputMode) {
+            this.askForInputMode = askForInputMode;
+            return this;
+        }
+
+        Builder withInput(int inputCapacity, long[] pendingInput) {
+            this.inputCapacity = inputCapacity;
+            this.pendingInput = pendingInput;
+            return this;
+        }
+
+        Builder withMemorySettings(boolean autoExpand, int pageSize, int maxSize) {
+            this.memoryAutoExpand = autoExpand;
+            this.memoryPageSize = pageSize;
+            this.memoryMaxSize = maxSize;
+            return this;
+        }
+
+        Builder withMemorySize(int size, int denseLength) {
+            this.memorySize = size;
+            this.denseLength = denseLength;
+            return this;
+        }
+
+        Builder withPositions(int currentPos, int previousPos) {
+            this.currentPos = currentPos;
+            this.previousPos = previousPos;
+            return this;
+        }
+
+        Builder withRelativeBase(long relativeBase) {
+            this.relativeBase = relativeBase;
+            return this;
+        }
+
+        Builder withPromotedCells(Map<Integer, BigInteger> promotedCells) {
+            this.promotedCells = promotedCells;
+            return this;
+        }
+
+        Builder withPage(int page, long[] cells) {
+            pages.put(page, cells);
+            return this;
+        }
+
+        MachineState build() {
+            return new MachineState(this);
+        }
+    }
+}
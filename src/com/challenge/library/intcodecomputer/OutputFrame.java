@@ -0,0 +1,112 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.IntCodeComputer.ExecutionResult.ResultType;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Reusable buffer of primitive output values. Every execution clears it before adding the new values, so passing the
+ * same frame again doesn't allocate.
+ */
+public class OutputFrame implements OutputSink {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] values;
+    private int size;
+    private ResultType resultType;
+
+    private OutputFrame(int capacity) {
+        this.values = new long[capacity];
+    }
+
+    public ResultType getResultType() {
+        return resultType;
+    }
+
+    public boolean isExecutionFinished() {
+        return resultType == ResultType.EXECUTION_FINISHED;
+    }
+
+    public boolean isInputNeeded() {
+        return resultType == ResultType.INPUT_NEEDED;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long get(int index) {
+        Objects.checkIndex(index, size);
+        return values[index];
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    @Override
+    public void accept(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(1, values.length * 2));
+        }
+        values[size++] = value;
+    }
+
+    void clear() {
+        size = 0;
+        resultType = null;
+    }
+
+    void setResultType(ResultType resultType) {
+        this.resultType = resultType;
+    }
+
+    @Override
+    public String toString() {
+        return "{" + resultType + Arrays.toString(toArray()) + '}';
+    }
+
+    public static class Builder {
+        private int capacity = DEFAULT_CAPACITY;
+        private ResultType resultType;
+        private long[] output = new long[0];
+
+        private Builder() {}
+
+        public static Builder createOutputFrame() {
+            return new Builder();
+        }
+
+        public Builder withCapacity(int capacity) {
+            if (capacity < 0)
+                throw new IllegalArgumentException("The capacity can't be negative: " + capacity);
+
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder withResultType(ResultType resultType) {
+            this.resultType = resultType;
+            return this;
+        }
+
+        public Builder withOutputValues(long... output) {
+            this.output = output.clone();
+            return this;
+        }
+
+        public OutputFrame build() {
+            OutputFrame frame = new OutputFrame(Math.max(capacity, output.length));
+            for (long value : output) {
+                frame.accept(value);
+            }
+            frame.setResultType(resultType);
+            return frame;
+        }
+    }
+}
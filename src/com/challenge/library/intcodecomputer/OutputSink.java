@@ -0,0 +1,6 @@
+package com.challenge.library.intcodecomputer;
+
+@FunctionalInterface
+public interface OutputSink {
+    void accept(long value);
+}
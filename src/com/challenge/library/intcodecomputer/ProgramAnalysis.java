@@ -0,0 +1,156 @@
+package com.challenge.library.intcodecomputer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Result of the static analysis done by the {@link ProgramAnalyzer}: the basic blocks reachable from the start of the
+ * program and the cells written by them.
+ */
+public class ProgramAnalysis {
+    private final int programLength;
+    private final int[] instructionSizes;
+    private final boolean[] codeCells;
+    private final boolean[] writeTargets;
+    private final List<BasicBlock> basicBlocks;
+    private final int[] blockIndexes;
+    private final int[] relativeWrites;
+    private final int[] unresolvedJumps;
+
+    ProgramAnalysis(int programLength, int[] instructionSizes, boolean[] writeTargets, List<BasicBlock> basicBlocks,
+                    int[] relativeWrites, int[] unresolvedJumps) {
+        this.programLength = programLength;
+        this.instructionSizes = instructionSizes;
+        this.writeTargets = writeTargets;
+        this.basicBlocks = Collections.unmodifiableList(basicBlocks);
+        this.relativeWrites = relativeWrites;
+        this.unresolvedJumps = unresolvedJumps;
+
+        this.codeCells = new boolean[programLength];
+        this.blockIndexes = new int[programLength];
+        Arrays.fill(blockIndexes, -1);
+        for (int i = 0; i < basicBlocks.size(); i++) {
+            final BasicBlock block = basicBlocks.get(i);
+            Arrays.fill(blockIndexes, block.getStartPosition(), block.getEndPosition(), i);
+            for (int position : block.instructionPositions)
+                Arrays.fill(codeCells, position, position + instructionSizes[position], true);
+        }
+    }
+
+    public int getProgramLength() {
+        return programLength;
+    }
+
+    public List<BasicBlock> getBasicBlocks() {
+        return basicBlocks;
+    }
+
+    public Optional<BasicBlock> getBlockAt(int position) {
+        return isCode(position) ? Optional.of(basicBlocks.get(blockIndexes[position])) : Optional.empty();
+    }
+
+    public boolean isInstructionStart(int position) {
+        return position >= 0 && position < programLength && instructionSizes[position] > 0;
+    }
+
+    public boolean isCode(int position) {
+        return position >= 0 && position < programLength && codeCells[position];
+    }
+
+    public boolean isWriteTarget(int position) {
+        return position >= 0 && position < programLength && writeTargets[position];
+    }
+
+    public int[] getRelativeWritePositions() {
+        return relativeWrites.clone();
+    }
+
+    /**
+     * @return the positions of the jumps whose target isn't known statically: relative mode targets, and position mode
+     * targets stored in cells that may be written
+     */
+    public int[] getUnresolvedJumpPositions() {
+        return unresolvedJumps.clone();
+    }
+
+    /**
+     * @return true if there are no relative mode writes nor unresolved jumps, so every instruction and every write is
+     * known
+     */
+    public boolean isComplete() {
+        return relativeWrites.length == 0 && unresolvedJumps.length == 0;
+    }
+
+    // Only provable for complete analyses: an unresolved jump or a relative mode write can write anywhere
+    public boolean isImmutable(int position) {
+        return isComplete() && isCode(position) && !writeTargets[position];
+    }
+
+    @Override
+    public String toString() {
+        return "ProgramAnalysis{" +
+                "programLength=" + programLength +
+                ", basicBlocks=" + basicBlocks.size() +
+                ", relativeWrites=" + relativeWrites.length +
+                ", unresolvedJumps=" + unresolvedJumps.length +
+                '}';
+    }
+
+    public static class BasicBlock {
+        private final int[] instructionPositions;
+        private final int endPosition;
+        private final int[] successors;
+        private final boolean unresolvedJump;
+
+        BasicBlock(int[] instructionPositions, int endPosition, int[] successors, boolean unresolvedJump) {
+            this.instructionPositions = instructionPositions;
+            this.endPosition = endPosition;
+            this.successors = successors;
+            this.unresolvedJump = unresolvedJump;
+        }
+
+        public int getStartPosition() {
+            return instructionPositions[0];
+        }
+
+        public int getEndPosition() {
+            return endPosition;
+        }
+
+        public int getLastInstructionPosition() {
+            return instructionPositions[instructionPositions.length - 1];
+        }
+
+        public int[] getInstructionPositions() {
+            return instructionPositions.clone();
+        }
+
+        public int getNumInstructions() {
+            return instructionPositions.length;
+        }
+
+        /**
+         * @return the start positions of the blocks the execution can continue with. For unresolved jumps, only the
+         * target given by the initial value of the code (if any) and the fall through are known.
+         */
+        public int[] getSuccessors() {
+            return successors.clone();
+        }
+
+        public boolean hasUnresolvedJump() {
+            return unresolvedJump;
+        }
+
+        @Override
+        public String toString() {
+            return "BasicBlock{" +
+                    "start=" + getStartPosition() +
+                    ", end=" + endPosition +
+                    ", successors=" + Arrays.toString(successors) +
+                    ", unresolvedJump=" + unresolvedJump +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.challenge.library.intcodecomputer;
+
+import java.math.BigInteger;
+import java.util.*;
+
+import static com.challenge.library.intcodecomputer.InstructionDecodeTable.*;
+
+/**
+ * Static analysis of int code programs: finds the code reachable from the start of the program, following the fall
+ * through and the jumps whose targets are known statically, splits it in basic blocks and flags the cells written by
+ * the program.
+ */
+public final class ProgramAnalyzer {
+    private final long[] code;
+    private final int[] instructionSizes;
+    private final boolean[] leaders;
+    private final boolean[] writeTargets;
+    private final List<Integer> relativeWrites = new ArrayList<>();
+    private final List<Integer> unresolvedJumps = new ArrayList<>();
+    private final List<Integer> positionModeJumps = new ArrayList<>();
+    private final Map<Integer, int[]> jumpSuccessors = new HashMap<>();
+
+    private ProgramAnalyzer(long[] code) {
+        this.code = code;
+        this.instructionSizes = new int[code.length];
+        this.leaders = new boolean[code.length];
+        this.writeTargets = new boolean[code.length];
+    }
+
+    public static ProgramAnalysis analyze(long[] code) {
+        return new ProgramAnalyzer(code.clone()).doAnalyze();
+    }
+
+    // The values that don't fit in a long are never valid instructions nor addresses, so they're analyzed as data
+    public static ProgramAnalysis analyze(BigInteger[] code) {
+        return new ProgramAnalyzer(Arrays.stream(code)
+                .mapToLong(value -> value.bitLength() < Long.SIZE ? value.longValue() : IntCodeMemory.PROMOTED_CELL)
+                .toArray())
+                .doAnalyze();
+    }
+
+    private ProgramAnalysis doAnalyze() {
+        discoverInstructions();
+        findWrittenJumpTargets();
+        List<ProgramAnalysis.BasicBlock> blocks = buildBlocks();
+        return new ProgramAnalysis(code.length, instructionSizes, writeTargets, blocks,
+                toArray(relativeWrites), toArray(unresolvedJumps));
+    }
+
+    private void discoverInstructions() {
+        Deque<Integer> pending = new ArrayDeque<>();
+        addLeader(0, pending);
+
+        while (!pending.isEmpty()) {
+            int pc = pending.poll();
+            while (pc >= 0 && pc < code.length && instructionSizes[pc] == 0) {
+                final int entry = decode(code[pc]);
+                final int size = getSize(entry);
+                if (entry == INVALID || pc + size > code.length)
+                    break;
+
+                instructionSizes[pc] = size;
+                final int opCode = getOpCode(entry);
+                if (opCode == 99)
+                    break;
+
+                recordWrite(pc, entry);
+                if (opCode == 1 || opCode == 2)
+                    addComputedAddress(pc, entry, pending);
+
+                if (opCode == 5 || opCode == 6) {
+                    final int[] successors = getJumpSuccessors(pc, entry);
+                    jumpSuccessors.put(pc, successors);
+                    for (int successor : successors)
+                        addLeader(successor, pending);
+                    break;
+                }
+                pc += size;
+            }
+        }
+    }
+
+    // The successor found with the initial value of a written target cell is just a guess
+    private void findWrittenJumpTargets() {
+        for (int pc : positionModeJumps) {
+            final long parameter = code[pc + 2];
+            if (parameter < 0 || parameter >= code.length || writeTargets[(int) parameter] || !relativeWrites.isEmpty())
+                unresolvedJumps.add(pc);
+        }
+        Collections.sort(unresolvedJumps);
+    }
+
+    private void recordWrite(int pc, int entry) {
+        final int paramIndex = switch (getOpCode(entry)) {
+            case 1, 2, 7, 8 -> 2;
+            case 3 -> 0;
+            default -> -1;
+        };
+        if (paramIndex < 0)
+            return;
+
+        final long address = code[pc + 1 + paramIndex];
+        if (getParameterMode(entry, paramIndex) == 2)
+            relativeWrites.add(pc);
+        else if (address >= 0 && address < code.length)
+            writeTargets[(int) address] = true;
+    }
+
+    // The result of an arithmetic instruction on immediate values is an entry point if it's in the program (usually a
+    // return address)
+    private void addComputedAddress(int pc, int entry, Deque<Integer> pending) {
+        if (getParameterMode(entry, 0) != 1 || getParameterMode(entry, 1) != 1)
+            return;
+
+        final long value1 = code[pc + 1];
+        final long value2 = code[pc + 2];
+        final long address = getOpCode(entry) == 1 ? CompiledCode.add(value1, value2) : CompiledCode.multiply(value1, value2);
+        if (address > 0 && address < code.length)
+            addLeader((int) address, pending);
+    }
+
+    private int[] getJumpSuccessors(int pc, int entry) {
+        final boolean jumpIfTrue = getOpCode(entry) == 5;
+        boolean canJump = true;
+        boolean canFallThrough = true;
+        if (getParameterMode(entry, 0) == 1) {
+            canJump = (code[pc + 1] != 0) == jumpIfTrue;
+            canFallThrough = !canJump;
+        }
+
+        long target = -1;
+        if (canJump) {
+            final long parameter = code[pc + 2];
+            switch (getParameterMode(entry, 1)) {
+                case 1 -> target = parameter;
+                case 0 -> {
+                    target = parameter >= 0 && parameter < code.length ? code[(int) parameter] : -1;
+                    positionModeJumps.add(pc);
+                }
+                default -> unresolvedJumps.add(pc);
+            }
+        }
+
+        List<Integer> successors = new ArrayList<>(2);
+        if (target >= 0 && target < code.length)
+            successors.add((int) target);
+        if (canFallThrough && pc + 3 < code.length && !successors.contains(pc + 3))
+            successors.add(pc + 3);
+        return toArray(successors);
+    }
+
+    private void addLeader(int position, Deque<Integer> pending) {
+        if (position >= 0 && position < code.length && !leaders[position]) {
+            leaders[position] = true;
+            pending.add(position);
+        }
+    }
+
+    private List<ProgramAnalysis.BasicBlock> buildBlocks() {
+        List<ProgramAnalysis.BasicBlock> blocks = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        int expectedPosition = -1;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            if (instructionSizes[pc] == 0)
+                continue;
+
+            if (!positions.isEmpty() && (leaders[pc] || pc != expectedPosition)) {
+                blocks.add(createBlock(positions));
+                positions.clear();
+            }
+            positions.add(pc);
+            expectedPosition = pc + instructionSizes[pc];
+
+            final int opCode = getOpCode(decode(code[pc]));
+            if (opCode == 5 || opCode == 6 || opCode == 99) {
+                blocks.add(createBlock(positions));
+                positions.clear();
+            }
+        }
+        if (!positions.isEmpty())
+            blocks.add(createBlock(positions));
+
+        return blocks;
+    }
+
+    private ProgramAnalysis.BasicBlock createBlock(List<Integer> positions) {
+        final int last = positions.get(positions.size() - 1);
+        final int end = last + instructionSizes[last];
+
+        int[] successors;
+        if (jumpSuccessors.containsKey(last)) {
+            // Targets that aren't valid instructions are left out
+            successors = Arrays.stream(jumpSuccessors.get(last)).filter(position -> instructionSizes[position] > 0).toArray();
+        } else if (getOpCode(decode(code[last])) == 99 || end >= code.length || instructionSizes[end] == 0) {
+            // Halt, or falling through to a cell that isn't a valid instruction
+            successors = new int[0];
+        } else {
+            successors = new int[] {end};
+        }
+
+        return new ProgramAnalysis.BasicBlock(toArray(positions), end, successors, Collections.binarySearch(unresolvedJumps, last) >= 0);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
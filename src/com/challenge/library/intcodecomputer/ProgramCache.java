@@ -0,0 +1,155 @@
+package com.challenge.library.intcodecomputer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+
+/**
+ * Content addressed cache of parsed int code programs on disk, one file per program named after the SHA-256 hash of its
+ * text:
+ * <pre>
+ *   int magic, int version, int number of cells, int number of big cells
+ *   long cells[number of cells]           (the big cells hold {@link IntCodeMemory#PROMOTED_CELL})
+ *   {int position, int length, byte[length] two's complement value} for every big cell
+ * </pre>
+ * A missing or corrupted file is just a miss. A hit still hashes the text, so it only pays off for programs of several
+ * KB (see ProgramLoadingBenchmark).
+ */
+public class ProgramCache {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int MAGIC = 0x49434F44;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+    private static final String EXTENSION = ".icp";
+
+    public static final int DEFAULT_MIN_PROGRAM_SIZE = 8 * 1024;
+
+    private final Path directory;
+    private final int minProgramSize;
+
+    public ProgramCache(Path directory) {
+        this(directory, DEFAULT_MIN_PROGRAM_SIZE);
+    }
+
+    ProgramCache(Path directory, int minProgramSize) {
+        this.directory = directory;
+        this.minProgramSize = minProgramSize;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    boolean isWorthCaching(int programSize) {
+        return programSize >= minProgramSize;
+    }
+
+    /**
+     * @return the hex SHA-256 hash of the program text
+     */
+    static String getKey(byte[] programText) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(programText);
+            StringBuilder key = new StringBuilder(hash.length * 2);
+            for (byte b : hash)
+                key.append(String.format("%02x", b));
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    Path getFile(String key) {
+        return directory.resolve(key + EXTENSION);
+    }
+
+    Optional<IntCodeParser.ParsedCode> get(String key) {
+        final Path file = getFile(key);
+        if (!Files.isRegularFile(file))
+            return Optional.empty();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return Optional.of(decode(buffer.order(ByteOrder.LITTLE_ENDIAN)));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable program cache file {}: {}", file, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    // Errors are logged and ignored
+    void put(String key, IntCodeParser.ParsedCode code) {
+        final Path file = getFile(key);
+        try {
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, key, ".tmp");
+            try {
+                Files.write(tempFile, encode(code).array());
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to write the program cache file {}: {}", file, e.toString());
+        }
+    }
+
+    private static ByteBuffer encode(IntCodeParser.ParsedCode code) {
+        final long[] cells = code.getCells();
+        int numBigCells = 0;
+        int bigCellsSize = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (code.getBigCell(i) != null) {
+                numBigCells++;
+                bigCellsSize += 2 * Integer.BYTES + code.getBigCell(i).toByteArray().length;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + cells.length * Long.BYTES + bigCellsSize)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(cells.length).putInt(numBigCells);
+        buffer.asLongBuffer().put(cells);
+        buffer.position(HEADER_SIZE + cells.length * Long.BYTES);
+        for (int i = 0; i < cells.length; i++) {
+            if (code.getBigCell(i) != null) {
+                byte[] bytes = code.getBigCell(i).toByteArray();
+                buffer.putInt(i).putInt(bytes.length).put(bytes);
+            }
+        }
+        return buffer;
+    }
+
+    private static IntCodeParser.ParsedCode decode(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+            throw new IOException("Not a program cache file, or written by another version");
+
+        final int numCells = buffer.getInt();
+        final int numBigCells = buffer.getInt();
+        long[] cells = new long[numCells];
+        buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(cells);
+
+        BigInteger[] bigCells = numBigCells > 0 ? new BigInteger[numCells] : null;
+        buffer.position(HEADER_SIZE + numCells * Long.BYTES);
+        for (int i = 0; i < numBigCells; i++) {
+            final int position = buffer.getInt();
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            bigCells[position] = new BigInteger(bytes);
+        }
+        if (buffer.hasRemaining())
+            throw new IOException("Unexpected data at the end of the program cache file");
+
+        return new IntCodeParser.ParsedCode(cells, bigCells);
+    }
+}
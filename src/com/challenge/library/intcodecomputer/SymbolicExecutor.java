@@ -0,0 +1,208 @@
+package com.challenge.library.intcodecomputer;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static com.challenge.library.intcodecomputer.InstructionDecodeTable.*;
+
+/**
+ * Runs an int code program with some of its cells holding unknown values, tracking the value of every cell as a {@link
+ * LinearExpression} of the unknowns. The values that aren't linear are undefined, but the execution only stops when its
+ * control flow, an address written or a value compared depends on them, or on input and output instructions.
+ * <p>
+ * The reads from addresses depending on the unknowns aren't checked, so the program may still fail for some values of
+ * the unknowns.
+ */
+public final class SymbolicExecutor {
+    public static final long DEFAULT_MAX_INSTRUCTIONS = 10_000_000;
+
+    // The cells with undefined values are null
+    private final LinearExpression[] memory;
+    private final int numUnknowns;
+    private int pc;
+    private long relativeBase;
+
+    private SymbolicExecutor(long[] code, int[] unknownPositions) {
+        this.numUnknowns = unknownPositions.length;
+        this.memory = new LinearExpression[code.length];
+        for (int position = 0; position < code.length; position++)
+            memory[position] = LinearExpression.constant(code[position], numUnknowns);
+        for (int unknown = 0; unknown < numUnknowns; unknown++)
+            memory[unknownPositions[unknown]] = LinearExpression.unknown(unknown, numUnknowns);
+    }
+
+    /**
+     * Runs the program with the cells at the given positions as unknowns x0, x1... (whatever value they hold in the
+     * code is ignored), for maxInstructions instructions at most.
+     */
+    public static Result execute(long[] code, int[] unknownPositions, long maxInstructions) {
+        for (int position : unknownPositions) {
+            if (position < 0 || position >= code.length)
+                throw new IllegalArgumentException(String.format("Unknown position %d out of the program", position));
+        }
+
+        return new SymbolicExecutor(code, unknownPositions).run(maxInstructions);
+    }
+
+    public static Result execute(long[] code, int... unknownPositions) {
+        return execute(code, unknownPositions, DEFAULT_MAX_INSTRUCTIONS);
+    }
+
+    private Result run(long maxInstructions) {
+        try {
+            for (long count = 0; count < maxInstructions; count++) {
+                final Long instruction = constantAt(pc);
+                final int entry = instruction != null ? decode(instruction) : INVALID;
+                if (entry == INVALID)
+                    return unsupported("Not a valid constant instruction");
+
+                final int opCode = getOpCode(entry);
+                switch (opCode) {
+                    case 1, 2 -> {
+                        final LinearExpression value1 = read(entry, 0);
+                        final LinearExpression value2 = read(entry, 1);
+                        final LinearExpression result;
+                        if (value1 == null || value2 == null) {
+                            result = null;
+                        } else {
+                            result = opCode == 1 ? value1.add(value2) : value1.multiply(value2);
+                        }
+                        write(entry, 2, result);
+                        pc += 4;
+                    }
+                    case 5, 6 -> {
+                        final long condition = constant(read(entry, 0));
+                        final long target = constant(read(entry, 1));
+                        if ((condition != 0) == (opCode == 5)) {
+                            if (target < 0 || target >= memory.length)
+                                return unsupported("Jump out of the program");
+                            pc = (int) target;
+                        } else {
+                            pc += 3;
+                        }
+                    }
+                    case 7, 8 -> {
+                        final long value1 = constant(read(entry, 0));
+                        final long value2 = constant(read(entry, 1));
+                        final boolean result = opCode == 7 ? value1 < value2 : value1 == value2;
+                        write(entry, 2, LinearExpression.constant(result ? 1 : 0, numUnknowns));
+                        pc += 4;
+                    }
+                    case 9 -> {
+                        relativeBase = Math.addExact(relativeBase, constant(read(entry, 0)));
+                        pc += 2;
+                    }
+                    case 99 -> {
+                        return new Result(Status.FINISHED, memory, null);
+                    }
+                    default -> {
+                        return unsupported("Input and output instructions aren't supported");
+                    }
+                }
+            }
+        } catch (UnsupportedExecution e) {
+            return unsupported(e.getMessage());
+        } catch (ArithmeticException e) {
+            return unsupported("Overflow");
+        }
+
+        return unsupported("Too many instructions executed");
+    }
+
+    /**
+     * @return the value of the parameter, or null if it's undefined
+     */
+    private LinearExpression read(int entry, int paramIndex) {
+        final LinearExpression parameter = cellAt(pc + 1 + paramIndex);
+        if (getParameterMode(entry, paramIndex) == 1)
+            return parameter;
+        if (parameter == null || !parameter.isConstant())
+            return null;
+
+        return cellAt(address(entry, paramIndex));
+    }
+
+    private void write(int entry, int paramIndex, LinearExpression value) {
+        memory[address(entry, paramIndex)] = value;
+    }
+
+    private int address(int entry, int paramIndex) {
+        long address = constant(cellAt(pc + 1 + paramIndex));
+        if (getParameterMode(entry, paramIndex) == 2)
+            address = Math.addExact(relativeBase, address);
+        if (address < 0 || address >= memory.length)
+            throw new UnsupportedExecution(String.format("Position %d out of the program", address));
+
+        return (int) address;
+    }
+
+    private LinearExpression cellAt(long position) {
+        if (position < 0 || position >= memory.length)
+            throw new UnsupportedExecution(String.format("Position %d out of the program", position));
+
+        return memory[(int) position];
+    }
+
+    private Long constantAt(int position) {
+        final LinearExpression value = position >= 0 && position < memory.length ? memory[position] : null;
+        return value != null && value.isConstant() ? value.getConstant() : null;
+    }
+
+    private long constant(LinearExpression value) {
+        if (value == null || !value.isConstant())
+            throw new UnsupportedExecution(String.format("The execution depends on unknowns at position %d", pc));
+
+        return value.getConstant();
+    }
+
+    private Result unsupported(String reason) {
+        return new Result(Status.UNSUPPORTED, null, String.format("%s (position %d)", reason, pc));
+    }
+
+    public enum Status {
+        FINISHED,
+        UNSUPPORTED
+    }
+
+    public static final class Result {
+        private final Status status;
+        private final LinearExpression[] memory;
+        private final String reason;
+
+        private Result(Status status, LinearExpression[] memory, String reason) {
+            this.status = status;
+            this.memory = memory;
+            this.reason = reason;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public boolean isFinished() {
+            return status == Status.FINISHED;
+        }
+
+        /**
+         * @return the final value of the cell, if the program halted and the value isn't undefined
+         */
+        public Optional<LinearExpression> getCell(int position) {
+            return memory != null && position >= 0 && position < memory.length ? Optional.ofNullable(memory[position]) : Optional.empty();
+        }
+
+        public Optional<String> getReason() {
+            return Optional.ofNullable(reason);
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" + status + (reason != null ? ", " + reason : "") + (memory != null ? ", " + Arrays.toString(memory) : "") + '}';
+        }
+    }
+
+    private static class UnsupportedExecution extends RuntimeException {
+        UnsupportedExecution(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
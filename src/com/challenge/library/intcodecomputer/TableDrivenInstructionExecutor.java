@@ -0,0 +1,271 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.ExecutionException;
+
+import java.math.BigInteger;
+
+import static com.challenge.library.intcodecomputer.InstructionDecodeTable.*;
+import static com.challenge.library.intcodecomputer.IntCodeMemory.PROMOTED_CELL;
+
+/**
+ * Instruction executor that runs the code straight from the memory cells, decoding them through the {@link
+ * InstructionDecodeTable} without allocating anything per instruction. Anything out of the ordinary is delegated to the
+ * interpreter for that single instruction, so the results and errors are the same.
+ */
+class TableDrivenInstructionExecutor extends InstructionExecutor {
+    int pc;
+    long relativeBase;
+
+    TableDrivenInstructionExecutor(IntCodeMemory code, InputQueue input) {
+        super(code, input);
+    }
+
+    @Override
+    TableDrivenInstructionExecutor fork() {
+        return new TableDrivenInstructionExecutor(code.fork(), input.copy());
+    }
+
+    // Nothing to decode: the code is run straight from the memory cells
+    @Override
+    void decodeProgram() {
+    }
+
+    @Override
+    ExecutionEngine getEngine() {
+        return ExecutionEngine.TABLE_DRIVEN;
+    }
+
+    @Override
+    public Instruction.InstructionResult executeUntilEvent() throws ExecutionException {
+        loadState();
+        return executeInstructions(true);
+    }
+
+    @Override
+    Instruction.InstructionResult executeSteps() throws ExecutionException {
+        loadState();
+        while (stepsLeft > 0) {
+            stepsLeft--;
+            Instruction.InstructionResult result = executeInstructions(false);
+            if (result != null)
+                return result;
+        }
+        saveState();
+        return null;
+    }
+
+    /**
+     * @return the result of the instruction that gave the event, an empty result if the output sink got all the output
+     * values it was waiting for, or null if no event was found
+     */
+    Instruction.InstructionResult executeInstructions(boolean untilEvent) throws ExecutionException {
+        do {
+            final int entry = decode(code.readCell(pc));
+
+            final boolean executed;
+            switch (getOpCode(entry)) {
+                case 1 -> executed = executeArithmetic(entry, false);
+                case 2 -> executed = executeArithmetic(entry, true);
+                case 3 -> executed = executeInput(entry);
+                case 4 -> {
+                    final long value = readParameter(entry, 0);
+                    if (value == PROMOTED_CELL) {
+                        executed = false;
+                    } else if (outputSink != null) {
+                        syncState(pc + 2);
+                        pc += 2;
+                        numInstructions++;
+                        numOutputs++;
+                        publishCounters();
+                        outputSink.accept(value);
+                        if (--outputsLeft == 0)
+                            return Instruction.InstructionResult.emptyInstructionResult();
+                        continue;
+                    } else {
+                        syncState(pc + 2);
+                        numInstructions++;
+                        numOutputs++;
+                        publishCounters();
+                        return Instruction.InstructionResult.ofOutput(BigInteger.valueOf(value));
+                    }
+                }
+                case 5 -> executed = executeJump(entry, true);
+                case 6 -> executed = executeJump(entry, false);
+                case 7 -> executed = executeComparison(entry, true);
+                case 8 -> executed = executeComparison(entry, false);
+                case 9 -> executed = executeAdjustRelativeBase(entry);
+                case 99 -> {
+                    syncState(pc + 1);
+                    numInstructions++;
+                    publishCounters();
+                    return Instruction.InstructionResult.endOfExecutionResult();
+                }
+                default -> executed = false;
+            }
+
+            if (executed) {
+                numInstructions++;
+            } else {
+                Instruction.InstructionResult result = executeWithInterpreter();
+                if (!result.isEmptyResult())
+                    return result;
+            }
+        } while (untilEvent);
+
+        publishCounters();
+        return null;
+    }
+
+    private boolean executeArithmetic(int entry, boolean multiply) {
+        final long value1 = readParameter(entry, 0);
+        final long value2 = readParameter(entry, 1);
+        if (value1 == PROMOTED_CELL || value2 == PROMOTED_CELL)
+            return false;
+
+        final long result;
+        try {
+            result = multiply ? Math.multiplyExact(value1, value2) : Math.addExact(value1, value2);
+        } catch (ArithmeticException e) {
+            return false;
+        }
+
+        return write(entry, 2, result, 4);
+    }
+
+    private boolean executeInput(int entry) {
+        if (input.isEmpty())
+            return executeInputFromSource(entry);
+
+        if (!write(entry, 0, input.peek(), 2))
+            return false;
+
+        input.poll();
+        return true;
+    }
+
+    private boolean executeInputFromSource(int entry) {
+        if (inputSource == null || !inputSource.hasInput())
+            return false;
+
+        final long value = inputSource.nextInput();
+        if (write(entry, 0, value, 2))
+            return true;
+
+        // Left for the interpreter, which takes the values added to the executor first
+        input.add(value);
+        return false;
+    }
+
+    private boolean executeJump(int entry, boolean jumpIfTrue) {
+        final long condition = readParameter(entry, 0);
+        if (condition == PROMOTED_CELL)
+            return false;
+
+        if ((condition != 0) != jumpIfTrue) {
+            pc += 3;
+            return true;
+        }
+
+        final long target = readParameter(entry, 1);
+        if (target < 0 || target > Integer.MAX_VALUE)
+            return false;
+
+        pc = (int) target;
+        publishInstructions();
+        return true;
+    }
+
+    private boolean executeComparison(int entry, boolean lessThan) {
+        final long value1 = readParameter(entry, 0);
+        final long value2 = readParameter(entry, 1);
+        if (value1 == PROMOTED_CELL || value2 == PROMOTED_CELL)
+            return false;
+
+        final boolean result = lessThan ? value1 < value2 : value1 == value2;
+        return write(entry, 2, result ? 1L : 0L, 4);
+    }
+
+    private boolean executeAdjustRelativeBase(int entry) {
+        final long increment = readParameter(entry, 0);
+        if (increment == PROMOTED_CELL)
+            return false;
+
+        final long newRelativeBase = relativeBase + increment;
+        if (overflows(relativeBase, increment, newRelativeBase))
+            return false;
+
+        relativeBase = newRelativeBase;
+        pc += 2;
+        return true;
+    }
+
+    /**
+     * @return the value of the parameter, or PROMOTED_CELL if it can't be read through the fast path
+     */
+    private long readParameter(int entry, int paramIndex) {
+        final long rawValue = code.readCell(pc + 1 + paramIndex);
+        if (rawValue == PROMOTED_CELL)
+            return PROMOTED_CELL;
+
+        switch (getParameterMode(entry, paramIndex)) {
+            case 0:
+                return code.readCell(rawValue);
+            case 1:
+                return rawValue;
+            default: {
+                final long position = relativeBase + rawValue;
+                return overflows(relativeBase, rawValue, position) ? PROMOTED_CELL : code.readCell(position);
+            }
+        }
+    }
+
+    private boolean write(int entry, int paramIndex, long value, int instructionSize) {
+        final long rawValue = code.readCell(pc + 1 + paramIndex);
+        if (rawValue == PROMOTED_CELL)
+            return false;
+
+        final long position;
+        if (getParameterMode(entry, paramIndex) == 0) {
+            position = rawValue;
+        } else {
+            position = relativeBase + rawValue;
+            if (overflows(relativeBase, rawValue, position))
+                return false;
+        }
+
+        if (!code.writeCell(position, value))
+            return false;
+
+        pc += instructionSize;
+        return true;
+    }
+
+    private Instruction.InstructionResult executeWithInterpreter() throws ExecutionException {
+        saveState();
+
+        Instruction.InstructionResult result = executeNextInstruction();
+
+        pc = code.getCurrentPos();
+        relativeBase = code.getLongRelativeBaseOffset();
+        return result;
+    }
+
+    void loadState() {
+        pc = code.getCurrentPos();
+        relativeBase = code.getLongRelativeBaseOffset();
+    }
+
+    void saveState() {
+        code.setPositions(pc, pc);
+        code.setRelativeBaseOffset(relativeBase);
+    }
+
+    private void syncState(int nextPc) {
+        code.setPositions(nextPc, pc);
+        code.setRelativeBaseOffset(relativeBase);
+    }
+
+    static boolean overflows(long value1, long value2, long sum) {
+        return ((value1 ^ sum) & (value2 ^ sum)) < 0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.challenge.library.intcodecomputer.exception;
+
+public class InputQueueFullException extends RuntimeException {
+    public InputQueueFullException(int capacity, int numValues) {
+        super(String.format("Can't add %d input value(s): the input queue is full. Capacity: %d", numValues, capacity));
+    }
+}
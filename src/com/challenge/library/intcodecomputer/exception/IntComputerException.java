@@ -1,10 +1,31 @@
 package com.challenge.library.intcodecomputer.exception;
 
+import java.util.Optional;
+
 public class IntComputerException extends Exception {
+    private final String executionTrace;
+
     public IntComputerException(String message) {
         super(message);
+        this.executionTrace = null;
     }
     public IntComputerException(String message, Throwable t) {
         super(message, t);
+        this.executionTrace = null;
+    }
+
+    /**
+     * @param executionTrace dump of the last instructions executed before the error
+     */
+    public IntComputerException(String message, Throwable t, String executionTrace) {
+        super(message, t);
+        this.executionTrace = executionTrace;
+    }
+
+    /**
+     * @return the dump of the last instructions executed before the error, if the computer kept an execution trace
+     */
+    public Optional<String> getExecutionTrace() {
+        return Optional.ofNullable(executionTrace);
     }
 }
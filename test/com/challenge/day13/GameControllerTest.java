@@ -7,13 +7,14 @@ import com.challenge.day13.exception.WrongTileException;
 import com.challenge.library.geometry.model.Int2DPoint;
 import com.challenge.library.intcodecomputer.IntCodeComputer;
 import com.challenge.library.intcodecomputer.IntCodeComputer.ExecutionResult;
+import com.challenge.library.intcodecomputer.OutputFrame;
 import com.challenge.library.intcodecomputer.exception.IntComputerException;
 import com.challenge.day13.GameMovementResult.MovementType;
 import static com.challenge.day13.GameController.Builder.createGameController;
 import static com.challenge.day13.GameMovementResult.Builder.createNewGameMovementResult;
 import static com.challenge.day13.GameLogicExecutionOutput.createTileChangedOutput;
 import static com.challenge.day13.GameLogicExecutionOutput.createScoreUpdatedOutput;
-import static com.challenge.library.intcodecomputer.IntCodeComputer.ExecutionResult.Builder.createExecutionResult;
+import static com.challenge.library.intcodecomputer.OutputFrame.Builder.createOutputFrame;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -23,7 +24,6 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -31,6 +31,8 @@ import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -297,10 +299,8 @@ public class GameControllerTest {
         var gameController = createGameController(intCodeComputer)
                 .build();
 
-        when(intCodeComputer.executeCode())
-                .thenReturn(longToNextOutputExecutionResult(4))
-                .thenReturn(longToNextOutputExecutionResult(5))
-                .thenReturn(createExecutionResult().withResultType(ExecutionResult.ResultType.EXECUTION_FINISHED).build());
+        when(intCodeComputer.executeUntilOutputs(any(), eq(3)))
+                .thenReturn(createOutputFrame().withResultType(ExecutionResult.ResultType.EXECUTION_FINISHED).withOutputValues(4, 5).build());
 
         try {
             gameController.moveGame(null);
@@ -321,9 +321,7 @@ public class GameControllerTest {
         var gameController = createGameController(intCodeComputer)
                 .build();
 
-        when(intCodeComputer.executeCode())
-                .thenReturn(longToNextOutputExecutionResult(4))
-                .thenReturn(longToNextOutputExecutionResult(5))
+        when(intCodeComputer.executeUntilOutputs(any(), eq(3)))
                 .thenThrow(new IntComputerException("Error executing the Int Code Computer"));
 
         try {
@@ -346,10 +344,8 @@ public class GameControllerTest {
                 .withScreenSize(10, 10)
                 .build();
 
-        when(intCodeComputer.executeCode())
-                .thenReturn(longToNextOutputExecutionResult(12))
-                .thenReturn(longToNextOutputExecutionResult(5))
-                .thenReturn(longToNextOutputExecutionResult(2));
+        when(intCodeComputer.executeUntilOutputs(any(), eq(3)))
+                .thenReturn(longsToNextOutputFrame(12, 5, 2));
 
         try {
             gameController.moveGame(null);
@@ -371,10 +367,8 @@ public class GameControllerTest {
                 .withScreenSize(10, 10)
                 .build();
 
-        when(intCodeComputer.executeCode())
-                .thenReturn(longToNextOutputExecutionResult(2))
-                .thenReturn(longToNextOutputExecutionResult(5))
-                .thenReturn(longToNextOutputExecutionResult(8));
+        when(intCodeComputer.executeUntilOutputs(any(), eq(3)))
+                .thenReturn(longsToNextOutputFrame(2, 5, 8));
 
         try {
             gameController.moveGame(null);
@@ -471,23 +465,19 @@ public class GameControllerTest {
         }
     }
     private void stubTileOutput(Tile tile) throws IntComputerException {
-        when(intCodeComputer.executeCode())
-            .thenReturn(longToNextOutputExecutionResult(tile.getPosition().getX()))
-            .thenReturn(longToNextOutputExecutionResult(tile.getPosition().getY()))
-            .thenReturn(longToNextOutputExecutionResult(tile.getTileType().getId()));
+        when(intCodeComputer.executeUntilOutputs(any(), eq(3)))
+            .thenReturn(longsToNextOutputFrame(tile.getPosition().getX(), tile.getPosition().getY(), tile.getTileType().getId()));
     }
 
     private void stubScoreOutput(long score) throws IntComputerException {
-        when(intCodeComputer.executeCode())
-            .thenReturn(longToNextOutputExecutionResult(-1L))
-            .thenReturn(longToNextOutputExecutionResult(0L))
-            .thenReturn(longToNextOutputExecutionResult(score));
+        when(intCodeComputer.executeUntilOutputs(any(), eq(3)))
+            .thenReturn(longsToNextOutputFrame(-1L, 0L, score));
     }
 
-    private ExecutionResult longToNextOutputExecutionResult(long l) {
-        return createExecutionResult()
+    private OutputFrame longsToNextOutputFrame(long... values) {
+        return createOutputFrame()
                 .withResultType(ExecutionResult.ResultType.NEXT_OUTPUT)
-                .addOutputValue(BigInteger.valueOf(l))
+                .withOutputValues(values)
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.restoreIntCodeComputer;
+import static org.testng.Assert.*;
+
+public class CheckpointFileTest {
+    // Reads an input value, adds it to the total at position 50001 and outputs the total, forever
+    private static final long[] ACCUMULATOR_CODE = {3, 50000, 1, 50000, 50001, 50001, 4, 50001, 1105, 1, 0};
+
+    private Path checkpointPath;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        checkpointPath = Files.createTempFile("intcode", ".checkpoint");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(checkpointPath);
+    }
+
+    @DataProvider(name = "engines")
+    public Object[][] engines() {
+        return Arrays.stream(ExecutionEngine.values()).map(engine -> new Object[] {engine}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testRestore(ExecutionEngine engine) throws IOException, IntComputerException {
+        IntCodeComputer computer = createAccumulator(engine);
+        CheckpointFile checkpointFile = CheckpointFile.create(checkpointPath);
+
+        assertEquals(nextOutput(computer, 5), 5);
+        checkpointFile.write(computer);
+        assertEquals(nextOutput(computer, 7), 12);
+        checkpointFile.write(computer);
+        assertEquals(nextOutput(computer, 100), 112);
+
+        IntCodeComputer restored = restoreIntCodeComputer(checkpointPath).build();
+        assertEquals(nextOutput(restored, 1), 13);
+        assertEquals(nextOutput(restored, 1), 14);
+        assertEquals(checkpointFile.getNumCheckpoints(), 2);
+    }
+
+    @Test
+    public void testRestorePendingInputAndConfiguration() throws IOException, IntComputerException {
+        IntCodeComputer computer = createNewIntCodeComputer(ACCUMULATOR_CODE)
+                .withMemoryAutoExpand()
+                .withFeedbackLoopMode()
+                .withAskForInputMode()
+                .withInputCapacity(4)
+                .withEngine(ExecutionEngine.TABLE_DRIVEN)
+                .build();
+        computer.addInputValues(3, 4);
+        CheckpointFile.create(checkpointPath).write(computer);
+
+        IntCodeComputer restored = restoreIntCodeComputer(checkpointPath).build();
+        assertEquals(restored.getRemainingInputCapacity(), 2);
+        assertEquals(restored.executeCode().getOutput().get(0).longValue(), 3);
+        assertEquals(restored.executeCode().getOutput().get(0).longValue(), 7);
+        assertTrue(restored.executeCode().isInputNeeded());
+    }
+
+    @Test
+    public void testIncrementalCheckpointsOnlyHoldDirtyPages() throws IOException, IntComputerException {
+        // The accumulator followed by 4096 cells of data, which is never modified
+        long[] code = Arrays.copyOf(ACCUMULATOR_CODE, ACCUMULATOR_CODE.length + 4096);
+        Arrays.fill(code, ACCUMULATOR_CODE.length, code.length, 1);
+        IntCodeComputer computer = createNewIntCodeComputer(code)
+                .withMemoryAutoExpand()
+                .withFeedbackLoopMode()
+                .withAskForInputMode()
+                .build();
+        CheckpointFile checkpointFile = CheckpointFile.create(checkpointPath);
+
+        nextOutput(computer, 1);
+        checkpointFile.write(computer);
+        final long fullCheckpointSize = checkpointFile.getLastCheckpointSize();
+
+        nextOutput(computer, 2);
+        checkpointFile.write(computer);
+        final long incrementalCheckpointSize = checkpointFile.getLastCheckpointSize();
+
+        // Just the page with the input value and the total
+        assertTrue(incrementalCheckpointSize < MachineState.PAGE_SIZE * Long.BYTES + 100, "Incremental size: " + incrementalCheckpointSize);
+        assertTrue(fullCheckpointSize > 16 * MachineState.PAGE_SIZE * Long.BYTES, "Full size: " + fullCheckpointSize);
+
+        IntCodeComputer restored = restoreIntCodeComputer(checkpointPath).build();
+        assertEquals(restored.getMemorySnapshot(), computer.getMemorySnapshot());
+        assertEquals(nextOutput(restored, 10), 13);
+    }
+
+    @Test
+    public void testHalfWrittenCheckpointIsDiscarded() throws IOException, IntComputerException {
+        IntCodeComputer computer = createAccumulator(ExecutionEngine.INTERPRETER);
+        CheckpointFile checkpointFile = CheckpointFile.create(checkpointPath);
+        nextOutput(computer, 5);
+        checkpointFile.write(computer);
+        nextOutput(computer, 7);
+        checkpointFile.write(computer);
+
+        try (FileChannel channel = FileChannel.open(checkpointPath, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 10);
+        }
+        assertEquals(nextOutput(restoreIntCodeComputer(checkpointPath).build(), 0), 5);
+
+        // Appending to the file again goes on from the last valid checkpoint
+        IntCodeComputer restored = restoreIntCodeComputer(checkpointPath).build();
+        CheckpointFile reopened = CheckpointFile.open(checkpointPath);
+        assertEquals(reopened.getNumCheckpoints(), 1);
+        nextOutput(restored, 20);
+        reopened.write(restored);
+        assertEquals(nextOutput(restoreIntCodeComputer(checkpointPath).build(), 0), 25);
+    }
+
+    @Test
+    public void testNoCheckpoint() throws IOException {
+        CheckpointFile.create(checkpointPath);
+        expectThrows(IOException.class, () -> restoreIntCodeComputer(checkpointPath));
+
+        Files.writeString(checkpointPath, "1,2,3");
+        expectThrows(IOException.class, () -> restoreIntCodeComputer(checkpointPath));
+    }
+
+    @Test(dataProvider = "engines")
+    public void testRestoreBoostProgram(ExecutionEngine engine) throws IOException, IntComputerException {
+        BigInteger[] code = IntCodeLoader.getInstance()
+                .loadBigIntCodeFromFile(Paths.get("resources", "com", "challenge", "library", "intcodecomputer"), "day9_input.txt");
+        IntCodeComputer computer = createNewIntCodeComputer(code)
+                .withInputValue(1)
+                .withMemoryAutoExpand()
+                .withFeedbackLoopMode()
+                .withEngine(engine)
+                .build();
+        BigInteger expectedOutput = computer.fork().executeCode().getOutput().get(0);
+
+        CheckpointFile.create(checkpointPath).write(computer);
+        IntCodeComputer restored = restoreIntCodeComputer(checkpointPath).build();
+        assertEquals(restored.executeCode().getOutput().get(0), expectedOutput);
+    }
+
+    private static IntCodeComputer createAccumulator(ExecutionEngine engine) {
+        return createNewIntCodeComputer(ACCUMULATOR_CODE)
+                .withMemoryAutoExpand()
+                .withFeedbackLoopMode()
+                .withAskForInputMode()
+                .withEngine(engine)
+                .build();
+    }
+
+    private static long nextOutput(IntCodeComputer computer, long input) throws IntComputerException {
+        computer.addInputValue(input);
+        return computer.executeCode().getOutput().get(0).longValue();
+    }
+}
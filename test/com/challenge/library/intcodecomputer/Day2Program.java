@@ -0,0 +1,39 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+
+final class Day2Program {
+    private static final Path BASE_PATH = Paths.get("resources", "com", "challenge", "library", "intcodecomputer");
+
+    static final long[] CODE = loadCode();
+    // The result searched for in the second part of the puzzle
+    static final long TARGET = 19690720;
+
+    private Day2Program() {
+    }
+
+    // Computed by an interpreter
+    static long run(long noun, long verb) throws IntComputerException {
+        long[] code = CODE.clone();
+        code[1] = noun;
+        code[2] = verb;
+        IntCodeComputer computer = createNewIntCodeComputer(code).build();
+        computer.executeCode();
+        return computer.getMemorySnapshot().get(0).longValueExact();
+    }
+
+    private static long[] loadCode() {
+        try {
+            return IntCodeLoader.getInstance().loadIntCodeFromFile(BASE_PATH, "day2_input.txt");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.IntCodeComputer.ExecutionResult;
+import com.challenge.library.intcodecomputer.exception.InputQueueFullException;
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.math.BigInteger;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+import static com.challenge.library.intcodecomputer.OutputFrame.Builder.createOutputFrame;
+import static org.testng.Assert.*;
+
+public class ExecutionEngineTest {
+
+    @Test(dataProvider = "engines")
+    public void testBoostProgramFromDay9(ExecutionEngine engine) throws Exception {
+        assertEquals(runBoostProgram(engine, 1).longValue(), 4261108180L);
+        assertEquals(runBoostProgram(engine, 2).longValue(), 77944L);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testFeedbackLoopAndAskForInputModes(ExecutionEngine engine) throws IntComputerException {
+        // Outputs the double of every input value until the input is 0
+        long[] code = {3, 15, 1006, 15, 14, 1002, 15, 2, 16, 4, 16, 1105, 1, 0, 99, 0, 0};
+
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(code)
+                .withFeedbackLoopMode()
+                .withAskForInputMode()
+                .withEngine(engine)
+                .build();
+
+        assertTrue(intCodeComputer.executeCode().isInputNeeded());
+
+        intCodeComputer.addInputValue(21);
+        ExecutionResult result = intCodeComputer.executeCode();
+        assertTrue(result.isNextOutput());
+        assertEquals(result.getOutput(), List.of(BigInteger.valueOf(42)));
+
+        assertTrue(intCodeComputer.executeCode().isInputNeeded());
+
+        intCodeComputer.addInputValue(0);
+        assertTrue(intCodeComputer.executeCode().isExecutionFinished());
+    }
+
+    @Test(dataProvider = "engines")
+    public void testSelfModifyingCode(ExecutionEngine engine) throws IntComputerException {
+        // Outputs 5, overwrites the output parameter with 7, jumps back to the output and stops after the second output
+        long[] code = {104, 5, 1008, 1, 7, 20, 1005, 20, 16, 1101, 0, 7, 1, 1105, 1, 0, 99, 0, 0, 0, 0};
+
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(code)
+                .withEngine(engine)
+                .build();
+
+        ExecutionResult result = intCodeComputer.executeCode();
+        assertEquals(result.getOutput(), List.of(BigInteger.valueOf(5), BigInteger.valueOf(7)));
+    }
+
+    @Test(dataProvider = "engines")
+    public void testLongOverflow(ExecutionEngine engine) throws IntComputerException {
+        long[] code = {1102, 4294967296L, 4294967296L, 13, 4, 13, 1001, 13, -1, 14, 4, 14, 99, 0, 0};
+
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(code)
+                .withEngine(engine)
+                .build();
+
+        List<BigInteger> output = intCodeComputer.executeCode().getOutput();
+        assertEquals(output, List.of(BigInteger.TWO.pow(64), BigInteger.TWO.pow(64).subtract(BigInteger.ONE)));
+    }
+
+    @Test(dataProvider = "engines")
+    public void testRunWithInputSourceAndOutputSink(ExecutionEngine engine) throws Exception {
+        IntCodeComputer intCodeComputer = createBoostProgramComputer(engine, 2);
+        // The value added to the computer goes first, so the source is not used
+        List<Long> output = new ArrayList<>();
+
+        assertEquals(intCodeComputer.run(InputSource.of(1), output::add), ExecutionResult.ResultType.EXECUTION_FINISHED);
+        assertEquals(output, List.of(77944L));
+    }
+
+    @Test(dataProvider = "engines")
+    public void testRunUntilInputStarves(ExecutionEngine engine) throws IntComputerException {
+        // Outputs the double of every input value until the input is 0
+        long[] code = {3, 15, 1006, 15, 14, 1002, 15, 2, 16, 4, 16, 1105, 1, 0, 99, 0, 0};
+
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(code)
+                .withEngine(engine)
+                .build();
+
+        List<Long> output = new ArrayList<>();
+        assertEquals(intCodeComputer.run(InputSource.of(1, 2, 3), output::add), ExecutionResult.ResultType.INPUT_NEEDED);
+        assertEquals(output, List.of(2L, 4L, 6L));
+
+        assertEquals(intCodeComputer.run(InputSource.of(Long.MAX_VALUE / 2, 0), output::add), ExecutionResult.ResultType.EXECUTION_FINISHED);
+        assertEquals(output, List.of(2L, 4L, 6L, Long.MAX_VALUE / 2 * 2));
+    }
+
+    @Test(dataProvider = "engines")
+    public void testBoundedInputQueue(ExecutionEngine engine) throws IntComputerException {
+        // Outputs the double of every input value until the input is 0
+        long[] code = {3, 15, 1006, 15, 14, 1002, 15, 2, 16, 4, 16, 1105, 1, 0, 99, 0, 0};
+
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(code)
+                .withEngine(engine)
+                .withInputCapacity(3)
+                .build();
+
+        intCodeComputer.addInputValues(1, 2);
+        assertTrue(intCodeComputer.offerInputValue(3));
+        assertFalse(intCodeComputer.offerInputValue(4));
+        assertEquals(intCodeComputer.getRemainingInputCapacity(), 0);
+        expectThrows(InputQueueFullException.class, () -> intCodeComputer.addInputValue(4));
+
+        List<Long> output = new ArrayList<>();
+        for (int i = 4; i < 1000; i++) {
+            assertEquals(intCodeComputer.run(InputSource.empty(), output::add), ExecutionResult.ResultType.INPUT_NEEDED);
+            assertEquals(intCodeComputer.getRemainingInputCapacity(), 3);
+            intCodeComputer.addInputValues(i);
+        }
+        intCodeComputer.addInputValues(0);
+
+        assertEquals(intCodeComputer.run(InputSource.empty(), output::add), ExecutionResult.ResultType.EXECUTION_FINISHED);
+        assertEquals(output.size(), 999);
+        assertEquals(output.get(998).longValue(), 1998L);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testExecuteUntilOutputs(ExecutionEngine engine) throws IntComputerException {
+        // Outputs the double of every input value until the input is 0
+        long[] code = {3, 15, 1006, 15, 14, 1002, 15, 2, 16, 4, 16, 1105, 1, 0, 99, 0, 0};
+
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(code)
+                .withEngine(engine)
+                .build();
+        intCodeComputer.addInputValues(1, 2, 3, 4, 5);
+
+        OutputFrame frame = createOutputFrame().withCapacity(2).build();
+        assertSame(intCodeComputer.executeUntilOutputs(frame, 2), frame);
+        assertEquals(frame.getResultType(), ExecutionResult.ResultType.NEXT_OUTPUT);
+        assertEquals(frame.toArray(), new long[] {2, 4});
+
+        intCodeComputer.executeUntilOutputs(frame, 2);
+        assertEquals(frame.toArray(), new long[] {6, 8});
+
+        intCodeComputer.executeUntilOutputs(frame, 2);
+        assertTrue(frame.isInputNeeded());
+        assertEquals(frame.toArray(), new long[] {10});
+
+        intCodeComputer.addInputValues(6, 7, 0);
+        intCodeComputer.executeUntilInputNeeded(frame);
+        assertTrue(frame.isExecutionFinished());
+        assertEquals(frame.toArray(), new long[] {12, 14});
+    }
+
+    @Test(dataProvider = "engines", expectedExceptions = IntComputerException.class)
+    public void testRunWithOutputOutOfLongRange(ExecutionEngine engine) throws IntComputerException {
+        long[] code = {1102, 4294967296L, 4294967296L, 7, 4, 7, 99, 0};
+
+        createNewIntCodeComputer(code)
+                .withEngine(engine)
+                .build()
+                .run(InputSource.empty(), value -> { });
+    }
+
+    @Test
+    public void testRunDoesNotAllocatePerValue() throws IntComputerException {
+        // Outputs the double of every input value until the input is 0
+        long[] code = {3, 15, 1006, 15, 14, 1002, 15, 2, 16, 4, 16, 1105, 1, 0, 99, 0, 0};
+        final int numValues = 100_000;
+
+        for (ExecutionEngine engine : List.of(ExecutionEngine.TABLE_DRIVEN, ExecutionEngine.COMPILED)) {
+            IntCodeComputer intCodeComputer = createNewIntCodeComputer(code)
+                    .withEngine(engine)
+                    .build();
+
+            InputSource inputSource = new InputSource() {
+                private int remaining = numValues;
+
+                @Override
+                public boolean hasInput() {
+                    return true;
+                }
+
+                @Override
+                public long nextInput() {
+                    return remaining-- > 0 ? remaining + 1 : 0;
+                }
+            };
+            final long[] sum = new long[1];
+            OutputSink outputSink = value -> sum[0] += value;
+
+            com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            final long before = threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            intCodeComputer.run(inputSource, outputSink);
+            final long allocatedBytes = threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+
+            assertEquals(sum[0], (long) numValues * (numValues + 1));
+            assertTrue(allocatedBytes < numValues, String.format("%s engine allocated %d bytes for %d values", engine, allocatedBytes, numValues));
+        }
+    }
+
+    @Test(dataProvider = "engines")
+    public void testFork(ExecutionEngine engine) throws IntComputerException {
+        // Adds every input value to an accumulator and outputs the accumulated value
+        long[] code = {3, 11, 1, 11, 12, 12, 4, 12, 1105, 1, 0, 0, 0};
+
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(code)
+                .withFeedbackLoopMode()
+                .withAskForInputMode()
+                .withEngine(engine)
+                .build();
+
+        intCodeComputer.addInputValue(5);
+        assertEquals(intCodeComputer.executeCode().getOutput(), List.of(BigInteger.valueOf(5)));
+        intCodeComputer.addInputValue(7);
+
+        IntCodeComputer fork = intCodeComputer.fork();
+        fork.addInputValue(100);
+
+        assertEquals(intCodeComputer.executeCode().getOutput(), List.of(BigInteger.valueOf(12)));
+        assertTrue(intCodeComputer.executeCode().isInputNeeded());
+
+        assertEquals(fork.executeCode().getOutput(), List.of(BigInteger.valueOf(12)));
+        assertEquals(fork.executeCode().getOutput(), List.of(BigInteger.valueOf(112)));
+
+        intCodeComputer.addInputValue(1);
+        assertEquals(intCodeComputer.executeCode().getOutput(), List.of(BigInteger.valueOf(13)));
+    }
+
+    @Test(dataProvider = "engines")
+    public void testForkWithSelfModifyingCode(ExecutionEngine engine) throws IntComputerException {
+        // Outputs the value of cell 1 (self-modifying the output instruction), then writes the input there and loops
+        long[] code = {104, 1, 3, 1, 1105, 1, 0};
+
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(code)
+                .withFeedbackLoopMode()
+                .withAskForInputMode()
+                .withEngine(engine)
+                .build();
+
+        assertEquals(intCodeComputer.executeCode().getOutput(), List.of(BigInteger.ONE));
+
+        IntCodeComputer fork = intCodeComputer.fork();
+        fork.addInputValue(8);
+        intCodeComputer.addInputValue(9);
+
+        assertEquals(fork.executeCode().getOutput(), List.of(BigInteger.valueOf(8)));
+        assertEquals(intCodeComputer.executeCode().getOutput(), List.of(BigInteger.valueOf(9)));
+    }
+
+    @Test(dataProvider = "engines", expectedExceptions = IntComputerException.class)
+    public void testInvalidPosition(ExecutionEngine engine) throws IntComputerException {
+        long[] code = {1101, 1, 2, 4};
+
+        createNewIntCodeComputer(code)
+                .withEngine(engine)
+                .build()
+                .executeCode();
+    }
+
+    @Test
+    public void testCompiledProgramsCacheIsBounded() {
+        // [0] = i + 1: a different program for every i
+        final long[] code = {1101, 0, 1, 0, 99};
+        final CompiledProgram program = IntCodeCompiler.compile(code);
+        assertSame(IntCodeCompiler.compile(code.clone()), program);
+
+        for (int i = 1; i <= IntCodeCompiler.MAX_CACHED_PROGRAMS; i++) {
+            code[1] = i;
+            IntCodeCompiler.compile(code);
+        }
+
+        assertEquals(IntCodeCompiler.getNumCachedPrograms(), IntCodeCompiler.MAX_CACHED_PROGRAMS);
+        code[1] = 0;
+        assertNotSame(IntCodeCompiler.compile(code), program);
+    }
+
+    @Test
+    public void testEvictedProgramsAreUnloaded() throws InterruptedException {
+        // [0] = i + 1: a different program for every i, none of them compiled by other tests
+        final long[] code = {1101, -1, 1, 0, 99};
+        final WeakReference<Class<? extends CompiledCode>> compiledClass =
+                new WeakReference<>(IntCodeCompiler.compile(code).getCompiledClass());
+
+        for (int i = 1; i <= IntCodeCompiler.MAX_CACHED_PROGRAMS; i++) {
+            code[1] = -1 - i;
+            IntCodeCompiler.compile(code);
+        }
+
+        for (int i = 0; i < 20 && compiledClass.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertNull(compiledClass.get(), "Expecting the class of the evicted program to be unloaded");
+    }
+
+    @Test
+    public void testAllocationRate() throws Exception {
+        // Warm up both engines before measuring
+        runBoostProgram(ExecutionEngine.INTERPRETER, 2);
+        runBoostProgram(ExecutionEngine.TABLE_DRIVEN, 2);
+
+        final long interpreterBytes = measureAllocatedBytes(ExecutionEngine.INTERPRETER);
+        final long tableDrivenBytes = measureAllocatedBytes(ExecutionEngine.TABLE_DRIVEN);
+
+        System.out.printf("Bytes allocated running the day 9 BOOST program (input 2): interpreter = %,d, table driven = %,d%n",
+                interpreterBytes, tableDrivenBytes);
+
+        assertTrue(tableDrivenBytes * 10 < interpreterBytes,
+                String.format("Expecting the table driven engine to allocate much less than the interpreter (%d vs %d)", tableDrivenBytes, interpreterBytes));
+    }
+
+    @Test(groups = "heavy_tests")
+    public void testCompiledEngineThroughput() throws Exception {
+        final long interpreterNanos = measureExecutionTime(ExecutionEngine.INTERPRETER);
+        final long compiledNanos = measureExecutionTime(ExecutionEngine.COMPILED);
+
+        System.out.printf("Time running the day 9 BOOST program (input 2): interpreter = %,d ms, compiled = %,d ms%n",
+                interpreterNanos / 1_000_000, compiledNanos / 1_000_000);
+
+        assertTrue(compiledNanos < interpreterNanos,
+                String.format("Expecting the compiled engine to be faster than the interpreter (%d vs %d ns)", compiledNanos, interpreterNanos));
+    }
+
+    @DataProvider(name = "engines")
+    private Iterator<Object> createEngines() {
+        return Arrays.asList((Object[]) ExecutionEngine.values()).iterator();
+    }
+
+    private long measureAllocatedBytes(ExecutionEngine engine) throws Exception {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        IntCodeComputer intCodeComputer = createBoostProgramComputer(engine, 2);
+
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        intCodeComputer.executeCode();
+        return threadMXBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private long measureExecutionTime(ExecutionEngine engine) throws Exception {
+        // The first runs are just warm up (and compilation, for the compiled engine)
+        for (int i = 0; i < 50; i++)
+            runBoostProgram(engine, 2);
+
+        long bestTime = Long.MAX_VALUE;
+        for (int i = 0; i < 20; i++) {
+            IntCodeComputer intCodeComputer = createBoostProgramComputer(engine, 2);
+            final long start = System.nanoTime();
+            intCodeComputer.executeCode();
+            bestTime = Math.min(bestTime, System.nanoTime() - start);
+        }
+        return bestTime;
+    }
+
+    private BigInteger runBoostProgram(ExecutionEngine engine, int inputValue) throws IOException, IntComputerException {
+        return createBoostProgramComputer(engine, inputValue).executeCode().getOutput().get(0);
+    }
+
+    private IntCodeComputer createBoostProgramComputer(ExecutionEngine engine, int inputValue) throws IOException {
+        BigInteger[] code = IntCodeLoader
+                .getInstance()
+                .loadBigIntCodeFromFile(Paths.get("resources", "com", "challenge", "library", "intcodecomputer"), "day9_input.txt");
+
+        return createNewIntCodeComputer(code)
+                .withInputValue(inputValue)
+                .withMemoryAutoExpand()
+                .withEngine(engine)
+                .build();
+    }
+}
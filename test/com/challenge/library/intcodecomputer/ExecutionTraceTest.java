@@ -0,0 +1,89 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.testng.annotations.Test;
+
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+import static org.testng.Assert.*;
+
+public class ExecutionTraceTest {
+    // Decrements the value at position 12 until it's 0
+    private static final long[] COUNTDOWN_CODE = {1001, 12, -1, 12, 1005, 12, 0, 99, 0, 0, 0, 0, 5};
+
+    @Test
+    public void testKeepsTheLastInstructions() throws IntComputerException {
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(COUNTDOWN_CODE)
+                .withExecutionTrace(3)
+                .build();
+        intCodeComputer.executeCode();
+
+        ExecutionTrace trace = intCodeComputer.getExecutionTrace().orElseThrow();
+        assertEquals(trace.getNumRecorded(), 11);
+        assertEquals(trace.size(), 3);
+
+        // Last decrement, jump not taken and halt
+        assertEquals(trace.getPosition(0), 0);
+        assertEquals(trace.getInstructionCode(0), 1001);
+        assertEquals(trace.getParameter(0, 1), -1);
+        assertEquals(trace.getResult(0), 0);
+        assertEquals(trace.getPosition(1), 4);
+        assertEquals(trace.getResult(1), 7);
+        assertEquals(trace.getPosition(2), 7);
+        assertEquals(trace.getInstructionCode(2), 99);
+
+        assertEquals(trace.dump(), String.format(
+                "#8 pos=0 code=1001 ADD 12 -1 12 -> 0%n" +
+                "#9 pos=4 code=1005 JUMP_IF_TRUE 12 0 -> 7%n" +
+                "#10 pos=7 code=99 HALT%n"));
+    }
+
+    @Test
+    public void testTraceIsDumpedOnError() {
+        // Adds 2 and 3, outputs the result and fails with an invalid opcode
+        long[] code = {1101, 2, 3, 9, 4, 9, 55, 0, 0, 0};
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(code)
+                .withExecutionTrace(10)
+                .build();
+
+        IntComputerException exception = expectThrows(IntComputerException.class, intCodeComputer::executeCode);
+        assertEquals(exception.getExecutionTrace().orElseThrow(), String.format(
+                "#0 pos=0 code=1101 ADD 2 3 9 -> 5%n" +
+                "#1 pos=4 code=4 OUTPUT 9 -> 5%n" +
+                "#2 pos=6 code=55 -> (failed)%n"));
+    }
+
+    @Test
+    public void testFailingInstructionIsTheLastEntry() {
+        // Adds 2 and 3, and fails writing the result to a negative position
+        long[] code = {1101, 2, 3, 9, 1101, 4, 5, -1, 0, 0};
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(code)
+                .withExecutionTrace(10)
+                .build();
+        expectThrows(IntComputerException.class, intCodeComputer::executeCode);
+
+        ExecutionTrace trace = intCodeComputer.getExecutionTrace().orElseThrow();
+        assertEquals(trace.size(), 2);
+        assertFalse(trace.isFailed(0));
+        assertEquals(trace.getPosition(1), 4);
+        assertEquals(trace.getInstructionCode(1), 1101);
+        assertEquals(trace.getParameter(1, 0), 4);
+        assertEquals(trace.getParameter(1, 2), -1);
+        assertEquals(trace.getResult(1), IntCodeMemory.PROMOTED_CELL);
+        assertTrue(trace.isFailed(1));
+        assertTrue(trace.dump().endsWith(String.format("#1 pos=4 code=1101 ADD 4 5 -1 -> (failed)%n")));
+    }
+
+    @Test
+    public void testNoTraceByDefault() {
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(new long[] {55}).build();
+
+        assertTrue(intCodeComputer.getExecutionTrace().isEmpty());
+        IntComputerException exception = expectThrows(IntComputerException.class, intCodeComputer::executeCode);
+        assertTrue(exception.getExecutionTrace().isEmpty());
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testIndexOutOfTheTrace() {
+        new ExecutionTrace(5).getPosition(0);
+    }
+}
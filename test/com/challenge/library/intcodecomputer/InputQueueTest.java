@@ -0,0 +1,77 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.InputQueueFullException;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class InputQueueTest {
+    @Test
+    public void testValuesAreConsumedInOrder() {
+        InputQueue queue = new InputQueue();
+        queue.add(1);
+        queue.addAll(2, 3);
+
+        assertEquals(queue.size(), 3);
+        assertEquals(queue.peek(), 1);
+        assertEquals(queue.poll(), 1);
+        assertEquals(queue.poll(), 2);
+        assertEquals(queue.poll(), 3);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testGrowsKeepingTheOrderAfterWrappingAround() {
+        InputQueue queue = new InputQueue();
+        for (int i = 0; i < 10; i++) {
+            queue.add(i);
+        }
+        for (int i = 0; i < 10; i++) {
+            queue.poll();
+        }
+
+        // The pending values wrap around the end of the buffer when it has to grow
+        for (int i = 0; i < 100; i++) {
+            queue.add(i);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(queue.poll(), i);
+        }
+    }
+
+    @Test
+    public void testBoundedCapacity() {
+        InputQueue queue = new InputQueue(3);
+        queue.addAll(1, 2);
+
+        assertEquals(queue.getRemainingCapacity(), 1);
+        expectThrows(InputQueueFullException.class, () -> queue.addAll(3, 4));
+        assertEquals(queue.size(), 2);
+
+        assertTrue(queue.offer(3));
+        assertFalse(queue.offer(4));
+
+        assertEquals(queue.poll(), 1);
+        assertTrue(queue.offer(4));
+        assertEquals(queue.toString(), "[2, 3, 4]");
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        InputQueue queue = new InputQueue();
+        queue.addAll(1, 2);
+
+        InputQueue copy = queue.copy();
+        queue.poll();
+        copy.add(3);
+
+        assertEquals(queue.toString(), "[2]");
+        assertEquals(copy.toString(), "[1, 2, 3]");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new InputQueue(0);
+    }
+}
@@ -0,0 +1,149 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.IntCodeComputer.ExecutionResult.ResultType;
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+import static org.testng.Assert.*;
+
+public class InputReplayTest {
+    // Reads an input value, adds it to the total at position 50001 and outputs the total, until the input value is 0
+    private static final long[] ACCUMULATOR_CODE = {3, 50000, 1006, 50000, 14, 1, 50000, 50001, 50001, 4, 50001, 1105, 1, 0, 99};
+
+    private Path logPath;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        logPath = Files.createTempFile("intcode", ".inputlog");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(logPath);
+    }
+
+    @DataProvider(name = "engines")
+    public Object[][] engines() {
+        return Arrays.stream(ExecutionEngine.values()).map(engine -> new Object[] {engine}).toArray(Object[][]::new);
+    }
+
+    @Test
+    public void testValuesRoundTrip() throws IOException {
+        final long[] values = {0, 1, -1, 63, -64, 64, 127, 128, 300, -300, Integer.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        try (InputRecorder recorder = InputRecorder.create(logPath)) {
+            recorder.record(values);
+            assertEquals(recorder.getNumValues(), values.length);
+        }
+
+        assertEquals(InputReplay.load(logPath).getValues(), values);
+    }
+
+    @Test
+    public void testSmallValuesTakeOneByte() throws IOException {
+        try (InputRecorder recorder = InputRecorder.create(logPath)) {
+            recorder.record(-1, 0, 1, 2);
+        }
+
+        assertEquals(Files.size(logPath), 2 * Integer.BYTES + 4);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testReplaySession(ExecutionEngine engine) throws IOException, IntComputerException {
+        long total;
+        try (InputRecorder recorder = InputRecorder.create(logPath)) {
+            IntCodeComputer computer = createAccumulator(engine)
+                    .withInputValue(5)
+                    .withInputRecorder(recorder)
+                    .build();
+
+            // A controller deciding every input value from the previous output
+            total = computer.executeCode().getOutput().get(0).longValue();
+            while (total < 1000) {
+                computer.addInputValue(total % 7 + 1);
+                total = computer.executeCode().getOutput().get(0).longValue();
+            }
+            computer.addInputValues(-total, 0);
+            assertEquals(computer.executeCode().getOutput().get(0).longValue(), 0);
+            assertTrue(computer.executeCode().isExecutionFinished());
+        }
+
+        InputReplay replay = InputReplay.load(logPath);
+        InputReplay.Result result = replay.replay(createAccumulator(engine).build());
+
+        assertEquals(result.getResultType(), ResultType.EXECUTION_FINISHED);
+        assertEquals(result.getNumInputValues(), replay.getNumValues());
+        assertEquals(result.getNumOutputValues(), replay.getNumValues() - 1);
+        assertEquals(result.getLastOutputValue(), 0);
+    }
+
+    @Test
+    public void testReplayRunningOutOfValues() throws IOException, IntComputerException {
+        try (InputRecorder recorder = InputRecorder.create(logPath)) {
+            IntCodeComputer computer = createAccumulator(ExecutionEngine.INTERPRETER).withInputRecorder(recorder).build();
+            computer.addInputValues(4, 6);
+            computer.executeCode();
+        }
+
+        InputReplay.Result result = InputReplay.load(logPath).replay(createAccumulator(ExecutionEngine.INTERPRETER).build());
+
+        assertEquals(result.getResultType(), ResultType.INPUT_NEEDED);
+        assertEquals(result.getNumInputValues(), 2);
+        assertEquals(result.getLastOutputValue(), 10);
+    }
+
+    @Test
+    public void testRecordOnlyValuesFedToTheComputer() throws IOException, IntComputerException {
+        try (InputRecorder recorder = InputRecorder.create(logPath)) {
+            IntCodeComputer computer = createNewIntCodeComputer(ACCUMULATOR_CODE)
+                    .withMemoryAutoExpand()
+                    .withInputCapacity(1)
+                    .withInputRecorder(recorder)
+                    .build();
+
+            assertTrue(computer.offerInputValue(1));
+            assertFalse(computer.offerInputValue(2));
+            computer.run(InputSource.of(4, 5), value -> {});
+            computer.fork().addInputValue(3);
+        }
+
+        assertEquals(InputReplay.load(logPath).getValues(), new long[] {1, 4, 5});
+    }
+
+    @Test
+    public void testIgnoreTruncatedValue() throws IOException {
+        try (InputRecorder recorder = InputRecorder.create(logPath)) {
+            recorder.record(1, 2, 1000);
+        }
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        assertEquals(InputReplay.load(logPath).getValues(), new long[] {1, 2});
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testLoadNotAnInputLog() throws IOException {
+        Files.write(logPath, new byte[] {'1', ',', '2', ',', '9', '9'});
+
+        InputReplay.load(logPath);
+    }
+
+    private IntCodeComputer.Builder createAccumulator(ExecutionEngine engine) {
+        return createNewIntCodeComputer(ACCUMULATOR_CODE)
+                .withMemoryAutoExpand()
+                .withFeedbackLoopMode()
+                .withAskForInputMode()
+                .withEngine(engine);
+    }
+}
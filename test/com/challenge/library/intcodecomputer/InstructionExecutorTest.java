@@ -121,6 +121,55 @@ public class InstructionExecutorTest {
         assertEquals(memorySnapshot.get(8).longValue(), 5);
     }
 
+    @Test
+    public void testSelfModifyingCode() throws ExecutionException {
+        // Outputs 5, overwrites the output parameter with 7 and jumps back to the output instruction
+        long[] code = {104, 5, 1101, 0, 7, 1, 1105, 1, 0};
+
+        InstructionExecutor instructionExecutor = createInstructionExecutor(code)
+                .startWithPosition(0)
+                .withInput(new ArrayList<>())
+                .build();
+
+        Instruction.InstructionResult result = instructionExecutor.executeNextInstruction(); // output
+        assertEquals(result.getOutput().get().longValue(), 5);
+
+        instructionExecutor.executeNextInstruction(); // add, modifying the output instruction
+        instructionExecutor.executeNextInstruction(); // jump back
+
+        result = instructionExecutor.executeNextInstruction(); // output
+        assertEquals(result.getOutput().get().longValue(), 7);
+    }
+
+    @Test
+    public void testLoopWithFusedInstructions() throws ExecutionException {
+        // Adds 3 to the accumulator 5 times, with the counter decrement and the accumulator increment followed by a jump
+        long[] code = {1001, 15, -1, 15, 1001, 16, 3, 16, 1005, 15, 0, 4, 16, 99, 0, 5, 0};
+
+        InstructionExecutor instructionExecutor = createInstructionExecutor(code)
+                .startWithPosition(0)
+                .withInput(new ArrayList<>())
+                .build();
+
+        Instruction.InstructionResult result = instructionExecutor.executeUntilEvent();
+        assertEquals(result.getOutput().get().longValue(), 15);
+        assertTrue(instructionExecutor.executeUntilEvent().isExecutionFinished());
+    }
+
+    @Test
+    public void testFusedInstructionModifyingItsJump() throws ExecutionException {
+        // The add overwrites the target of the jump following it: outputs 2 instead of 1
+        long[] code = {1101, 0, 12, 6, 1105, 1, 9, 99, 0, 104, 1, 99, 104, 2, 99};
+
+        InstructionExecutor instructionExecutor = createInstructionExecutor(code)
+                .startWithPosition(0)
+                .withInput(new ArrayList<>())
+                .build();
+
+        Instruction.InstructionResult result = instructionExecutor.executeUntilEvent();
+        assertEquals(result.getOutput().get().longValue(), 2);
+    }
+
     @Test
     public void testMemoryAutoExpand() throws ExecutionException {
         long[] code = {109, 7, 22201, -1, 0, 10, 3, 2};
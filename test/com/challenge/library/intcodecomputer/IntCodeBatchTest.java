@@ -0,0 +1,160 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.IntCodeBatch.Job;
+import com.challenge.library.intcodecomputer.IntCodeBatch.Result;
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static com.challenge.library.intcodecomputer.IntCodeBatch.Builder.createBatch;
+import static com.challenge.library.intcodecomputer.IntCodeBatch.Job.createJob;
+import static org.testng.Assert.*;
+
+public class IntCodeBatchTest {
+    // Day 7 example amplifier: outputs the input signal * 10 + the phase setting
+    private static final long[] AMPLIFIER_CODE = {3,15,3,16,1002,16,10,16,1,16,15,15,4,15,99,0,0};
+
+    @DataProvider(name = "engines")
+    public Object[][] engines() {
+        return Arrays.stream(ExecutionEngine.values()).map(engine -> new Object[] {engine}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testResultsInOrder(ExecutionEngine engine) throws IntComputerException {
+        List<Job> jobs = new ArrayList<>();
+        for (int noun = 0; noun <= 99; noun++)
+            jobs.add(createJob().withPatch(1, noun).withPatch(2, 99 - noun));
+
+        List<Result> results = createBatch(Day2Program.CODE).withEngine(engine).build().runAll(jobs);
+
+        assertEquals(results.size(), jobs.size());
+        for (int noun = 0; noun <= 99; noun++) {
+            Result result = results.get(noun);
+            assertEquals(result.getIndex(), noun);
+            assertTrue(result.isExecutionFinished());
+            assertEquals(result.getCell(0), BigInteger.valueOf(Day2Program.run(noun, 99 - noun)));
+        }
+    }
+
+    @Test(dataProvider = "engines")
+    public void testFirstMatch(ExecutionEngine engine) {
+        List<Job> jobs = new ArrayList<>();
+        for (int noun = 0; noun <= 99; noun++) {
+            for (int verb = 0; verb <= 99; verb++)
+                jobs.add(createJob().withPatch(1, noun).withPatch(2, verb));
+        }
+
+        Optional<Result> result = createBatch(Day2Program.CODE).withEngine(engine).build()
+                .findFirst(jobs, r -> r.isExecutionFinished() && r.getCell(0).longValue() == Day2Program.TARGET);
+
+        assertTrue(result.isPresent());
+        assertEquals(result.get().getIndex(), 4967);
+    }
+
+    @Test
+    public void testFirstMatchIsTheFirstInOrder() {
+        // Every job matches: the first one must be returned no matter which thread finds a match first
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            jobs.add(createJob().withInputValues(i % 5, i));
+
+        Optional<Result> result = createBatch(AMPLIFIER_CODE).build().findFirst(jobs, Result::isExecutionFinished);
+
+        assertEquals(result.map(Result::getIndex), Optional.of(0));
+    }
+
+    @Test
+    public void testNoMatch() {
+        List<Job> jobs = List.of(createJob().withPatch(1, 0).withPatch(2, 0), createJob().withPatch(1, 1).withPatch(2, 1));
+
+        assertTrue(createBatch(Day2Program.CODE).build().findFirst(jobs, r -> r.getCell(0).longValue() == Day2Program.TARGET).isEmpty());
+    }
+
+    @Test(dataProvider = "engines")
+    public void testDay7PhasePermutations(ExecutionEngine engine) {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            IntCodeBatch batch = createBatch(AMPLIFIER_CODE).withEngine(engine).withPool(pool).build();
+            List<long[]> permutations = permutations(new long[] {0, 1, 2, 3, 4}, 0, new ArrayList<>());
+            long[] signals = new long[permutations.size()];
+
+            // Every amplifier of the 120 permutations at once, one amplifier after another
+            for (int amplifier = 0; amplifier < 5; amplifier++) {
+                List<Job> jobs = new ArrayList<>();
+                for (int i = 0; i < permutations.size(); i++)
+                    jobs.add(createJob().withInputValues(permutations.get(i)[amplifier], signals[i]));
+
+                List<Result> results = batch.runAll(jobs);
+                for (int i = 0; i < signals.length; i++)
+                    signals[i] = results.get(i).getOutput().get(0);
+            }
+
+            assertEquals(Arrays.stream(signals).max().orElseThrow(), 43210);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(dataProvider = "engines")
+    public void testPatchedInstruction(ExecutionEngine engine) {
+        // [0] = [5] + [6], or [5] * [6] once the instruction is patched
+        long[] code = {1, 5, 6, 0, 99, 3, 4};
+        List<Result> results = createBatch(code).withEngine(engine).build()
+                .runAll(List.of(createJob(), createJob().withPatch(0, 2), createJob()));
+
+        assertEquals(results.stream().map(result -> result.getCell(0).longValue()).collect(Collectors.toList()), List.of(7L, 12L, 7L));
+    }
+
+    @Test
+    public void testErrorsAndMissingInput() {
+        // Reads a value and outputs it twice
+        long[] code = {3, 9, 4, 9, 4, 9, 99, 0, 0, 0};
+        List<Result> results = createBatch(code).build()
+                .runAll(List.of(createJob().withInputValues(5), createJob(), createJob().withInputValues(5).withPatch(4, 98)));
+
+        assertTrue(results.get(0).isExecutionFinished());
+        assertEquals(results.get(0).getOutput(), List.of(5L, 5L));
+        assertTrue(results.get(1).isInputNeeded());
+        assertTrue(results.get(1).getError().isEmpty());
+        assertTrue(results.get(2).getError().isPresent());
+        assertEquals(results.get(2).getOutput(), List.of(5L));
+    }
+
+    @Test
+    public void testImageNotModifiedByTheRuns() {
+        IntCodeBatch batch = createBatch(Day2Program.CODE).build();
+        List<Job> jobs = List.of(createJob().withPatch(1, 12).withPatch(2, 2));
+
+        BigInteger first = batch.runAll(jobs).get(0).getCell(0);
+        assertEquals(batch.runAll(List.of(createJob())).get(0).getMemorySnapshot().get(1), BigInteger.ZERO);
+        assertEquals(batch.runAll(jobs).get(0).getCell(0), first);
+    }
+
+    private static List<long[]> permutations(long[] values, int from, List<long[]> permutations) {
+        if (from == values.length) {
+            permutations.add(values.clone());
+            return permutations;
+        }
+
+        for (int i = from; i < values.length; i++) {
+            swap(values, from, i);
+            permutations(values, from + 1, permutations);
+            swap(values, from, i);
+        }
+        return permutations;
+    }
+
+    private static void swap(long[] values, int i, int j) {
+        long value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
@@ -94,6 +94,24 @@ public class IntCodeComputerTest {
         assertEquals(output.get(0), biCode[1]);
     }
 
+    @Test
+    public void testLongOverflowFallsBackToBigInteger() throws IntComputerException {
+        // Squares 2^32 (overflowing a long), outputs it and then outputs it minus 1
+        long[] code = {1102,4294967296L,4294967296L,13,4,13,1001,13,-1,14,4,14,99,0,0};
+        System.out.println("Code to execute: " + Arrays.toString(code));
+
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(code).build();
+
+        ExecutionResult result = intCodeComputer.executeCode();
+        List<BigInteger> output = result.getOutput();
+
+        System.out.println("Execution result: " + output);
+
+        assertEquals(output.get(0), BigInteger.TWO.pow(64));
+        assertEquals(output.get(1), BigInteger.TWO.pow(64).subtract(BigInteger.ONE));
+        assertEquals(intCodeComputer.getMemorySnapshot().get(13), BigInteger.TWO.pow(64));
+    }
+
     @Test
     public void testAskForInput() throws IntComputerException {
         long[] code = {3, 2, 0};
@@ -0,0 +1,241 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.EndOfCodeException;
+import com.challenge.library.intcodecomputer.exception.InvalidInstructionException;
+import com.challenge.library.intcodecomputer.exception.InvalidPositionException;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+import static com.challenge.library.intcodecomputer.IntCodeMemory.Builder.createIntCodeMemory;
+
+public class IntCodeMemoryTest {
+    @Test
+    public void testLongValuesAreStoredAsLongs() throws InvalidPositionException {
+        IntCodeMemory memory = createIntCodeMemory(new long[] {1, 2, 3}).build();
+
+        memory.setLongValue(Long.MAX_VALUE, 1);
+
+        assertEquals(memory.getLongValue(1), Long.MAX_VALUE);
+        assertEquals(memory.getValue(BigInteger.ONE), BigInteger.valueOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testBigValuesArePromoted() throws InvalidPositionException {
+        BigInteger bigValue = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+        IntCodeMemory memory = createIntCodeMemory(new BigInteger[] {BigInteger.ONE, bigValue, BigInteger.TEN}).build();
+
+        assertEquals(memory.getLongValue(1), IntCodeMemory.PROMOTED_CELL);
+        assertEquals(memory.getValue(BigInteger.ONE), bigValue);
+
+        memory.setLongValue(5, 1);
+        assertEquals(memory.getLongValue(1), 5);
+        assertEquals(memory.getValue(BigInteger.ONE), BigInteger.valueOf(5));
+    }
+
+    @Test
+    public void testLongMinValueIsPromoted() throws InvalidPositionException {
+        IntCodeMemory memory = createIntCodeMemory(new long[] {Long.MIN_VALUE, 0}).build();
+
+        assertEquals(memory.getValue(BigInteger.ZERO), BigInteger.valueOf(Long.MIN_VALUE));
+
+        memory.setLongValue(Long.MIN_VALUE, 1);
+        assertEquals(memory.getLongValue(1), IntCodeMemory.PROMOTED_CELL);
+        assertEquals(memory.getValue(BigInteger.ONE), BigInteger.valueOf(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void testSnapshotWithPromotedCells() throws InvalidPositionException {
+        BigInteger bigValue = BigInteger.TWO.pow(70);
+        IntCodeMemory memory = createIntCodeMemory(new long[] {1, 2, 3}).build();
+
+        memory.setValue(bigValue, BigInteger.TWO);
+
+        List<BigInteger> snapshot = memory.getSnapshot();
+        assertEquals(snapshot, List.of(BigInteger.ONE, BigInteger.TWO, bigValue));
+    }
+
+    @Test
+    public void testWriteToFarPositionOnlyMapsItsPage() throws InvalidPositionException {
+        IntCodeMemory memory = createIntCodeMemory(new long[] {1, 2, 3})
+                .withPageSize(16)
+                .withUnboundedSize()
+                .withAutoExpand()
+                .build();
+
+        memory.setLongValue(42, 1_000_000_000L);
+
+        assertEquals(memory.getLongValue(1_000_000_000L), 42);
+        assertEquals(memory.getLongValue(999_999_999L), 0);
+        assertEquals(memory.getNumMappedPages(), 1);
+    }
+
+    @Test
+    public void testUnmappedCellsAreReadAsZero() throws InvalidPositionException {
+        IntCodeMemory memory = createIntCodeMemory(new long[] {1, 2, 3})
+                .withPageSize(16)
+                .withAutoExpand()
+                .build();
+
+        assertEquals(memory.getLongValue(500_000), 0);
+        assertEquals(memory.getValue(BigInteger.valueOf(100)), BigInteger.ZERO);
+
+        memory.setLongValue(0, 200);
+        assertEquals(memory.getNumMappedPages(), 0);
+    }
+
+    @Test
+    public void testReadingUnmappedCellsDoesNotAllocate() throws InvalidPositionException {
+        IntCodeMemory memory = createIntCodeMemory(new long[] {1, 2, 3})
+                .withPageSize(16)
+                .withUnboundedSize()
+                .withAutoExpand()
+                .build();
+        memory.setLongValue(42, 1_000_000_000L);
+
+        long sum = readPagedCells(memory);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long before = threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        sum += readPagedCells(memory);
+        final long allocatedBytes = threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+
+        assertEquals(sum, 2 * 42);
+        assertTrue(allocatedBytes < 1000, "Allocated " + allocatedBytes + " bytes");
+    }
+
+    @Test
+    public void testSnapshotIncludesUnmappedCells() throws InvalidPositionException {
+        IntCodeMemory memory = createIntCodeMemory(new long[] {1, 2, 3})
+                .withPageSize(2)
+                .withAutoExpand()
+                .build();
+
+        memory.setLongValue(7, 6);
+
+        List<BigInteger> snapshot = memory.getSnapshot();
+        assertEquals(snapshot, List.of(BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(3), BigInteger.ZERO,
+                BigInteger.ZERO, BigInteger.ZERO, BigInteger.valueOf(7)));
+    }
+
+    @Test
+    public void testDenseMemoryGrowsOverMappedPages() throws InvalidPositionException {
+        IntCodeMemory memory = createIntCodeMemory(new long[] {1, 2, 3})
+                .withPageSize(4)
+                .withAutoExpand()
+                .build();
+
+        memory.setLongValue(9, 9);
+        memory.setLongValue(5, 5);
+
+        assertEquals(memory.getLongValue(9), 9);
+        assertEquals(memory.getLongValue(5), 5);
+        assertEquals(memory.getNumMappedPages(), 1);
+        assertEquals(memory.getCells(), new long[] {1, 2, 3, 0, 0, 5, 0, 0, 0, 9});
+    }
+
+    @Test
+    public void testInstructionsInMappedPagesAreNotCached() throws InvalidPositionException, InvalidInstructionException, EndOfCodeException {
+        IntCodeMemory memory = createIntCodeMemory(new long[] {1, 2, 3})
+                .withPageSize(16)
+                .withUnboundedSize()
+                .withAutoExpand()
+                .build();
+
+        memory.setLongValue(104, 1_000_000_000L);
+        memory.setLongValue(42, 1_000_000_001L);
+        memory.setCurrentPos(1_000_000_000L);
+
+        Instruction instruction = memory.readInstruction();
+
+        assertEquals(instruction.getNextInstructionPosition(), 1_000_000_002);
+        assertFalse(memory.isDecodedInstruction(1_000_000_000, instruction));
+        assertEquals(memory.getDenseLength(), 3);
+    }
+
+    @Test(expectedExceptions = InvalidPositionException.class)
+    public void testMaxSize() throws InvalidPositionException {
+        IntCodeMemory memory = createIntCodeMemory(new long[] {1, 2, 3})
+                .withMaxSize(100)
+                .withAutoExpand()
+                .build();
+
+        memory.setLongValue(7, 99);
+        memory.setLongValue(7, 100);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPageSizeMustBePowerOfTwo() {
+        createIntCodeMemory(new long[] {1, 2, 3}).withPageSize(1000);
+    }
+
+    @Test
+    public void testForkIsCopyOnWrite() throws InvalidPositionException {
+        IntCodeMemory memory = createIntCodeMemory(new long[] {1, 2, 3})
+                .withPageSize(4)
+                .withAutoExpand()
+                .build();
+        memory.setLongValue(100, 100);
+        memory.setValue(BigInteger.TWO.pow(70), BigInteger.ONE);
+
+        IntCodeMemory fork = memory.fork();
+        fork.setLongValue(10, 0);
+        fork.setLongValue(1000, 100);
+        fork.setLongValue(20, 1);
+        memory.setLongValue(30, 2);
+
+        assertEquals(memory.getCells()[0], 1);
+        assertEquals(memory.getLongValue(100), 100);
+        assertEquals(memory.getValue(BigInteger.ONE), BigInteger.TWO.pow(70));
+        assertEquals(fork.getLongValue(0), 10);
+        assertEquals(fork.getLongValue(100), 1000);
+        assertEquals(fork.getLongValue(1), 20);
+        assertEquals(fork.getLongValue(2), 3);
+    }
+
+    @Test
+    public void testForkOnlyCopiesTheChunksWritten() throws InvalidPositionException {
+        IntCodeMemory memory = createIntCodeMemory(new long[64])
+                .withPageSize(16)
+                .build();
+        assertEquals(memory.getNumOwnedChunks(), 4);
+
+        IntCodeMemory fork = memory.fork();
+        assertEquals(memory.getNumOwnedChunks(), 0);
+        assertEquals(fork.getNumOwnedChunks(), 0);
+
+        fork.setLongValue(7, 20);
+        fork.setLongValue(8, 21);
+        memory.setLongValue(9, 63);
+
+        assertEquals(fork.getNumOwnedChunks(), 1);
+        assertEquals(memory.getNumOwnedChunks(), 1);
+        assertEquals(fork.getLongValue(20), 7);
+        assertEquals(fork.getLongValue(63), 0);
+        assertEquals(memory.getLongValue(20), 0);
+        assertEquals(memory.getLongValue(63), 9);
+    }
+
+    @Test
+    public void testForkKeepsPositions() throws InvalidPositionException {
+        IntCodeMemory memory = createIntCodeMemory(new long[] {1, 2, 3, 4, 5}).build();
+        memory.setCurrentPos(4);
+        memory.incrementRelativeBaseOffset(7);
+
+        IntCodeMemory fork = memory.fork();
+        memory.setCurrentPos(0);
+
+        assertEquals(fork.getCurrentPos(), 4);
+        assertEquals(fork.getLongRelativeBaseOffset(), 7);
+    }
+
+    private static long readPagedCells(IntCodeMemory memory) throws InvalidPositionException {
+        long sum = 0;
+        for (long position = 1_000_000_000L - 10_000 * 16; position <= 1_000_000_000L; position += 16)
+            sum += memory.getLongValue(position);
+        return sum;
+    }
+}
@@ -0,0 +1,122 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+import static org.testng.Assert.*;
+
+public class IntCodeMetricsTest {
+    // Outputs 7 three times, counting down in the position 100: 11 instructions
+    private static final long[] LOOP_CODE = {1101, 0, 3, 100, 104, 7, 1001, 100, -1, 100, 1005, 100, 4, 99};
+    // Reads values forever, outputting every value plus one
+    private static final long[] INCREMENT_CODE = {3, 100, 1001, 100, 1, 100, 4, 100, 1105, 1, 0};
+
+    @DataProvider(name = "engines")
+    public Object[][] engines() {
+        return Arrays.stream(ExecutionEngine.values()).map(engine -> new Object[] {engine}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testExecutionCounters(ExecutionEngine engine) throws IntComputerException {
+        IntCodeComputer computer = createNewIntCodeComputer(LOOP_CODE).withMemoryAutoExpand().withEngine(engine).build();
+        computer.executeCode();
+
+        IntCodeMetrics metrics = computer.getMetrics();
+        assertEquals(metrics.getInstructionsExecuted(), 11);
+        assertEquals(metrics.getOutputCount(), 3);
+        assertEquals(metrics.getInputStarvationCount(), 0);
+        assertEquals(metrics.getMemoryHighWaterMark(), 101);
+        assertEquals(metrics.getAutoExpandCount(), 1);
+        assertEquals(metrics.getEngine(), engine.name());
+    }
+
+    @Test(dataProvider = "engines")
+    public void testInputStarvation(ExecutionEngine engine) throws IntComputerException {
+        IntCodeComputer computer = createNewIntCodeComputer(INCREMENT_CODE).withMemoryAutoExpand().withEngine(engine).build();
+        computer.run(InputSource.empty(), value -> {});
+        computer.run(InputSource.of(1, 2), value -> {});
+
+        IntCodeMetrics metrics = computer.getMetrics();
+        assertEquals(metrics.getInputStarvationCount(), 2);
+        assertEquals(metrics.getOutputCount(), 2);
+        assertEquals(metrics.getInstructionsExecuted(), 8);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testCountersReadWhileRunning(ExecutionEngine engine) throws InterruptedException {
+        // Counts down from 1,000,000 in the position 100, without any output
+        final long[] code = {1101, 0, 1_000_000, 100, 1001, 100, -1, 100, 1005, 100, 4, 99};
+        final long totalInstructions = 2 * 1_000_000 + 2;
+        IntCodeComputer computer = createNewIntCodeComputer(code).withMemoryAutoExpand().withEngine(engine).build();
+        IntCodeMetrics metrics = computer.getMetrics();
+
+        Thread thread = new Thread(() -> {
+            try {
+                computer.executeCode();
+            } catch (IntComputerException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+
+        boolean progressSeen = false;
+        while (thread.isAlive() && !progressSeen) {
+            final long instructions = metrics.getInstructionsExecuted();
+            progressSeen = instructions > 0 && instructions < totalInstructions;
+        }
+        thread.join();
+
+        assertTrue(progressSeen, "Expecting the instructions counted to move while the program loops without any event");
+        assertEquals(metrics.getInstructionsExecuted(), totalInstructions);
+    }
+
+    @Test
+    public void testInstructionsPerSecond() throws IntComputerException {
+        IntCodeComputer computer = createNewIntCodeComputer(LOOP_CODE).withMemoryAutoExpand().build();
+        IntCodeMetrics metrics = computer.getMetrics();
+        computer.executeCode();
+
+        assertTrue(metrics.getInstructionsPerSecond() > 0);
+        assertTrue(metrics.getInstructionsPerSecond() > 0, "Expecting the rate to be the same for every reader");
+
+        // Nothing executed since the sample the rate is measured against
+        metrics.sample();
+        metrics.sample();
+        assertEquals(metrics.getInstructionsPerSecond(), 0.0);
+    }
+
+    @Test
+    public void testForkStartsFromZero() throws IntComputerException {
+        IntCodeComputer computer = createNewIntCodeComputer(LOOP_CODE).withMemoryAutoExpand().build();
+        computer.executeCode();
+
+        IntCodeComputer fork = computer.fork();
+        assertEquals(fork.getMetrics().getInstructionsExecuted(), 0);
+        assertEquals(fork.getMetrics().getMemoryHighWaterMark(), 101);
+    }
+
+    @Test
+    public void testRegisteredAsMXBean() throws IntComputerException, JMException {
+        IntCodeComputer computer = createNewIntCodeComputer(LOOP_CODE).withMemoryAutoExpand().build();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        final ObjectName name;
+        try (IntCodeMetrics metrics = computer.getMetrics()) {
+            name = metrics.register("metrics test");
+            computer.executeCode();
+
+            assertEquals(server.getAttribute(name, "InstructionsExecuted"), 11L);
+            assertEquals(server.getAttribute(name, "OutputCount"), 3L);
+            assertEquals(server.getAttribute(name, "Engine"), "INTERPRETER");
+        }
+        assertFalse(server.isRegistered(name));
+    }
+}
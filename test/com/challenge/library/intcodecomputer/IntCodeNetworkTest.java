@@ -0,0 +1,114 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.IntCodeNetwork.Packet;
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.challenge.library.intcodecomputer.IntCodeNetwork.Builder.createNetwork;
+import static org.testng.Assert.*;
+
+public class IntCodeNetworkTest {
+    // Reads its address, and then forwards every packet (x, y) it gets to the next address as (x, y + 1)
+    private static final long[] FORWARDER_CODE = {3, 100, 3, 101, 1008, 101, -1, 103, 1005, 103, 2, 3, 102, 1001, 100, 1,
+            104, 4, 104, 4, 101, 1001, 102, 1, 102, 4, 102, 1105, 1, 2};
+
+    @DataProvider(name = "engines")
+    public Object[][] engines() {
+        return Arrays.stream(ExecutionEngine.values()).map(engine -> new Object[] {engine}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testPacketGoesThroughEveryNode(ExecutionEngine engine) throws InterruptedException, IntComputerException {
+        final int numNodes = 10;
+        final List<Packet> packetsReceived = Collections.synchronizedList(new ArrayList<>());
+        IntCodeNetwork network = createNetwork(FORWARDER_CODE, numNodes)
+                .withEngine(engine)
+                .withNumWorkers(2)
+                .withPacketListener((packet, net) -> packetsReceived.add(packet))
+                .build();
+
+        network.send(new Packet(0, 5, 100));
+        network.run();
+
+        assertEquals(packetsReceived, List.of(new Packet(numNodes, 5, 100 + numNodes)));
+        assertEquals(network.getNumPacketsSent(), numNodes + 1);
+        assertEquals(network.getNumNodes(), numNodes);
+    }
+
+    @Test
+    public void testManyPacketsThroughManyNodes() throws InterruptedException, IntComputerException {
+        final int numNodes = 300;
+        final int numPackets = 50;
+        final Set<Packet> packetsReceived = Collections.synchronizedSet(new HashSet<>());
+        IntCodeNetwork network = createNetwork(FORWARDER_CODE, numNodes)
+                .withNumWorkers(4)
+                .withQuantum(50)
+                .withPacketListener((packet, net) -> packetsReceived.add(packet))
+                .build();
+
+        for (int x = 0; x < numPackets; x++)
+            network.send(new Packet(0, x, 0));
+        network.run();
+
+        Set<Packet> expectedPackets = new HashSet<>();
+        for (int x = 0; x < numPackets; x++)
+            expectedPackets.add(new Packet(numNodes, x, numNodes));
+        assertEquals(packetsReceived, expectedPackets);
+    }
+
+    @Test
+    public void testIdleListenerWakesUpTheNetwork() throws InterruptedException, IntComputerException {
+        final int numNodes = 5;
+        final List<Packet> packetsReceived = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger numIdles = new AtomicInteger();
+        // Like the NAT of day 23: keeps the last packet received, and sends it to the node 0 when the network is idle
+        IntCodeNetwork network = createNetwork(FORWARDER_CODE, numNodes)
+                .withNumWorkers(2)
+                .withPacketListener((packet, net) -> packetsReceived.add(packet))
+                .withIdleListener(net -> {
+                    if (numIdles.incrementAndGet() <= 3) {
+                        final Packet last = packetsReceived.get(packetsReceived.size() - 1);
+                        net.send(new Packet(0, last.getX(), last.getY()));
+                    }
+                })
+                .build();
+
+        network.send(new Packet(0, 1, 0));
+        network.run();
+
+        assertEquals(numIdles.get(), 4);
+        assertEquals(packetsReceived, List.of(new Packet(numNodes, 1, numNodes), new Packet(numNodes, 1, 2 * numNodes),
+                new Packet(numNodes, 1, 3 * numNodes), new Packet(numNodes, 1, 4 * numNodes)));
+    }
+
+    @Test(dataProvider = "engines")
+    public void testStopFromPacketListener(ExecutionEngine engine) throws InterruptedException, IntComputerException {
+        final int numNodes = 3;
+        final AtomicInteger numLaps = new AtomicInteger();
+        // The packets leaving the network are sent back to the node 0, so the network would never be idle
+        IntCodeNetwork network = createNetwork(FORWARDER_CODE, numNodes)
+                .withEngine(engine)
+                .withNumWorkers(2)
+                .withPacketListener((packet, net) -> {
+                    if (numLaps.incrementAndGet() == 100)
+                        net.stop();
+                    else
+                        net.send(new Packet(0, packet.getX(), packet.getY()));
+                })
+                .build();
+
+        network.send(new Packet(0, 1, 0));
+        network.run();
+
+        assertEquals(numLaps.get(), 100);
+    }
+
+    @Test
+    public void testInvalidNumberOfNodes() {
+        assertThrows(IllegalArgumentException.class, () -> createNetwork(FORWARDER_CODE, 0));
+    }
+}
@@ -0,0 +1,74 @@
+package com.challenge.library.intcodecomputer;
+
+import org.testng.annotations.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.StringJoiner;
+
+import static org.testng.Assert.*;
+
+public class IntCodeParserTest {
+    @Test
+    public void testParse() {
+        assertEquals(parse("1,9,10,3,2,3,11,0,99,30,40,50").toLongs(), new long[] {1, 9, 10, 3, 2, 3, 11, 0, 99, 30, 40, 50});
+    }
+
+    @Test
+    public void testWhitespace() {
+        assertEquals(parse("  104, -5 ,\t+7,99\r\n").toLongs(), new long[] {104, -5, 7, 99});
+        assertEquals(parse("42\n\n").toLongs(), new long[] {42});
+    }
+
+    @Test
+    public void testLongLimits() {
+        IntCodeParser.ParsedCode code = parse(Long.MAX_VALUE + "," + Long.MIN_VALUE);
+
+        assertEquals(code.toLongs(), new long[] {Long.MAX_VALUE, Long.MIN_VALUE});
+        assertNull(code.getBigCell(1));
+        assertEquals(code.toBigIntegers(), new BigInteger[] {BigInteger.valueOf(Long.MAX_VALUE), BigInteger.valueOf(Long.MIN_VALUE)});
+    }
+
+    @Test
+    public void testBigValues() {
+        final BigInteger big = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+        final BigInteger negativeBig = new BigInteger("-123456789012345678901234567890");
+        IntCodeParser.ParsedCode code = parse("104," + big + ",104," + negativeBig + ",99");
+
+        assertEquals(code.getBigCell(1), big);
+        assertEquals(code.getBigCell(3), negativeBig);
+        assertNull(code.getBigCell(0));
+        assertEquals(code.toBigIntegers(), new BigInteger[] {
+                BigInteger.valueOf(104), big, BigInteger.valueOf(104), negativeBig, BigInteger.valueOf(99)});
+        expectThrows(NumberFormatException.class, code::toLongs);
+    }
+
+    @Test
+    public void testInvalidValues() {
+        expectThrows(NumberFormatException.class, () -> parse(""));
+        expectThrows(NumberFormatException.class, () -> parse("1,,2"));
+        expectThrows(NumberFormatException.class, () -> parse("1,2,"));
+        expectThrows(NumberFormatException.class, () -> parse("1,2a,3"));
+        expectThrows(NumberFormatException.class, () -> parse("1 2"));
+        expectThrows(NumberFormatException.class, () -> parse("-"));
+    }
+
+    @Test
+    public void testBigProgram() {
+        Random random = new Random(2019);
+        long[] expected = new long[500_000];
+        StringJoiner text = new StringJoiner(",", "", "\n");
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = random.nextLong() >> random.nextInt(64);
+            text.add(Long.toString(expected[i]));
+        }
+
+        assertEquals(parse(text.toString()).toLongs(), expected);
+    }
+
+    private static IntCodeParser.ParsedCode parse(String text) {
+        return IntCodeParser.parse(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
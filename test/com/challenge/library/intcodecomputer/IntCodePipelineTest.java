@@ -0,0 +1,140 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+import static com.challenge.library.intcodecomputer.IntCodePipeline.Builder.createPipeline;
+import static org.testng.Assert.*;
+
+public class IntCodePipelineTest {
+    // Example of the day 7 amplifiers with feedback loop: phases 9,8,7,6,5 give 139629729
+    private static final long[] AMPLIFIER_CODE = {3, 26, 1001, 26, -4, 26, 3, 27, 1002, 27, 2, 27, 1, 27, 26, 27, 4, 27,
+            1001, 28, -1, 28, 1005, 28, 6, 99, 0, 0, 5};
+    // Reads values forever, outputting every value plus one
+    private static final long[] INCREMENT_CODE = {3, 100, 1001, 100, 1, 100, 4, 100, 1105, 1, 0};
+
+    @DataProvider(name = "engines")
+    public Object[][] engines() {
+        return Arrays.stream(ExecutionEngine.values()).map(engine -> new Object[] {engine}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testAmplifierRing(ExecutionEngine engine) throws InterruptedException, IntComputerException {
+        final long[] phases = {9, 8, 7, 6, 5};
+        final AtomicLong thrusterSignal = new AtomicLong();
+
+        IntCodePipeline.Builder builder = createPipeline().withChannelCapacity(1);
+        for (int i = 0; i < phases.length; i++) {
+            IntCodeComputer amplifier = createNewIntCodeComputer(AMPLIFIER_CODE)
+                    .withInputValue(phases[i])
+                    .withEngine(engine)
+                    .build();
+            if (i == 0)
+                amplifier.addInputValue(0);
+            builder.withStage(amplifier).withConnection(i, (i + 1) % phases.length);
+        }
+        builder.withOutputSink(phases.length - 1, thrusterSignal::set);
+
+        try (IntCodePipeline pipeline = builder.build()) {
+            pipeline.run();
+        }
+
+        assertEquals(thrusterSignal.get(), 139629729);
+    }
+
+    @Test
+    public void testChainWithBackPressure() throws InterruptedException, IntComputerException {
+        final int numStages = 10;
+        final int numValues = 10_000;
+        final List<Long> output = new ArrayList<>();
+
+        IntCodePipeline.Builder builder = createPipeline().withChannelCapacity(2);
+        for (int i = 0; i < numStages; i++) {
+            builder.withStage(createNewIntCodeComputer(INCREMENT_CODE).withMemoryAutoExpand().build());
+            if (i > 0)
+                builder.withConnection(i - 1, i);
+        }
+        builder.withOutputSink(numStages - 1, output::add);
+
+        try (IntCodePipeline pipeline = builder.build()) {
+            pipeline.start();
+            LongChannel input = pipeline.getInput(0);
+            for (long value = 0; value < numValues; value++)
+                input.put(value);
+            input.close();
+            pipeline.awaitCompletion();
+        }
+
+        assertEquals(output.size(), numValues);
+        for (int i = 0; i < numValues; i++)
+            assertEquals((long) output.get(i), i + numStages);
+    }
+
+    @Test
+    public void testFanOut() throws InterruptedException, IntComputerException {
+        final List<Long> output1 = Collections.synchronizedList(new ArrayList<>());
+        final List<Long> output2 = Collections.synchronizedList(new ArrayList<>());
+
+        IntCodePipeline pipeline = createPipeline()
+                .withStage(createNewIntCodeComputer(new long[] {104, 1, 104, 2, 99}).build())
+                .withStage(createNewIntCodeComputer(INCREMENT_CODE).withMemoryAutoExpand().build())
+                .withStage(createNewIntCodeComputer(INCREMENT_CODE).withMemoryAutoExpand().build())
+                .withConnection(0, 1)
+                .withConnection(0, 2)
+                .withOutputSink(1, output1::add)
+                .withOutputSink(2, output2::add)
+                .build();
+        pipeline.run();
+
+        assertEquals(output1, List.of(2L, 3L));
+        assertEquals(output2, List.of(2L, 3L));
+    }
+
+    @Test
+    public void testCustomThreadFactory() throws InterruptedException, IntComputerException {
+        AtomicInteger numThreads = new AtomicInteger();
+
+        createPipeline()
+                .withStage(createNewIntCodeComputer(new long[] {104, 1, 99}).build())
+                .withStage(createNewIntCodeComputer(new long[] {99}).build())
+                .withThreadFactory(runnable -> {
+                    numThreads.incrementAndGet();
+                    return new Thread(runnable);
+                })
+                .build()
+                .run();
+
+        assertEquals(numThreads.get(), 2);
+    }
+
+    @Test
+    public void testFailedStage() throws InterruptedException {
+        IntCodePipeline pipeline = createPipeline()
+                .withStage(createNewIntCodeComputer(new long[] {104, 1, 98}).build())
+                .withStage(createNewIntCodeComputer(INCREMENT_CODE).withMemoryAutoExpand().build())
+                .withConnection(0, 1)
+                .build();
+
+        assertThrows(IntComputerException.class, pipeline::run);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testStageWithTwoProducers() {
+        createPipeline()
+                .withStage(createNewIntCodeComputer(new long[] {99}).build())
+                .withStage(createNewIntCodeComputer(new long[] {99}).build())
+                .withStage(createNewIntCodeComputer(new long[] {99}).build())
+                .withConnection(0, 2)
+                .withConnection(1, 2)
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+import static org.testng.Assert.*;
+
+public class IntCodeProfilerTest {
+    // Decrements the value at position 12 until it's 0: the loop goes from position 0 to the jump at position 4
+    private static final long[] COUNTDOWN_CODE = {1001, 12, -1, 12, 1005, 12, 0, 99, 0, 0, 0, 0, 5};
+
+    @Test
+    public void testInstructionCounts() throws IntComputerException {
+        IntCodeProfiler profiler = new IntCodeProfiler();
+        createNewIntCodeComputer(COUNTDOWN_CODE)
+                .withProfiler(profiler)
+                .build()
+                .executeCode();
+
+        assertEquals(profiler.getTotalInstructions(), 11);
+        assertEquals(profiler.getOpCodeCount(1), 5);
+        assertEquals(profiler.getOpCodeCount(5), 5);
+        assertEquals(profiler.getOpCodeCount(99), 1);
+        assertEquals(profiler.getInstructionCodeCount(1001), 5);
+        assertEquals(profiler.getInstructionCodeCount(1), 0);
+        assertEquals(profiler.getPositionCount(0), 5);
+        assertEquals(profiler.getPositionCount(4), 5);
+        assertEquals(profiler.getPositionCount(7), 1);
+        assertEquals(profiler.getJumpCount(4, 0), 4);
+    }
+
+    @Test
+    public void testHotLoops() throws IntComputerException {
+        IntCodeProfiler profiler = new IntCodeProfiler();
+        createNewIntCodeComputer(COUNTDOWN_CODE)
+                .withProfiler(profiler)
+                .build()
+                .executeCode();
+
+        List<IntCodeProfiler.HotLoop> hotLoops = profiler.getHotLoops();
+        assertEquals(hotLoops.size(), 1);
+        assertEquals(hotLoops.get(0).getStartPosition(), 0);
+        assertEquals(hotLoops.get(0).getEndPosition(), 4);
+        assertEquals(hotLoops.get(0).getIterations(), 4);
+        assertEquals(hotLoops.get(0).getInstructions(), 10);
+
+        assertTrue(profiler.getReport(5).contains("[0..4] 4 iterations, 10 instructions"));
+    }
+
+    @Test
+    public void testFarPositionsAreCountedSparsely() throws IntComputerException {
+        // Writes an output instruction far away in the sparse memory and jumps to it
+        final int far = 2_000_000_000;
+        IntCodeProfiler profiler = new IntCodeProfiler();
+        createNewIntCodeComputer(new long[] {1101, 104, 0, far, 1101, 7, 0, far + 1, 1101, 99, 0, far + 2, 1105, 1, far})
+                .withMemoryAutoExpand()
+                .withUnboundedMemory()
+                .withProfiler(profiler)
+                .build()
+                .executeCode();
+
+        assertEquals(profiler.getTotalInstructions(), 6);
+        assertEquals(profiler.getPositionCount(far), 1);
+        assertEquals(profiler.getPositionCount(far + 2), 1);
+        assertEquals(profiler.getPositionCount(far + 1), 0);
+        assertEquals(profiler.getJumpCount(12, far), 1);
+        assertTrue(profiler.getReport(10).contains(Integer.toString(far)));
+    }
+
+    @Test
+    public void testInputNeededIsNotCounted() throws IntComputerException {
+        IntCodeProfiler profiler = new IntCodeProfiler();
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(new long[] {3, 0, 4, 0, 99})
+                .withProfiler(profiler)
+                .withAskForInputMode()
+                .build();
+
+        assertTrue(intCodeComputer.executeCode().isInputNeeded());
+        assertEquals(profiler.getTotalInstructions(), 0);
+
+        intCodeComputer.addInputValue(7);
+        intCodeComputer.executeCode();
+        assertEquals(profiler.getTotalInstructions(), 3);
+    }
+
+    @Test
+    public void testForksShareTheProfiler() throws IntComputerException {
+        IntCodeProfiler profiler = new IntCodeProfiler();
+        IntCodeComputer intCodeComputer = createNewIntCodeComputer(COUNTDOWN_CODE)
+                .withEngine(ExecutionEngine.COMPILED)
+                .withProfiler(profiler)
+                .build();
+
+        IntCodeComputer fork = intCodeComputer.fork();
+        intCodeComputer.executeCode();
+        fork.executeCode();
+
+        assertEquals(profiler.getTotalInstructions(), 22);
+    }
+}
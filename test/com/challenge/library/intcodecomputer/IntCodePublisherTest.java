@@ -0,0 +1,175 @@
+package com.challenge.library.intcodecomputer;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+import static com.challenge.library.intcodecomputer.IntCodePublisher.Builder.createPublisher;
+import static org.testng.Assert.*;
+
+public class IntCodePublisherTest {
+    // Reads values forever, outputting every value plus one
+    private static final long[] INCREMENT_CODE = {3, 100, 1001, 100, 1, 100, 4, 100, 1105, 1, 0};
+    // Outputs 0, 1, 2... forever
+    private static final long[] COUNTER_CODE = {4, 100, 1001, 100, 1, 100, 1105, 1, 0};
+
+    @DataProvider(name = "engines")
+    public Object[][] engines() {
+        return Arrays.stream(ExecutionEngine.values()).map(engine -> new Object[] {engine}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testOutputOfInputPublisher(ExecutionEngine engine) throws InterruptedException {
+        IntCodeComputer computer = createNewIntCodeComputer(INCREMENT_CODE).withMemoryAutoExpand().withEngine(engine).build();
+        IntCodePublisher publisher = createPublisher(computer).withInputBufferSize(4).build();
+        TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+
+        try (SubmissionPublisher<Long> input = new SubmissionPublisher<>()) {
+            input.subscribe(publisher.getInputSubscriber());
+            for (long value = 0; value < 1000; value++)
+                input.submit(value);
+        }
+
+        assertTrue(subscriber.completion.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(subscriber.values, LongStream.range(1, 1001).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testComputerOnlyRunsAsFarAsRequested() throws InterruptedException {
+        IntCodeComputer computer = createNewIntCodeComputer(COUNTER_CODE).withMemoryAutoExpand().build();
+        IntCodePublisher publisher = createPublisher(computer).build();
+        // Asks for one value at a time, cancelling after 5 of them
+        TestSubscriber subscriber = new TestSubscriber(1) {
+            @Override
+            public void onNext(Long value) {
+                super.onNext(value);
+                if (values.size() < 5) {
+                    subscription.request(1);
+                } else {
+                    subscription.cancel();
+                    completion.countDown();
+                }
+            }
+        };
+        publisher.subscribe(subscriber);
+
+        assertTrue(subscriber.completion.await(10, TimeUnit.SECONDS));
+        assertEquals(subscriber.values, List.of(0L, 1L, 2L, 3L, 4L));
+    }
+
+    @Test
+    public void testCancelWithUnboundedDemand() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            IntCodeComputer computer = createNewIntCodeComputer(COUNTER_CODE).withMemoryAutoExpand().build();
+            IntCodePublisher publisher = createPublisher(computer).withExecutor(executor).build();
+            TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE) {
+                @Override
+                public void onNext(Long value) {
+                    super.onNext(value);
+                    if (values.size() == 100)
+                        subscription.cancel();
+                }
+            };
+            publisher.subscribe(subscriber);
+
+            // The endless program must leave the executor once cancelled
+            assertEquals((int) executor.submit(() -> subscriber.values.size()).get(10, TimeUnit.SECONDS), 100);
+        } catch (Exception e) {
+            fail("Cancellation not processed", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCompletedWhenInputEnds() throws InterruptedException {
+        IntCodeComputer computer = createNewIntCodeComputer(INCREMENT_CODE).withMemoryAutoExpand().withInputValue(41).build();
+        IntCodePublisher publisher = createPublisher(computer).build();
+        TestSubscriber subscriber = new TestSubscriber(10);
+        publisher.subscribe(subscriber);
+
+        SubmissionPublisher<Long> input = new SubmissionPublisher<>();
+        input.subscribe(publisher.getInputSubscriber());
+        input.close();
+
+        assertTrue(subscriber.completion.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(subscriber.values, List.of(42L));
+    }
+
+    @Test
+    public void testExecutionError() throws InterruptedException {
+        IntCodePublisher publisher = createPublisher(createNewIntCodeComputer(new long[] {104, 1, 98}).build()).build();
+        TestSubscriber subscriber = new TestSubscriber(10);
+        publisher.subscribe(subscriber);
+
+        assertTrue(subscriber.completion.await(10, TimeUnit.SECONDS));
+        assertEquals(subscriber.values, List.of(1L));
+        assertNotNull(subscriber.error);
+    }
+
+    @Test
+    public void testOnlyOneSubscriber() throws InterruptedException {
+        IntCodePublisher publisher = createPublisher(createNewIntCodeComputer(new long[] {104, 1, 99}).build()).build();
+        TestSubscriber first = new TestSubscriber(10);
+        TestSubscriber second = new TestSubscriber(10);
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+
+        assertTrue(first.completion.await(10, TimeUnit.SECONDS));
+        assertTrue(second.completion.await(10, TimeUnit.SECONDS));
+        assertEquals(first.values, List.of(1L));
+        assertNull(first.error);
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<Long> {
+        final List<Long> values = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch completion = new CountDownLatch(1);
+        final long initialRequest;
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        TestSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(Long value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+            completion.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completion.countDown();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.IntCodeScheduler.Machine;
+import com.challenge.library.intcodecomputer.IntCodeScheduler.MachineStatus;
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.challenge.library.intcodecomputer.IntCodeComputer.Builder.createNewIntCodeComputer;
+import static com.challenge.library.intcodecomputer.IntCodeScheduler.Builder.createScheduler;
+import static org.testng.Assert.*;
+
+public class IntCodeSchedulerTest {
+    // Example of the day 7 amplifiers with feedback loop: phases 9,8,7,6,5 give 139629729
+    private static final long[] AMPLIFIER_CODE = {3, 26, 1001, 26, -4, 26, 3, 27, 1002, 27, 2, 27, 1, 27, 26, 27, 4, 27,
+            1001, 28, -1, 28, 1005, 28, 6, 99, 0, 0, 5};
+    // Reads values forever, outputting every value plus one
+    private static final long[] INCREMENT_CODE = {3, 100, 1001, 100, 1, 100, 4, 100, 1105, 1, 0};
+    private static final long[] ENDLESS_LOOP_CODE = {1105, 1, 0};
+
+    @DataProvider(name = "engines")
+    public Object[][] engines() {
+        return Arrays.stream(ExecutionEngine.values()).map(engine -> new Object[] {engine}).toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testAmplifierRing(ExecutionEngine engine) throws InterruptedException, IntComputerException {
+        final long[] phases = {9, 8, 7, 6, 5};
+        final Machine[] amplifiers = new Machine[phases.length];
+        final AtomicLong thrusterSignal = new AtomicLong();
+
+        try (IntCodeScheduler scheduler = createScheduler().withNumWorkers(2).withQuantum(5).build()) {
+            for (int i = 0; i < phases.length; i++) {
+                final int next = (i + 1) % phases.length;
+                final boolean last = next == 0;
+                IntCodeComputer computer = createNewIntCodeComputer(AMPLIFIER_CODE)
+                        .withInputValue(phases[i])
+                        .withEngine(engine)
+                        .build();
+                amplifiers[i] = scheduler.submit(computer, value -> {
+                    if (last)
+                        thrusterSignal.set(value);
+                    amplifiers[next].addInputValue(value);
+                });
+            }
+            amplifiers[0].addInputValue(0);
+
+            scheduler.start();
+            scheduler.awaitIdle();
+        }
+
+        assertEquals(thrusterSignal.get(), 139629729);
+        assertTrue(Arrays.stream(amplifiers).allMatch(amplifier -> amplifier.getStatus() == MachineStatus.HALTED));
+    }
+
+    @Test
+    public void testLongChainOfMachines() throws InterruptedException, IntComputerException {
+        final int numMachines = 2000;
+        final Machine[] machines = new Machine[numMachines];
+        final List<Long> output = Collections.synchronizedList(new ArrayList<>());
+
+        try (IntCodeScheduler scheduler = createScheduler().withNumWorkers(4).build()) {
+            for (int i = numMachines - 1; i >= 0; i--) {
+                final Machine next = i + 1 < numMachines ? machines[i + 1] : null;
+                IntCodeComputer computer = createNewIntCodeComputer(INCREMENT_CODE).withMemoryAutoExpand().build();
+                machines[i] = scheduler.submit(computer, next != null ? next::addInputValue : output::add);
+            }
+            scheduler.start();
+
+            for (long value = 0; value < 100; value++)
+                machines[0].addInputValue(value);
+            scheduler.awaitIdle();
+
+            assertEquals(scheduler.getMachines().size(), numMachines);
+            assertTrue(scheduler.getMachines().stream().allMatch(machine -> machine.getStatus() == MachineStatus.WAITING_FOR_INPUT));
+        }
+
+        assertEquals(output.size(), 100);
+        for (int i = 0; i < 100; i++)
+            assertEquals((long) output.get(i), i + numMachines);
+    }
+
+    @Test(dataProvider = "engines")
+    public void testQuantumSharesTheWorkerWithEndlessLoops(ExecutionEngine engine) throws InterruptedException {
+        CountDownLatch outputReceived = new CountDownLatch(1);
+
+        try (IntCodeScheduler scheduler = createScheduler().withNumWorkers(1).withQuantum(100).build()) {
+            scheduler.submit(createNewIntCodeComputer(ENDLESS_LOOP_CODE).withEngine(engine).build(), value -> {});
+            scheduler.submit(createNewIntCodeComputer(ENDLESS_LOOP_CODE).withEngine(engine).build(), value -> {});
+            Machine machine = scheduler.submit(createNewIntCodeComputer(new long[] {104, 42, 99}).build(),
+                    value -> outputReceived.countDown());
+            scheduler.start();
+
+            assertTrue(outputReceived.await(10, TimeUnit.SECONDS));
+            assertNotEquals(scheduler.getMachines().get(0).getStatus(), MachineStatus.HALTED);
+            assertEquals(machine.getId(), 2);
+        }
+    }
+
+    @Test
+    public void testWakeUpWaitingMachine() throws InterruptedException, IntComputerException {
+        final List<Long> output = Collections.synchronizedList(new ArrayList<>());
+
+        try (IntCodeScheduler scheduler = createScheduler().withNumWorkers(2).build()) {
+            Machine machine = scheduler.submit(createNewIntCodeComputer(INCREMENT_CODE).withMemoryAutoExpand().build(), output::add);
+            scheduler.start();
+            scheduler.awaitIdle();
+            assertEquals(machine.getStatus(), MachineStatus.WAITING_FOR_INPUT);
+
+            machine.addInputValues(7, 8);
+            scheduler.awaitIdle();
+        }
+
+        assertEquals(output, List.of(8L, 9L));
+    }
+
+    @Test
+    public void testFailedMachine() throws InterruptedException {
+        try (IntCodeScheduler scheduler = createScheduler().withNumWorkers(2).build()) {
+            Machine machine = scheduler.submit(createNewIntCodeComputer(new long[] {104, 1, 98}).build(), value -> {});
+            scheduler.start();
+
+            assertThrows(IntComputerException.class, scheduler::awaitIdle);
+            assertEquals(machine.getStatus(), MachineStatus.FAILED);
+            assertTrue(machine.getError().isPresent());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.IntCodeSolver.Solution;
+import com.challenge.library.intcodecomputer.exception.IntComputerException;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static com.challenge.library.intcodecomputer.IntCodeSolver.Builder.createSolver;
+import static org.testng.Assert.*;
+
+public class IntCodeSolverTest {
+    @Test
+    public void testDay2SolvedSymbolically() throws IntComputerException {
+        Solution solution = createSolver(Day2Program.CODE)
+                .withUnknown(1, 0, 99)
+                .withUnknown(2, 0, 99)
+                .build()
+                .solve(0, Day2Program.TARGET)
+                .orElseThrow();
+
+        assertTrue(solution.isSymbolic());
+        assertEquals(Day2Program.run(solution.getValue(0), solution.getValue(1)), Day2Program.TARGET);
+    }
+
+    @Test
+    public void testSameSolutionAsNestedLoop() throws IntComputerException {
+        // A target reached by several combinations: [0] is noun * 460800 + verb + 797908 in this program
+        final long target = Day2Program.run(12, 2);
+        long[] expected = null;
+        for (int noun = 0; noun <= 99 && expected == null; noun++) {
+            for (int verb = 0; verb <= 99 && expected == null; verb++) {
+                if (Day2Program.run(noun, verb) == target)
+                    expected = new long[] {noun, verb};
+            }
+        }
+
+        Solution solution = createSolver(Day2Program.CODE)
+                .withUnknown(1, 0, 99)
+                .withUnknown(2, 0, 99)
+                .build()
+                .solve(0, target)
+                .orElseThrow();
+        assertEquals(solution.getValues(), expected);
+    }
+
+    @Test
+    public void testNoSolution() {
+        Optional<Solution> solution = createSolver(Day2Program.CODE)
+                .withUnknown(1, 0, 99)
+                .withUnknown(2, 0, 99)
+                .build()
+                .solve(0, 42);
+
+        assertTrue(solution.isEmpty());
+    }
+
+    @Test
+    public void testProductOfUnknownsSearched() {
+        // [0] = [5] * [6]
+        Solution solution = createSolver(new long[] {2, 5, 6, 0, 99, 0, 0})
+                .withUnknown(5, 0, 10)
+                .withUnknown(6, 0, 10)
+                .build()
+                .solve(0, 42)
+                .orElseThrow();
+
+        assertFalse(solution.isSymbolic());
+        assertEquals(solution.getValues(), new long[] {6, 7});
+    }
+
+    @Test
+    public void testUnknownAddressSearched() {
+        // [0] = [x] + [7]: the unknown is an address, so only some values run without errors
+        Solution solution = createSolver(new long[] {1, 0, 7, 0, 99, 0, 0, 8})
+                .withUnknown(1, -5, 20)
+                .build()
+                .solve(0, 16)
+                .orElseThrow();
+
+        assertFalse(solution.isSymbolic());
+        assertEquals(solution.getValue(0), 7);
+    }
+
+    @Test
+    public void testUnknownNotInTheExpression() {
+        // [0] = 3 * [9] + 2, with [10] not used
+        Solution solution = createSolver(new long[] {102, 3, 9, 0, 1001, 0, 2, 0, 99, 0, 0})
+                .withUnknown(9, 0, 100)
+                .withUnknown(10, 10, 20)
+                .build()
+                .solve(0, 32)
+                .orElseThrow();
+
+        assertTrue(solution.isSymbolic());
+        assertEquals(solution.getValues(), new long[] {10, 10});
+    }
+
+    @Test
+    public void testInvalidUnknown() {
+        assertThrows(IllegalArgumentException.class, () -> createSolver(Day2Program.CODE).withUnknown(1000, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> createSolver(Day2Program.CODE).withUnknown(1, 2, 1));
+        assertThrows(IllegalStateException.class, () -> createSolver(Day2Program.CODE).build());
+    }
+}
@@ -0,0 +1,35 @@
+package com.challenge.library.intcodecomputer;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class IntObjectMapTest {
+    @Test
+    public void testPutAndRemove() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        for (int key = 0; key < 1000; key++)
+            map.put(key * 31, Integer.toString(key));
+        for (int key = 0; key < 1000; key += 2)
+            map.remove(key * 31);
+
+        assertEquals(map.size(), 500);
+        for (int key = 0; key < 1000; key++)
+            assertEquals(map.get(key * 31), key % 2 == 0 ? null : Integer.toString(key));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(-5, "a");
+        map.put(7, "b");
+
+        IntObjectMap<String> copy = map.copy();
+        copy.remove(7);
+        copy.put(Integer.MAX_VALUE, "c");
+
+        assertEquals(map.keys(), new int[] {-5, 7});
+        assertEquals(copy.keys(), new int[] {-5, Integer.MAX_VALUE});
+        assertNull(map.get(Integer.MAX_VALUE));
+    }
+}
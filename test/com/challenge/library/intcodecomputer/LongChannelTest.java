@@ -0,0 +1,96 @@
+package com.challenge.library.intcodecomputer;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.testng.Assert.*;
+
+public class LongChannelTest {
+    @Test
+    public void testCapacityRoundedUpToPowerOf2() {
+        assertEquals(new LongChannel(1).getCapacity(), 1);
+        assertEquals(new LongChannel(5).getCapacity(), 8);
+        assertEquals(new LongChannel(1024).getCapacity(), 1024);
+    }
+
+    @Test
+    public void testOfferUntilFull() {
+        LongChannel channel = new LongChannel(4);
+        for (long value = 0; value < 4; value++)
+            assertTrue(channel.offer(value));
+        assertFalse(channel.offer(4));
+
+        assertEquals(channel.nextInput(), 0);
+        assertTrue(channel.offer(4));
+        assertFalse(channel.offer(5));
+    }
+
+    @Test
+    public void testValuesInOrderWrappingAround() throws InterruptedException {
+        LongChannel channel = new LongChannel(4);
+        for (long value = 0; value < 100; value++) {
+            channel.put(value);
+            channel.put(-value);
+            assertEquals(channel.take(), value);
+            assertEquals(channel.take(), -value);
+        }
+        assertFalse(channel.hasInput());
+    }
+
+    @Test
+    public void testClosedChannel() throws InterruptedException {
+        LongChannel channel = new LongChannel(4);
+        channel.put(7);
+        channel.close();
+
+        assertTrue(channel.isClosed());
+        assertTrue(channel.awaitInput());
+        assertEquals(channel.nextInput(), 7);
+        assertFalse(channel.awaitInput());
+        assertThrows(IllegalStateException.class, channel::take);
+    }
+
+    @Test
+    public void testPutToCancelledChannelDiscardsValues() {
+        LongChannel channel = new LongChannel(1);
+        channel.put(1);
+        channel.cancel();
+
+        channel.put(2);
+        assertEquals(channel.nextInput(), 1);
+        assertFalse(channel.hasInput());
+    }
+
+    @Test
+    public void testProducerAndConsumerThreads() throws InterruptedException {
+        final int numValues = 1_000_000;
+        LongChannel channel = new LongChannel(64);
+        AtomicReference<String> error = new AtomicReference<>();
+
+        Thread consumer = new Thread(() -> {
+            try {
+                long expected = 0;
+                while (channel.awaitInput()) {
+                    final long value = channel.nextInput();
+                    if (value != expected++) {
+                        error.set(String.format("Expected %d but got %d", expected - 1, value));
+                        return;
+                    }
+                }
+                if (expected != numValues)
+                    error.set(String.format("Expected %d values but got %d", numValues, expected));
+            } catch (InterruptedException e) {
+                error.set("Interrupted");
+            }
+        });
+        consumer.start();
+
+        for (long value = 0; value < numValues; value++)
+            channel.put(value);
+        channel.close();
+        consumer.join();
+
+        assertNull(error.get());
+    }
+}
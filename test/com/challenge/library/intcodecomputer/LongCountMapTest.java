@@ -0,0 +1,39 @@
+package com.challenge.library.intcodecomputer;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class LongCountMapTest {
+    @Test
+    public void testCounts() {
+        LongCountMap map = new LongCountMap();
+        map.increment(0);
+        map.increment(Long.MIN_VALUE);
+        map.increment(-1);
+        map.increment(-1);
+
+        assertEquals(map.get(0), 1);
+        assertEquals(map.get(Long.MIN_VALUE), 1);
+        assertEquals(map.get(-1), 2);
+        assertEquals(map.get(1), 0);
+        assertEquals(map.size(), 3);
+    }
+
+    @Test
+    public void testCountsAreKeptWhenResized() {
+        LongCountMap map = new LongCountMap();
+        for (long key = 0; key < 10_000; key++) {
+            for (int i = 0; i <= key % 3; i++)
+                map.increment(key << 32);
+        }
+
+        assertEquals(map.size(), 10_000);
+        for (long key = 0; key < 10_000; key++)
+            assertEquals(map.get(key << 32), key % 3 + 1);
+
+        long[] total = {0};
+        map.forEach((key, count) -> total[0] += count);
+        assertEquals(total[0], 19_999);
+    }
+}
@@ -0,0 +1,120 @@
+package com.challenge.library.intcodecomputer;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class ProgramAnalyzerTest {
+    @Test
+    public void testStraightLineCode() {
+        // Day 2 example: 1,9,10,3,2,3,11,0,99,30,40,50
+        ProgramAnalysis analysis = ProgramAnalyzer.analyze(new long[] {1, 9, 10, 3, 2, 3, 11, 0, 99, 30, 40, 50});
+
+        List<ProgramAnalysis.BasicBlock> blocks = analysis.getBasicBlocks();
+        assertEquals(blocks.size(), 1);
+        assertEquals(blocks.get(0).getInstructionPositions(), new int[] {0, 4, 8});
+        assertEquals(blocks.get(0).getEndPosition(), 9);
+        assertEquals(blocks.get(0).getSuccessors(), new int[0]);
+
+        assertTrue(analysis.isCode(8));
+        assertFalse(analysis.isCode(9));
+        assertTrue(analysis.isInstructionStart(4));
+        assertFalse(analysis.isInstructionStart(5));
+
+        assertTrue(analysis.isWriteTarget(3));
+        assertTrue(analysis.isWriteTarget(0));
+        assertTrue(analysis.isComplete());
+        assertFalse(analysis.isImmutable(3));
+        assertTrue(analysis.isImmutable(4));
+        assertFalse(analysis.isImmutable(9));
+    }
+
+    @Test
+    public void testLoop() {
+        // Decrements the value at position 12 until it's 0
+        ProgramAnalysis analysis = ProgramAnalyzer.analyze(new long[] {1001, 12, -1, 12, 1005, 12, 0, 99, 0, 0, 0, 0, 5});
+
+        List<ProgramAnalysis.BasicBlock> blocks = analysis.getBasicBlocks();
+        assertEquals(blocks.size(), 2);
+        assertEquals(blocks.get(0).getInstructionPositions(), new int[] {0, 4});
+        assertEquals(blocks.get(0).getSuccessors(), new int[] {0, 7});
+        assertFalse(blocks.get(0).hasUnresolvedJump());
+        assertEquals(blocks.get(1).getInstructionPositions(), new int[] {7});
+
+        assertEquals(analysis.getBlockAt(5).orElseThrow().getStartPosition(), 0);
+        assertFalse(analysis.getBlockAt(8).isPresent());
+        assertTrue(analysis.isImmutable(0));
+        assertFalse(analysis.isImmutable(12));
+    }
+
+    @Test
+    public void testUnconditionalJumpSkipsData() {
+        // Jumps over the data at positions 3 and 4, which aren't valid instructions
+        ProgramAnalysis analysis = ProgramAnalyzer.analyze(new long[] {1105, 1, 5, 77, 88, 104, 3, 99});
+
+        List<ProgramAnalysis.BasicBlock> blocks = analysis.getBasicBlocks();
+        assertEquals(blocks.size(), 2);
+        assertEquals(blocks.get(0).getSuccessors(), new int[] {5});
+        assertEquals(blocks.get(1).getInstructionPositions(), new int[] {5, 7});
+        assertFalse(analysis.isCode(3));
+        assertFalse(analysis.isCode(4));
+    }
+
+    @Test
+    public void testWrittenJumpTarget() {
+        // The jump target (position 6) is overwritten by the input
+        ProgramAnalysis analysis = ProgramAnalyzer.analyze(new long[] {3, 6, 106, 0, 6, 99, 5});
+
+        assertTrue(analysis.isWriteTarget(6));
+        assertEquals(analysis.getUnresolvedJumpPositions(), new int[] {2});
+        assertTrue(analysis.getBasicBlocks().get(0).hasUnresolvedJump());
+        assertFalse(analysis.isComplete());
+        assertFalse(analysis.isImmutable(0));
+    }
+
+    @Test
+    public void testSelfModifyingCode() {
+        // Outputs 5, overwrites the output parameter with 7 and jumps back to the output instruction
+        ProgramAnalysis analysis = ProgramAnalyzer.analyze(new long[] {104, 5, 1101, 0, 7, 1, 1105, 1, 0});
+
+        assertTrue(analysis.isWriteTarget(1));
+        assertTrue(analysis.isComplete());
+        assertFalse(analysis.isImmutable(1));
+        assertTrue(analysis.isImmutable(0));
+    }
+
+    @Test
+    public void testCallAndReturn() {
+        // Pushes the return address (7), calls the function at 9, which returns through a relative mode jump
+        ProgramAnalysis analysis = ProgramAnalyzer.analyze(new long[] {21101, 0, 7, 0, 1105, 1, 9, 99, 0, 2106, 0, 0});
+
+        assertEquals(analysis.getRelativeWritePositions(), new int[] {0});
+        assertEquals(analysis.getUnresolvedJumpPositions(), new int[] {9});
+        assertTrue(analysis.isInstructionStart(7));
+        assertTrue(analysis.isInstructionStart(9));
+        assertEquals(analysis.getBlockAt(9).orElseThrow().getSuccessors(), new int[0]);
+        assertFalse(analysis.isComplete());
+        assertFalse(analysis.isImmutable(9));
+    }
+
+    @Test
+    public void testBoostProgram() throws IOException {
+        BigInteger[] code = IntCodeLoader.getInstance()
+                .loadBigIntCodeFromFile(Paths.get("resources", "com", "challenge", "library", "intcodecomputer"), "day9_input.txt");
+        ProgramAnalysis analysis = ProgramAnalyzer.analyze(code);
+
+        assertTrue(analysis.getBasicBlocks().size() > 1);
+        assertTrue(analysis.isInstructionStart(0));
+        assertTrue(analysis.getRelativeWritePositions().length > 0);
+        assertFalse(analysis.isComplete());
+        for (ProgramAnalysis.BasicBlock block : analysis.getBasicBlocks()) {
+            for (int successor : block.getSuccessors())
+                assertTrue(analysis.isInstructionStart(successor));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.challenge.library.intcodecomputer;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+public class ProgramCacheTest {
+    private static final Path BASE_PATH = Paths.get("resources", "com", "challenge", "library", "intcodecomputer");
+
+    private Path cacheDirectory;
+    private Path programDirectory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        cacheDirectory = Files.createTempDirectory("intcode-cache");
+        programDirectory = Files.createTempDirectory("intcode-programs");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        deleteRecursively(cacheDirectory);
+        deleteRecursively(programDirectory);
+    }
+
+    @Test
+    public void testCachedProgramIsTheSameAsTheParsedOne() throws IOException {
+        BigInteger[] expectedCode = IntCodeLoader.getInstance().loadBigIntCodeFromFile(BASE_PATH, "day9_input.txt");
+
+        IntCodeLoader loader = IntCodeLoader.getCachedInstance(cacheDirectory, 0);
+        assertEquals(loader.loadBigIntCodeFromFile(BASE_PATH, "day9_input.txt"), expectedCode);
+        assertEquals(numCacheFiles(), 1);
+
+        // Loaded from the cache file now
+        assertEquals(loader.loadBigIntCodeFromFile(BASE_PATH, "day9_input.txt"), expectedCode);
+        assertEquals(IntCodeLoader.getCachedInstance(cacheDirectory, 0).loadBigIntCodeFromFile(BASE_PATH, "day9_input.txt"), expectedCode);
+        assertEquals(numCacheFiles(), 1);
+    }
+
+    @Test
+    public void testBigValues() throws IOException {
+        final String bigValue = "123456789012345678901234567890";
+        Files.writeString(programDirectory.resolve("program.txt"), "104," + bigValue + ",104," + Long.MIN_VALUE + ",99\n");
+
+        IntCodeLoader loader = IntCodeLoader.getCachedInstance(cacheDirectory, 0);
+        loader.loadBigIntCodeFromFile(programDirectory, "program.txt");
+        BigInteger[] code = loader.loadBigIntCodeFromFile(programDirectory, "program.txt");
+
+        assertEquals(code, new BigInteger[] {
+                BigInteger.valueOf(104), new BigInteger(bigValue), BigInteger.valueOf(104), BigInteger.valueOf(Long.MIN_VALUE), BigInteger.valueOf(99)});
+    }
+
+    @Test
+    public void testLongCode() throws IOException {
+        long[] expectedCode = IntCodeLoader.getInstance().loadIntCodeFromFile(BASE_PATH, "day9_input.txt");
+
+        IntCodeLoader loader = IntCodeLoader.getCachedInstance(cacheDirectory, 0);
+        loader.loadIntCodeFromFile(BASE_PATH, "day9_input.txt");
+        assertEquals(loader.loadIntCodeFromFile(BASE_PATH, "day9_input.txt"), expectedCode);
+    }
+
+    @Test
+    public void testProgramTextChanged() throws IOException {
+        Path program = programDirectory.resolve("program.txt");
+        IntCodeLoader loader = IntCodeLoader.getCachedInstance(cacheDirectory, 0);
+
+        Files.writeString(program, "1,0,0,0,99");
+        assertEquals(loader.loadIntCodeFromFile(programDirectory, "program.txt"), new long[] {1, 0, 0, 0, 99});
+
+        Files.writeString(program, "2,0,0,0,99");
+        assertEquals(loader.loadIntCodeFromFile(programDirectory, "program.txt"), new long[] {2, 0, 0, 0, 99});
+        assertEquals(numCacheFiles(), 2);
+    }
+
+    @Test
+    public void testCorruptedCacheFileIsReplaced() throws IOException {
+        Files.writeString(programDirectory.resolve("program.txt"), "1,0,0,0,99");
+        IntCodeLoader loader = IntCodeLoader.getCachedInstance(cacheDirectory, 0);
+        loader.loadIntCodeFromFile(programDirectory, "program.txt");
+
+        Path cacheFile;
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            cacheFile = files.findFirst().orElseThrow();
+        }
+        Files.write(cacheFile, new byte[] {1, 2, 3});
+
+        assertEquals(loader.loadIntCodeFromFile(programDirectory, "program.txt"), new long[] {1, 0, 0, 0, 99});
+        assertEquals(loader.loadIntCodeFromFile(programDirectory, "program.txt"), new long[] {1, 0, 0, 0, 99});
+        assertTrue(Files.size(cacheFile) > 3);
+    }
+
+    @Test
+    public void testSmallProgramsAreNotCached() throws IOException {
+        Files.writeString(programDirectory.resolve("small.txt"), "1,0,0,0,99");
+        Files.writeString(programDirectory.resolve("big.txt"), "1,0,0,0,".repeat(ProgramCache.DEFAULT_MIN_PROGRAM_SIZE / 8) + "99");
+        IntCodeLoader loader = IntCodeLoader.getCachedInstance(cacheDirectory);
+
+        assertEquals(loader.loadIntCodeFromFile(programDirectory, "small.txt"), new long[] {1, 0, 0, 0, 99});
+        assertEquals(numCacheFiles(), 0);
+
+        loader.loadIntCodeFromFile(programDirectory, "big.txt");
+        assertEquals(numCacheFiles(), 1);
+    }
+
+    private long numCacheFiles() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            return files.count();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.challenge.library.intcodecomputer;
+
+import com.challenge.library.intcodecomputer.SymbolicExecutor.Result;
+import com.challenge.library.intcodecomputer.SymbolicExecutor.Status;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class SymbolicExecutorTest {
+    @Test
+    public void testLinearExpressions() {
+        // Example of day 2: [3] = [9] + [10], [0] = [3] * [11]
+        Result result = SymbolicExecutor.execute(new long[] {1, 9, 10, 3, 2, 3, 11, 0, 99, 30, 40, 50}, 9, 10);
+
+        assertEquals(result.getStatus(), Status.FINISHED);
+        LinearExpression cell0 = result.getCell(0).orElseThrow();
+        assertEquals(cell0.getCoefficient(0), 50);
+        assertEquals(cell0.getCoefficient(1), 50);
+        assertEquals(cell0.getConstant(), 0);
+        assertEquals(cell0.evaluate(30, 40), 3500);
+        assertEquals(cell0.toString(), "50*x0 + 50*x1");
+        assertEquals(result.getCell(11).orElseThrow(), LinearExpression.constant(50, 2));
+    }
+
+    @Test
+    public void testLoopWithConstantConditions() {
+        // Adds the unknown in [20] three times to [21] (counting down in [22]), with immediate and relative modes
+        long[] code = {109, 20, 22201, 0, 1, 1, 1001, 22, -1, 22, 1005, 22, 2, 99, 0, 0, 0, 0, 0, 0, 0, 5, 3};
+        Result result = SymbolicExecutor.execute(code, 20);
+
+        assertTrue(result.isFinished());
+        assertEquals(result.getCell(21).orElseThrow().toString(), "3*x0 + 5");
+    }
+
+    @Test
+    public void testProductOfUnknowns() {
+        Result result = SymbolicExecutor.execute(new long[] {2, 5, 6, 0, 99, 0, 0}, 5, 6);
+
+        assertEquals(result.getStatus(), Status.FINISHED);
+        assertTrue(result.getCell(0).isEmpty());
+    }
+
+    @Test
+    public void testUndefinedValueOverwritten() {
+        // [3] = [[1]] + [[2]], undefined, and then [3] = [1] + [2]
+        Result result = SymbolicExecutor.execute(new long[] {1, 0, 0, 3, 1, 1, 2, 3, 99}, 1, 2);
+
+        assertTrue(result.isFinished());
+        assertEquals(result.getCell(3).orElseThrow().toString(), "x0 + x1");
+    }
+
+    @Test
+    public void testExecutionDependingOnUnknowns() {
+        Result result = SymbolicExecutor.execute(new long[] {1005, 4, 0, 99, 0}, 4);
+
+        assertEquals(result.getStatus(), Status.UNSUPPORTED);
+        assertTrue(result.getReason().isPresent());
+    }
+
+    @Test
+    public void testInputNotSupported() {
+        Result result = SymbolicExecutor.execute(new long[] {3, 0, 99}, 0);
+
+        assertEquals(result.getStatus(), Status.UNSUPPORTED);
+    }
+
+    @Test
+    public void testEndlessLoop() {
+        Result result = SymbolicExecutor.execute(new long[] {1105, 1, 0, 0}, new int[] {3}, 1000);
+
+        assertEquals(result.getStatus(), Status.UNSUPPORTED);
+    }
+}